@@ -0,0 +1,43 @@
+#!/bin/sh
+# Genera el archivo AppCDS del jar de producción (./mvnw -Pproduccion package).
+#
+# Uso: scripts/appcds.sh [argumentos de la aplicación, p. ej. --spring.datasource.url=...]
+#
+# CDS no admite los jar anidados de Spring Boot, así que el jar se descomprime en target/appcds:
+# app.jar (clases de la aplicación y código AOT) y lib/ (dependencias). Después se arranca una
+# vez con -XX:ArchiveClassesAtExit hasta que /actuator/health responde y se detiene; la JVM
+# escribe el archivo al terminar. El entrenamiento necesita la misma base de datos que la
+# ejecución real, y el archivo solo es válido con el mismo JDK y los mismos jar.
+#
+# Ejecución:
+#   cd target/appcds && java -XX:SharedArchiveFile=pedidos.jsa -Dspring.aot.enabled=true \
+#       -Dspring.profiles.active=produccion -cp "$(cat classpath)" \
+#       com.viewnext.kidaprojects.microservicepedido.MicroservicioPedidosApplication
+set -eu
+
+RAIZ=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$RAIZ"/target/MicroservicioPedidos-*.jar)
+DESTINO="$RAIZ/target/appcds"
+PRINCIPAL=com.viewnext.kidaprojects.microservicepedido.MicroservicioPedidosApplication
+PUERTO=${PUERTO:-8081}
+
+rm -rf "$DESTINO"
+mkdir -p "$DESTINO/extraido"
+cd "$DESTINO"
+unzip -q "$JAR" -d extraido
+mv extraido/BOOT-INF/lib lib
+jar --create --file app.jar -C extraido/BOOT-INF/classes .
+rm -rf extraido
+# Rutas relativas y en orden estable: CDS exige el mismo classpath al crear y al usar el archivo.
+{ printf 'app.jar'; for dependencia in $(ls lib | sort); do printf ':lib/%s' "$dependencia"; done; } > classpath
+
+java -XX:ArchiveClassesAtExit=pedidos.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=produccion \
+    -cp "$(cat classpath)" "$PRINCIPAL" --server.port="$PUERTO" "$@" &
+PID=$!
+until curl -sf "http://localhost:$PUERTO/actuator/health" > /dev/null; do
+    kill -0 "$PID" 2> /dev/null || { echo "La aplicación terminó durante el entrenamiento" >&2; exit 1; }
+    sleep 1
+done
+kill "$PID"
+wait "$PID" || true
+echo "Archivo AppCDS generado en $DESTINO/pedidos.jsa"
@@ -0,0 +1,204 @@
+package com.viewnext.kidaprojects.microservicepedido.carga;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.MicroservicioPedidosApplication;
+import com.viewnext.kidaprojects.microservicepedido.stub.ProductoStubServer;
+
+/**
+ * Prueba de carga de extremo a extremo de {@code POST /pedido} y {@code GET /pedido}.
+ *
+ * <p>
+ * Arranca la aplicación completa, con Tomcat en un puerto libre, contra una base de datos H2 en
+ * memoria sembrada con los pedidos de {@code scriptSQL.sql} y contra un MicroservicioProducto
+ * simulado en proceso con la latencia, la tasa de errores y la tasa de conflictos de stock
+ * indicadas. Después genera a la vez altas y listados a tasa fija (modelo abierto) y comprueba
+ * los SLO de cada escenario: rendimiento de al menos el 95% de la tasa, latencias p50, p99 y
+ * p99.9 y proporción de errores.
+ * </p>
+ *
+ * <p>
+ * Todos los parámetros son propiedades del sistema {@code carga.*}; el perfil de Maven
+ * {@code carga} las toma de la línea de comandos, por ejemplo
+ * {@code ./mvnw -Pcarga verify -Dcarga.tasa.altas=300 -Dcarga.slo.p99=100ms}. La aplicación se
+ * ejecuta en la misma JVM, así que el resto de propiedades de la línea de comandos (por ejemplo,
+ * {@code -Dpedido.limite.enabled=false}) sustituyen a las de {@code application.properties}.
+ * </p>
+ *
+ * <p>
+ * {@code carga.hilos} elige dónde atiende la aplicación las solicitudes: {@code plataforma}, el
+ * pool de hilos de Tomcat, o {@code virtual}, el perfil {@code virtual} de la aplicación, que
+ * requiere Java 21 ({@code ./mvnw -Pcarga,java21 verify -Dcarga.hilos=virtual}). El modo forma
+ * parte del nombre de cada escenario, de modo que los resultados de ambos se pueden comparar en
+ * el mismo directorio.
+ * </p>
+ */
+class CargaPedidosIT {
+
+    private static final double RENDIMIENTO_MINIMO = 0.95;
+    private static final Duration TIMEOUT_SOLICITUD = Duration.ofSeconds(30);
+
+    private static ProductoStubServer productos;
+    private static ConfigurableApplicationContext contexto;
+    private static HttpClient cliente;
+    private static String base;
+    private static int[] codigos;
+    private static long ultimoId;
+    private static String hilos;
+
+    @BeforeAll
+    static void arrancar() throws IOException {
+        hilos = System.getProperty("carga.hilos", "plataforma");
+        if (!hilos.equals("plataforma") && !hilos.equals("virtual")) {
+            throw new IllegalArgumentException("carga.hilos debe ser plataforma o virtual: " + hilos);
+        }
+        productos = ProductoStubServer.arrancar()
+                .conLatencia(duracion("carga.producto.latencia", "5ms"))
+                .conTasaErrores(numero("carga.producto.errores", "0"))
+                .conTasaConflictos(numero("carga.producto.conflictos", "0.01"));
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(MicroservicioPedidosApplication.class);
+        if (hilos.equals("virtual")) {
+            aplicacion.profiles("virtual");
+        }
+        contexto = aplicacion.run(
+                "--server.port=0",
+                "--producto.client.base-url=" + productos.getUrl(),
+                "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN");
+        base = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        sembrar(jdbcTemplate, (int) numero("carga.semilla.repeticiones", "1000"));
+        codigos = jdbcTemplate.queryForList("SELECT DISTINCT codigo FROM pedidos", Integer.class).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        ultimoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM pedidos", Long.class);
+    }
+
+    @AfterAll
+    static void parar() {
+        if (contexto != null) {
+            contexto.close();
+        }
+        if (productos != null) {
+            productos.close();
+        }
+    }
+
+    @Test
+    void altasYListadosCumplenLosSlo() throws IOException {
+        Duration calentamiento = duracion("carga.calentamiento", "15s");
+        Duration medida = duracion("carga.duracion", "30s");
+        GeneradorCarga generador = new GeneradorCarga(cliente, (int) numero("carga.maximo-en-curso", "10000"));
+
+        CompletableFuture<ResultadoCarga> altas = CompletableFuture.supplyAsync(() -> generador.ejecutar(
+                "altas-" + hilos, numero("carga.tasa.altas", "40"), calentamiento, medida, CargaPedidosIT::alta));
+        CompletableFuture<ResultadoCarga> listados = CompletableFuture.supplyAsync(() -> generador.ejecutar(
+                "listados-" + hilos, numero("carga.tasa.listados", "10"), calentamiento, medida, CargaPedidosIT::listado));
+        List<ResultadoCarga> resultados = List.of(altas.join(), listados.join());
+
+        Path directorio = Path.of(System.getProperty("carga.resultados", "target/carga"));
+        for (ResultadoCarga resultado : resultados) {
+            System.out.println(resultado.informe());
+            resultado.guardar(directorio);
+        }
+        assertAll(resultados.stream().flatMap(CargaPedidosIT::slo));
+    }
+
+    private static Stream<Executable> slo(ResultadoCarga resultado) {
+        String nombre = resultado.getNombre();
+        Duration p50 = duracion("carga.slo.p50", "50ms");
+        Duration p99 = duracion("carga.slo.p99", "250ms");
+        Duration p999 = duracion("carga.slo.p999", "1s");
+        double errores = numero("carga.slo.errores", "0.01");
+        return Stream.of(
+                () -> assertTrue(resultado.getRendimiento() >= RENDIMIENTO_MINIMO * resultado.getTasa(),
+                        () -> String.format(Locale.ROOT, "%s: rendimiento %.1f/s por debajo del %.0f%% de %.0f/s",
+                                nombre, resultado.getRendimiento(), RENDIMIENTO_MINIMO * 100, resultado.getTasa())),
+                () -> assertTrue(resultado.percentil(50).compareTo(p50) <= 0,
+                        () -> nombre + ": p50 " + resultado.percentil(50) + " > " + p50),
+                () -> assertTrue(resultado.percentil(99).compareTo(p99) <= 0,
+                        () -> nombre + ": p99 " + resultado.percentil(99) + " > " + p99),
+                () -> assertTrue(resultado.percentil(99.9).compareTo(p999) <= 0,
+                        () -> nombre + ": p99.9 " + resultado.percentil(99.9) + " > " + p999),
+                () -> assertTrue(resultado.getTasaErrores() <= errores,
+                        () -> String.format(Locale.ROOT, "%s: errores %.3f%% > %.3f%%",
+                                nombre, resultado.getTasaErrores() * 100, errores * 100)));
+    }
+
+    private static HttpRequest alta() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int codigo = codigos[aleatorio.nextInt(codigos.length)];
+        return HttpRequest.newBuilder(URI.create(base + "/pedido?codigo=" + codigo + "&cantidad=" + (1 + aleatorio.nextInt(5))))
+                .timeout(TIMEOUT_SOLICITUD)
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static HttpRequest listado() {
+        long despuesDe = ThreadLocalRandom.current().nextLong(ultimoId);
+        return HttpRequest.newBuilder(URI.create(base + "/pedido?size=100&after=" + despuesDe))
+                .timeout(TIMEOUT_SOLICITUD)
+                .header("Accept", MediaType.APPLICATION_JSON_VALUE)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Inserta {@code repeticiones} veces los pedidos de ejemplo de {@code scriptSQL.sql}. El resto
+     * del script (creación de la base de datos y de la tabla) se omite porque el esquema lo crea
+     * Flyway.
+     */
+    private static void sembrar(JdbcTemplate jdbcTemplate, int repeticiones) throws IOException {
+        String script = new ClassPathResource("scriptSQL.sql").getContentAsString(StandardCharsets.UTF_8);
+        List<String> inserciones = Arrays.stream(script.split(";"))
+                .map(sentencia -> sentencia.lines().filter(linea -> !linea.trim().startsWith("--"))
+                        .reduce("", (a, b) -> a + " " + b).trim())
+                .filter(sentencia -> sentencia.regionMatches(true, 0, "INSERT", 0, 6))
+                .toList();
+        List<String> lote = new ArrayList<>(inserciones.size() * repeticiones);
+        for (int i = 0; i < repeticiones; i++) {
+            lote.addAll(inserciones);
+        }
+        jdbcTemplate.batchUpdate(lote.toArray(String[]::new));
+    }
+
+    private static Duration duracion(String propiedad, String defecto) {
+        return DurationStyle.detectAndParse(System.getProperty(propiedad, defecto));
+    }
+
+    private static double numero(String propiedad, String defecto) {
+        return Double.parseDouble(System.getProperty(propiedad, defecto));
+    }
+}
@@ -0,0 +1,93 @@
+package com.viewnext.kidaprojects.microservicepedido.carga;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Genera carga de modelo abierto: lanza las solicitudes a una tasa fija, sin esperar a que
+ * terminen las anteriores, como llegan los clientes reales.
+ *
+ * <p>
+ * Cada latencia se mide desde el instante en que la solicitud debía enviarse según la tasa, no
+ * desde que se envió. Si el generador se retrasa porque el servicio o la máquina se atascan, ese
+ * retraso cuenta en la latencia en lugar de desaparecer de la medida (omisión coordinada).
+ * </p>
+ */
+final class GeneradorCarga {
+
+    private final HttpClient cliente;
+    private final int maximoEnCurso;
+
+    /**
+     * @param cliente       El cliente HTTP, compartido entre escenarios.
+     * @param maximoEnCurso El número máximo de solicitudes sin respuesta por escenario; las que
+     *                      lo superan no se envían y cuentan como error.
+     */
+    GeneradorCarga(HttpClient cliente, int maximoEnCurso) {
+        this.cliente = cliente;
+        this.maximoEnCurso = maximoEnCurso;
+    }
+
+    /**
+     * Ejecuta un escenario en el hilo que lo invoca y espera a que terminen sus solicitudes.
+     *
+     * @param nombre        El nombre del escenario.
+     * @param tasa          Las solicitudes por segundo; con 0 no se lanza ninguna.
+     * @param calentamiento El tiempo inicial durante el que las solicitudes no se miden.
+     * @param duracion      El tiempo de medida, tras el calentamiento.
+     * @param solicitudes   Crea cada solicitud.
+     * @return El resultado de las solicitudes medidas.
+     */
+    ResultadoCarga ejecutar(String nombre, double tasa, Duration calentamiento, Duration duracion,
+            Supplier<HttpRequest> solicitudes) {
+        ResultadoCarga resultado = new ResultadoCarga(nombre, tasa, duracion);
+        if (tasa <= 0) {
+            return resultado;
+        }
+        AtomicInteger enCurso = new AtomicInteger();
+        double intervalo = 1e9 / tasa;
+        long inicio = System.nanoTime();
+        long inicioMedida = inicio + calentamiento.toNanos();
+        long fin = inicioMedida + duracion.toNanos();
+
+        for (long n = 0;; n++) {
+            long prevista = inicio + (long) (n * intervalo);
+            if (prevista >= fin) {
+                break;
+            }
+            esperarHasta(prevista);
+            boolean medida = prevista >= inicioMedida;
+            if (enCurso.incrementAndGet() > maximoEnCurso) {
+                enCurso.decrementAndGet();
+                if (medida) {
+                    resultado.descartar();
+                }
+                continue;
+            }
+            cliente.sendAsync(solicitudes.get(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((respuesta, error) -> {
+                        if (medida) {
+                            resultado.registrar(prevista, System.nanoTime(), respuesta != null ? respuesta.statusCode() : -1);
+                        }
+                        enCurso.decrementAndGet();
+                    });
+        }
+
+        while (enCurso.get() > 0) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        return resultado;
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+}
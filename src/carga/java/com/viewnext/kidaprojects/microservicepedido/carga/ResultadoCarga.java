@@ -0,0 +1,131 @@
+package com.viewnext.kidaprojects.microservicepedido.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resultado de un escenario de carga: la distribución de latencias, en microsegundos, y el
+ * número de respuestas por código de estado.
+ *
+ * <p>
+ * Cuentan como errores las respuestas 5xx, las solicitudes que fallaron sin respuesta y las que
+ * no llegaron a enviarse por haber demasiadas en curso. Las respuestas 4xx (por ejemplo, 409 por
+ * falta de stock) son resultados válidos del servicio.
+ * </p>
+ */
+final class ResultadoCarga {
+
+    private final String nombre;
+    private final double tasa;
+    private final Duration duracion;
+    private final Histogram latencias = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> estados = new ConcurrentSkipListMap<>();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    ResultadoCarga(String nombre, double tasa, Duration duracion) {
+        this.nombre = nombre;
+        this.tasa = tasa;
+        this.duracion = duracion;
+    }
+
+    /**
+     * Registra una solicitud terminada.
+     *
+     * @param prevista  El instante, en {@link System#nanoTime()}, en que debía enviarse.
+     * @param terminada El instante en que terminó.
+     * @param estado    El código de estado HTTP, o -1 si falló sin respuesta.
+     */
+    void registrar(long prevista, long terminada, int estado) {
+        latencias.recordValue(TimeUnit.NANOSECONDS.toMicros(terminada - prevista));
+        if (estado < 0) {
+            fallos.increment();
+        } else {
+            estados.computeIfAbsent(estado, codigo -> new LongAdder()).increment();
+        }
+    }
+
+    /** Registra una solicitud que no se envió por haber demasiadas en curso. */
+    void descartar() {
+        descartadas.increment();
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    double getTasa() {
+        return tasa;
+    }
+
+    long getTotal() {
+        return latencias.getTotalCount() + descartadas.sum();
+    }
+
+    /**
+     * @return Las respuestas obtenidas por segundo durante la medida.
+     */
+    double getRendimiento() {
+        return latencias.getTotalCount() / (duracion.toNanos() / 1e9);
+    }
+
+    /**
+     * @return La proporción de solicitudes con error sobre el total.
+     */
+    double getTasaErrores() {
+        long errores = fallos.sum() + descartadas.sum() + estados.entrySet().stream()
+                .filter(entrada -> entrada.getKey() >= 500)
+                .mapToLong(entrada -> entrada.getValue().sum())
+                .sum();
+        long total = getTotal();
+        return total == 0 ? 0 : (double) errores / total;
+    }
+
+    /**
+     * @param percentil El percentil, entre 0 y 100.
+     * @return La latencia de ese percentil.
+     */
+    Duration percentil(double percentil) {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latencias.getValueAtPercentile(percentil)));
+    }
+
+    /**
+     * @return Un resumen de una línea con el rendimiento, los percentiles y los códigos de estado.
+     */
+    String informe() {
+        StringBuilder estadosTexto = new StringBuilder();
+        estados.forEach((estado, numero) -> estadosTexto.append(' ').append(estado).append('=').append(numero.sum()));
+        return String.format("%-19s tasa=%.0f/s rendimiento=%.1f/s p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms "
+                + "errores=%.3f%% fallos=%d descartadas=%d estados:%s",
+                nombre, tasa, getRendimiento(), milis(percentil(50)), milis(percentil(99)), milis(percentil(99.9)),
+                latencias.getMaxValue() / 1000.0, getTasaErrores() * 100, fallos.sum(), descartadas.sum(), estadosTexto);
+    }
+
+    /**
+     * Guarda la distribución de percentiles en {@code <directorio>/<nombre>.hgrm}, en
+     * milisegundos, con el formato que entiende el visor de HdrHistogram.
+     *
+     * @param directorio El directorio de resultados, que se crea si no existe.
+     * @throws IOException Si no se puede escribir el fichero.
+     */
+    void guardar(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(directorio.resolve(nombre + ".hgrm")))) {
+            latencias.outputPercentileDistribution(salida, 1000.0);
+        }
+    }
+
+    private static double milis(Duration duracion) {
+        return duracion.toNanos() / 1e6;
+    }
+}
@@ -0,0 +1,244 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.viewnext.kidaprojects.microservicepedido.stub.ProductoStubServer;
+
+/**
+ * Mide el tiempo desde que se lanza el proceso de la aplicación hasta que atiende con éxito el
+ * primer {@code POST /pedido}, y la memoria residente (RSS) en ese momento, para cada forma de
+ * arranque del jar de producción:
+ *
+ * <ul>
+ * <li>{@code jit}: sin usar el código AOT.</li>
+ * <li>{@code aot}: con {@code -Dspring.aot.enabled=true}.</li>
+ * <li>{@code aot-cds}: además, con un archivo AppCDS generado en una ejecución de
+ * entrenamiento al preparar la prueba.</li>
+ * </ul>
+ *
+ * <p>
+ * Requiere el jar con AOT, por lo que se ejecuta con los dos perfiles:
+ * {@code ./mvnw -Pproduccion,benchmark verify -DskipTests -Djmh.args=Arranque}. Todas las variantes se
+ * lanzan desde el jar descomprimido (CDS no admite los jar anidados), con H2 en memoria y el
+ * servidor de productos simulado. La RSS solo se obtiene en Linux.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class ArranqueBenchmark {
+
+    private static final String CLASE_PRINCIPAL = "com.viewnext.kidaprojects.microservicepedido.MicroservicioPedidosApplication";
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(2);
+
+    @Param({ "jit", "aot", "aot-cds" })
+    public String variante;
+
+    private ProductoStubServer productos;
+    private HttpClient httpClient;
+    private Path directorio;
+    private String classpath;
+    private Path archivoCds;
+    private final List<Long> rss = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        productos = ProductoStubServer.arrancar();
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        directorio = Paths.get("target", "arranque").toAbsolutePath();
+        classpath = descomprimir(buscarJar(), directorio) + File.pathSeparator + jarDe(org.h2.Driver.class);
+        archivoCds = directorio.resolve("pedidos.jsa");
+        if ("aot-cds".equals(variante)) {
+            // Ejecución de entrenamiento: el archivo se escribe al terminar la JVM. Se repite en
+            // cada prueba porque CDS lo invalida si cambian los jar del classpath.
+            Files.deleteIfExists(archivoCds);
+            Aplicacion aplicacion = lanzar("-XX:ArchiveClassesAtExit=" + archivoCds, "-Dspring.aot.enabled=true");
+            esperarPrimerPedido(aplicacion);
+            aplicacion.proceso().destroy();
+            aplicacion.proceso().waitFor();
+        }
+    }
+
+    @Benchmark
+    public void arrancar() throws Exception {
+        Aplicacion aplicacion = switch (variante) {
+        case "jit" -> lanzar();
+        case "aot" -> lanzar("-Dspring.aot.enabled=true");
+        case "aot-cds" -> lanzar("-XX:SharedArchiveFile=" + archivoCds, "-Dspring.aot.enabled=true");
+        default -> throw new IllegalArgumentException("Variante desconocida: " + variante);
+        };
+        try {
+            esperarPrimerPedido(aplicacion);
+            rss.add(rssKb(aplicacion.proceso().pid()));
+        } finally {
+            aplicacion.proceso().destroy();
+            aplicacion.proceso().waitFor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void informar() {
+        productos.close();
+        System.out.printf("%n%s: RSS tras el primer pedido (KB) %s%n", variante, rss);
+    }
+
+    private Aplicacion lanzar(String... opcionesJvm) throws IOException {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(List.of(opcionesJvm));
+        comando.addAll(List.of("-cp", classpath, CLASE_PRINCIPAL,
+                "--server.port=" + puerto,
+                "--spring.profiles.active=produccion",
+                "--spring.datasource.url=jdbc:h2:mem:arranque;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=H2",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--pedido.particionado.enabled=false",
+                "--producto.client.base-url=" + productos.getUrl(),
+                "--logging.level.root=WARN"));
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(directorio.resolve("arranque-" + variante + ".log").toFile())
+                .start();
+        return new Aplicacion(proceso, puerto);
+    }
+
+    private void esperarPrimerPedido(Aplicacion aplicacion) throws IOException, InterruptedException {
+        Process proceso = aplicacion.proceso();
+        HttpRequest alta = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + aplicacion.puerto() + "/pedido?codigo=1001&cantidad=1"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        long limite = System.nanoTime() + ESPERA_MAXIMA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException("La aplicación terminó al arrancar; ver " + directorio);
+            }
+            try {
+                if (httpClient.send(alta, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía no escucha.
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("La aplicación no atendió el primer pedido en " + ESPERA_MAXIMA);
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path estado = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.exists(estado)) {
+            return -1;
+        }
+        try (Stream<String> lineas = Files.lines(estado)) {
+            return lineas.filter(linea -> linea.startsWith("VmRSS:"))
+                    .map(linea -> linea.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(-1);
+        }
+    }
+
+    private static Path buscarJar() throws IOException {
+        try (Stream<Path> ficheros = Files.list(Paths.get("target"))) {
+            return ficheros.filter(fichero -> fichero.getFileName().toString().matches("MicroservicioPedidos-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Falta el jar: ./mvnw -Pproduccion package"));
+        }
+    }
+
+    /**
+     * Descomprime el jar de Spring Boot en {@code lib/} (dependencias) y {@code app.jar} (clases
+     * de la aplicación, incluidas las generadas por AOT).
+     *
+     * @return El classpath resultante, en un orden estable.
+     */
+    private static String descomprimir(Path jar, Path destino) throws IOException {
+        Path lib = destino.resolve("lib");
+        if (Files.exists(lib)) {
+            try (Stream<Path> anteriores = Files.list(lib)) {
+                for (Path anterior : anteriores.toList()) {
+                    Files.delete(anterior);
+                }
+            }
+        }
+        Files.createDirectories(lib);
+        Path app = destino.resolve("app.jar");
+        try (JarFile origen = new JarFile(jar.toFile());
+                JarOutputStream clases = new JarOutputStream(Files.newOutputStream(app))) {
+            Enumeration<JarEntry> entradas = origen.entries();
+            while (entradas.hasMoreElements()) {
+                JarEntry entrada = entradas.nextElement();
+                String nombre = entrada.getName();
+                try (InputStream contenido = origen.getInputStream(entrada)) {
+                    if (nombre.startsWith("BOOT-INF/lib/") && !entrada.isDirectory()) {
+                        Files.copy(contenido, lib.resolve(nombre.substring("BOOT-INF/lib/".length())),
+                                StandardCopyOption.REPLACE_EXISTING);
+                    } else if (nombre.startsWith("BOOT-INF/classes/") && nombre.length() > "BOOT-INF/classes/".length()) {
+                        clases.putNextEntry(new ZipEntry(nombre.substring("BOOT-INF/classes/".length())));
+                        contenido.transferTo(clases);
+                        clases.closeEntry();
+                    }
+                }
+            }
+        }
+        try (Stream<Path> dependencias = Files.list(lib)) {
+            return Stream.concat(Stream.of(app), dependencias.sorted())
+                    .map(Path::toString)
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+    }
+
+    private static String jarDe(Class<?> clase) throws URISyntaxException {
+        return Paths.get(clase.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    private record Aplicacion(Process proceso, int puerto) {
+    }
+}
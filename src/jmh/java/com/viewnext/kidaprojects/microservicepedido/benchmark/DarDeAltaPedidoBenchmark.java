@@ -0,0 +1,56 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.service.PedidoService;
+import com.viewnext.kidaprojects.microservicepedido.stub.ProductoStubServer;
+
+/**
+ * Mide {@code PedidoServiceImpl.darDeAltaPedido} de principio a fin: reserva de stock y precio
+ * contra el servidor de productos simulado (sin latencia añadida) y guardado en H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DarDeAltaPedidoBenchmark {
+
+    private ProductoStubServer productos;
+    private ConfigurableApplicationContext contexto;
+    private PedidoService service;
+
+    @Setup
+    public void arrancar() throws IOException {
+        productos = ProductoStubServer.arrancar();
+        contexto = EntornoBenchmark.arrancar(productos.getUrl(), "alta");
+        service = contexto.getBean(PedidoService.class);
+    }
+
+    @TearDown
+    public void parar() {
+        contexto.close();
+        productos.close();
+    }
+
+    @Benchmark
+    public Pedido darDeAltaPedido() {
+        return service.darDeAltaPedido(1001, 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viewnext.kidaprojects.microservicepedido.MicroservicioPedidosApplication;
+
+/**
+ * Arranca la aplicación para los benchmarks: sin servidor web, contra una base de datos H2 en
+ * memoria (configurada en {@code config/application.properties} de los recursos de test) y con
+ * el cliente de productos apuntando al servidor simulado indicado.
+ */
+final class EntornoBenchmark {
+
+    private EntornoBenchmark() {
+    }
+
+    /**
+     * Arranca un contexto de la aplicación.
+     *
+     * @param urlProductos  La URL base del servidor de productos simulado.
+     * @param baseDeDatos   El nombre de la base de datos H2 en memoria, distinto por benchmark.
+     * @param propiedades   Propiedades adicionales con formato {@code clave=valor}.
+     * @return El contexto arrancado.
+     */
+    static ConfigurableApplicationContext arrancar(String urlProductos, String baseDeDatos, String... propiedades) {
+        // Se pasan como argumentos de línea de comandos para que prevalezcan sobre application.properties.
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--producto.client.base-url=" + urlProductos,
+                "--spring.datasource.url=jdbc:h2:mem:" + baseDeDatos + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN"));
+        Arrays.stream(propiedades).map(propiedad -> "--" + propiedad).forEach(argumentos::add);
+
+        return new SpringApplicationBuilder(MicroservicioPedidosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,115 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+
+/**
+ * Mide el coste de serializar una página de 10.000 pedidos en cada formato de respuesta, con y
+ * sin gzip y con y sin el módulo Blackbird. Al terminar cada combinación imprime los bytes que
+ * ocuparía la respuesta en la red.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FormatosRespuestaBenchmark {
+
+    private static final int PEDIDOS = 10_000;
+
+    @Param({ "json", "cbor", "smile" })
+    public String formato;
+
+    @Param({ "false", "true" })
+    public boolean gzip;
+
+    @Param({ "false", "true" })
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private PaginaPedidos pagina;
+    private ByteArrayOutputStream salida;
+
+    @Setup
+    public void preparar() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factoria(formato))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        List<PedidoDTO> pedidos = new ArrayList<>(PEDIDOS);
+        LocalDateTime fecha = LocalDateTime.of(2026, 10, 18, 9, 0);
+        for (int i = 1; i <= PEDIDOS; i++) {
+            int unidades = 1 + i % 9;
+            pedidos.add(new PedidoDTO(i, 1000 + i % 250, unidades,
+                    BigDecimal.valueOf(unidades * (199L + i % 5000), 2), fecha.plusSeconds(i)));
+        }
+        pagina = new PaginaPedidos(pedidos, (long) PEDIDOS);
+        salida = new ByteArrayOutputStream(1 << 20);
+    }
+
+    private static JsonFactory factoria(String formato) {
+        switch (formato) {
+        case "cbor":
+            return new CBORFactory();
+        case "smile":
+            return new SmileFactory();
+        default:
+            return new JsonFactory();
+        }
+    }
+
+    @Benchmark
+    public int serializar() throws IOException {
+        salida.reset();
+        if (gzip) {
+            try (OutputStream comprimida = new GZIPOutputStream(salida, 8192)) {
+                objectMapper.writeValue(comprimida, pagina);
+            }
+        } else {
+            objectMapper.writeValue(salida, pagina);
+        }
+        return salida.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void informar() {
+        System.out.printf("%n%s gzip=%s blackbird=%s: %d bytes por %d pedidos%n",
+                formato, gzip, blackbird, salida.size(), PEDIDOS);
+    }
+}
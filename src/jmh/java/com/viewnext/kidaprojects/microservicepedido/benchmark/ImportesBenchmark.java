@@ -0,0 +1,90 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+
+/**
+ * Compara la suma de un millón de importes como {@code double}, como céntimos en {@code long} y
+ * como {@code BigDecimal}, y la lectura de un precio como {@code double} y como céntimos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImportesBenchmark {
+
+    private static final int IMPORTES = 1_000_000;
+
+    private double[] dobles;
+    private long[] centimos;
+    private BigDecimal[] decimales;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        dobles = new double[IMPORTES];
+        centimos = new long[IMPORTES];
+        decimales = new BigDecimal[IMPORTES];
+        for (int i = 0; i < IMPORTES; i++) {
+            long importe = aleatorio.nextLong(1, 100_000);
+            centimos[i] = importe;
+            dobles[i] = importe / 100.0;
+            decimales[i] = Importes.aDecimal(importe);
+        }
+    }
+
+    @Benchmark
+    public double sumarDobles() {
+        double total = 0;
+        for (double importe : dobles) {
+            total += importe;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumarCentimos() {
+        long total = 0;
+        for (long importe : centimos) {
+            total += importe;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumarDecimales() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal importe : decimales) {
+            total = total.add(importe);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double parsearDoble() {
+        return Double.parseDouble("1234.56");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long parsearCentimos() {
+        return Importes.parsear("1234.56");
+    }
+}
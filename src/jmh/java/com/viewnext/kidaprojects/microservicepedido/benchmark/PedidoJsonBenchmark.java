@@ -0,0 +1,58 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+
+/**
+ * Mide la serialización y deserialización JSON de un {@code PedidoDTO} con la misma configuración
+ * de Jackson que utiliza la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PedidoJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private PedidoDTO pedido;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        pedido = new PedidoDTO(123456, 1001, 5, new BigDecimal("79.95"), LocalDateTime.of(2023, 10, 4, 12, 30, 15));
+        json = objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public PedidoDTO deserializar() throws IOException {
+        return objectMapper.readValue(json, PedidoDTO.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.stub.ProductoStubServer;
+
+/**
+ * Mide el viaje de ida y vuelta del {@code WebClient} contra el servidor de productos simulado,
+ * sin pasar por la caché de precios.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProductoClientBenchmark {
+
+    private ProductoStubServer productos;
+    private ConfigurableApplicationContext contexto;
+    private ProductoClient productoClient;
+
+    @Setup
+    public void arrancar() throws IOException {
+        productos = ProductoStubServer.arrancar();
+        contexto = EntornoBenchmark.arrancar(productos.getUrl(), "cliente");
+        productoClient = contexto.getBean(ProductoClient.class);
+    }
+
+    @TearDown
+    public void parar() {
+        contexto.close();
+        productos.close();
+    }
+
+    @Benchmark
+    public Long obtenerPrecio() {
+        return productoClient.obtenerPrecio(1001).block();
+    }
+
+    @Benchmark
+    public Void actualizarStock() {
+        return productoClient.actualizarStock(1001, 1).block();
+    }
+}
@@ -0,0 +1,84 @@
+package com.viewnext.kidaprojects.microservicepedido.benchmark;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.service.PedidoService;
+import com.viewnext.kidaprojects.microservicepedido.stub.ProductoStubServer;
+
+/**
+ * Mide la lectura de pedidos con distintos tamaños de tabla: el recorrido en streaming de
+ * {@code streamAll} y una página por cursor de {@code showPage} a mitad de la tabla. El servicio
+ * ya no ofrece la carga completa en una lista, que agotaba la memoria con tablas grandes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ShowAllBenchmark {
+
+    private static final int LOTE_INSERCION = 10_000;
+
+    @Param({ "10000", "100000", "1000000" })
+    private int filas;
+
+    private ProductoStubServer productos;
+    private ConfigurableApplicationContext contexto;
+    private PedidoService service;
+
+    @Setup
+    public void arrancar() throws IOException {
+        productos = ProductoStubServer.arrancar();
+        contexto = EntornoBenchmark.arrancar(productos.getUrl(), "listado" + filas);
+        service = contexto.getBean(PedidoService.class);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        Timestamp fecha = Timestamp.valueOf(LocalDateTime.now());
+        for (int inicio = 0; inicio < filas; inicio += LOTE_INSERCION) {
+            List<Object[]> lote = new ArrayList<>(LOTE_INSERCION);
+            for (int i = inicio; i < Math.min(filas, inicio + LOTE_INSERCION); i++) {
+                lote.add(new Object[] { 1000 + i % 100, 1 + i % 10, 9.99 * (1 + i % 10), fecha });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO pedidos (codigo, unidades, total, fecha) VALUES (?, ?, ?, ?)", lote);
+        }
+    }
+
+    @TearDown
+    public void parar() {
+        contexto.close();
+        productos.close();
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        service.streamAll(blackhole::consume);
+    }
+
+    @Benchmark
+    public PaginaPedidos showPage() {
+        return service.showPage(filas / 2, 100);
+    }
+}
@@ -0,0 +1,111 @@
+package com.viewnext.kidaprojects.microservicepedido.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code PrecioCache} mantiene en memoria los precios de los productos consultados al
+ * MicroservicioProducto, indexados por código de producto.
+ *
+ * <p>
+ * La caché está acotada en tamaño y expulsa entradas con la política W-TinyLFU de Caffeine; cada
+ * precio caduca tras el tiempo de vida configurado. Las consultas concurrentes de un mismo código
+ * que no está en caché comparten una única llamada remota. Los errores (por ejemplo, un producto
+ * inexistente) no se almacenan.
+ * </p>
+ *
+ * <p>
+ * Además se conserva el último precio conocido de cada producto durante más tiempo. Si el
+ * servicio remoto no responde o el circuit breaker rechaza la llamada, se sirve ese precio en
+ * lugar de fallar el pedido.
+ * </p>
+ *
+ * <p>
+ * Los aciertos, fallos y expulsiones se publican como métricas con el nombre de caché
+ * {@code precios}, y los precios servidos desde el último conocido con el contador
+ * {@code precios.ultimo.conocido}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+public class PrecioCache {
+
+    private final ProductoClient productoClient;
+    private final AsyncCache<Integer, Long> precios;
+    private final Cache<Integer, Long> ultimosPrecios;
+    private final Counter usosUltimoConocido;
+
+    public PrecioCache(ProductoClient productoClient, MeterRegistry meterRegistry,
+            @Value("${pedido.precios.cache.ttl:5m}") Duration ttl,
+            @Value("${pedido.precios.cache.tamano-maximo:10000}") long tamanoMaximo,
+            @Value("${pedido.precios.cache.ultimo-conocido-ttl:24h}") Duration ttlUltimoConocido) {
+        this.productoClient = productoClient;
+        this.precios = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.ultimosPrecios = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttlUltimoConocido)
+                .build();
+        this.usosUltimoConocido = meterRegistry.counter("precios.ultimo.conocido");
+        CaffeineCacheMetrics.monitor(meterRegistry, precios, "precios");
+    }
+
+    /**
+     * Obtiene el precio de un producto, consultándolo al servicio remoto solo si no está en caché.
+     *
+     * @param codigo El código del producto.
+     * @return Un {@code Mono} con el precio del producto en céntimos.
+     */
+    public Mono<Long> obtener(int codigo) {
+        return Mono.fromFuture(() -> precios.get(codigo,
+                (clave, executor) -> productoClient.obtenerPrecio(clave)
+                        .doOnNext(precio -> ultimosPrecios.put(clave, precio))
+                        .toFuture()), true)
+                .onErrorResume(UnknownErrorException.class, e -> ultimoConocido(codigo, e));
+    }
+
+    private Mono<Long> ultimoConocido(int codigo, UnknownErrorException error) {
+        Long precio = ultimosPrecios.getIfPresent(codigo);
+        if (precio == null) {
+            return Mono.error(error);
+        }
+        usosUltimoConocido.increment();
+        return Mono.just(precio);
+    }
+
+    /**
+     * Elimina de la caché el precio de un producto.
+     *
+     * @param codigo El código del producto.
+     */
+    public void invalidar(int codigo) {
+        precios.synchronous().invalidate(codigo);
+        ultimosPrecios.invalidate(codigo);
+    }
+
+    /**
+     * Elimina de la caché todos los precios.
+     */
+    public void invalidarTodos() {
+        precios.synchronous().invalidateAll();
+        ultimosPrecios.invalidateAll();
+    }
+}
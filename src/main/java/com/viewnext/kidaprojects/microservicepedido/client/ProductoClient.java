@@ -0,0 +1,184 @@
+package com.viewnext.kidaprojects.microservicepedido.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.viewnext.kidaprojects.microservicepedido.exception.LlamadaRechazadaException;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code ProductoClient} encapsula las llamadas HTTP al MicroservicioProducto a través
+ * del {@code WebClient} configurado en {@code WebClientConfig}.
+ *
+ * <p>
+ * Los métodos devuelven publicadores sin bloquear, de modo que el llamante puede lanzar varias
+ * solicitudes en paralelo. Los errores HTTP se traducen a las excepciones del dominio.
+ * </p>
+ *
+ * <p>
+ * Todas las llamadas pasan por el circuit breaker y el bulkhead {@code producto}: cuando la tasa
+ * de errores o de llamadas lentas supera el umbral el circuito se abre y las llamadas fallan de
+ * inmediato, y el bulkhead limita las llamadas remotas simultáneas. Solo la consulta de precio,
+ * que es idempotente, se reintenta (instancia {@code precio}); la actualización de stock nunca.
+ * Los errores de red se traducen a {@code UnknownErrorException} y las llamadas rechazadas a
+ * {@code LlamadaRechazadaException}, que no se reintenta: con el circuito abierto la consulta de
+ * precio falla de inmediato. Los rechazos se cuentan en {@code producto.llamadas.rechazadas}
+ * (etiqueta {@code motivo}: {@code bulkhead} o {@code circuitbreaker}).
+ * </p>
+ *
+ * <p>
+ * Las devoluciones de stock que compensan una reserva no pasan por el circuit breaker ni por el
+ * bulkhead: se necesitan precisamente cuando el servicio remoto está degradado y, si se
+ * rechazaran, las unidades reservadas se perderían. En su lugar se reintentan con espera
+ * exponencial y aleatoria (instancia {@code compensacion}).
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+public class ProductoClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductoClient.class);
+
+    private static final String PRODUCTO = "producto";
+    private static final String PRECIO = "precio";
+    private static final String COMPENSACION = "compensacion";
+    private static final String RECHAZOS = "producto.llamadas.rechazadas";
+
+    private final WebClient pedidoWebClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retryPrecio;
+    private final Retry retryCompensacion;
+    private final Counter rechazosBulkhead;
+    private final Counter rechazosCircuitBreaker;
+
+    public ProductoClient(WebClient pedidoWebClient, CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry, RetryRegistry retryRegistry, MeterRegistry meterRegistry) {
+        this.pedidoWebClient = pedidoWebClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(PRODUCTO);
+        this.bulkhead = bulkheadRegistry.bulkhead(PRODUCTO);
+        this.retryPrecio = retryRegistry.retry(PRECIO);
+        this.retryCompensacion = retryRegistry.retry(COMPENSACION);
+        this.rechazosBulkhead = meterRegistry.counter(RECHAZOS, "motivo", "bulkhead");
+        this.rechazosCircuitBreaker = meterRegistry.counter(RECHAZOS, "motivo", "circuitbreaker");
+
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> {
+            LOGGER.warn("Circuit breaker {}: {}", evento.getCircuitBreakerName(), evento.getStateTransition());
+            meterRegistry.counter("producto.circuitbreaker.transiciones",
+                    "desde", evento.getStateTransition().getFromState().name(),
+                    "hacia", evento.getStateTransition().getToState().name()).increment();
+        });
+    }
+
+    /**
+     * Descuenta del stock del producto la cantidad indicada mediante una solicitud HTTP PUT.
+     *
+     * @param codigo   El código del producto que se va a actualizar.
+     * @param cantidad La cantidad de unidades a descontar del stock.
+     * @return Un {@code Mono} que se completa cuando el servicio remoto confirma la actualización.
+     *         Falla con {@code StockInsuficienteException}, {@code EntityNotFoundException} o
+     *         {@code UnknownErrorException} según la respuesta recibida.
+     */
+    public Mono<Void> actualizarStock(int codigo, int cantidad) {
+        return put(codigo, cantidad).transformDeferred(this::proteger);
+    }
+
+    /**
+     * Devuelve al stock del producto unidades reservadas previamente. Se utiliza para compensar
+     * una reserva cuando el pedido no llega a registrarse.
+     *
+     * <p>No pasa por el circuit breaker ni por el bulkhead y se reintenta ante errores de red o
+     * del servidor. Si se pierde la respuesta de un intento que sí se aplicó, el reintento
+     * devuelve las unidades dos veces; se prefiere a perderlas.</p>
+     *
+     * @param codigo   El código del producto.
+     * @param cantidad La cantidad de unidades a devolver.
+     * @return Un {@code Mono} que se completa cuando el servicio remoto confirma la actualización.
+     */
+    public Mono<Void> liberarStock(int codigo, int cantidad) {
+        return put(codigo, -cantidad)
+                .onErrorMap(WebClientRequestException.class, e -> new UnknownErrorException())
+                .transformDeferred(RetryOperator.of(retryCompensacion));
+    }
+
+    /**
+     * Obtiene el precio de un producto mediante una solicitud HTTP GET.
+     *
+     * @param codigo El código del producto del cual se desea obtener el precio.
+     * @return Un {@code Mono} con el precio del producto en céntimos. Falla con
+     *         {@code EntityNotFoundException} si el producto no existe o con
+     *         {@code UnknownErrorException} en cualquier otro caso.
+     */
+    public Mono<Long> obtenerPrecio(int codigo) {
+        // El cuerpo se lee como texto y se convierte directamente a céntimos, sin pasar por un
+        // double que podría no representar el precio con exactitud.
+        return pedidoWebClient.get()
+                .uri("/producto/precio/{codigo}", codigo)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(cuerpo -> Importes.parsear(cuerpo.strip()))
+                .onErrorMap(NumberFormatException.class, e -> new UnknownErrorException())
+                .switchIfEmpty(Mono.error(UnknownErrorException::new))
+                .onErrorMap(WebClientResponseException.class, ProductoClient::traducirError)
+                .transformDeferred(this::proteger)
+                .transformDeferred(RetryOperator.of(retryPrecio));
+    }
+
+    private Mono<Void> put(int codigo, int cantidad) {
+        return pedidoWebClient.put()
+                .uri("/producto?codigo={codigo}&cantidad={cantidad}", codigo, cantidad)
+                .retrieve()
+                .toBodilessEntity()
+                .then()
+                .onErrorMap(WebClientResponseException.class, ProductoClient::traducirError);
+    }
+
+    /**
+     * Aplica el bulkhead y el circuit breaker a una llamada remota y traduce los errores de red a
+     * {@code UnknownErrorException} y los rechazos a {@code LlamadaRechazadaException}.
+     */
+    private <T> Mono<T> proteger(Mono<T> llamada) {
+        return llamada
+                .onErrorMap(WebClientRequestException.class, e -> new UnknownErrorException())
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnError(BulkheadFullException.class, e -> rechazosBulkhead.increment())
+                .doOnError(CallNotPermittedException.class, e -> rechazosCircuitBreaker.increment())
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException,
+                        e -> new LlamadaRechazadaException());
+    }
+
+    private static RuntimeException traducirError(WebClientResponseException e) {
+        if (e.getStatusCode() == HttpStatus.CONFLICT) {
+            return new StockInsuficienteException();
+        } else if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return new EntityNotFoundException();
+        }
+        return new UnknownErrorException();
+    }
+}
@@ -0,0 +1,96 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * La clase {@code FormatosRespuestaConfig} registra los formatos binarios que se ofrecen por
+ * negociación de contenido además de JSON: CBOR ({@code application/cbor}) y Smile
+ * ({@code application/x-jackson-smile}, y {@code application/stream+x-jackson-smile} para el
+ * volcado completo en streaming).
+ *
+ * <p>
+ * Los {@code ObjectMapper} de ambos formatos se construyen a partir del
+ * {@code Jackson2ObjectMapperBuilder} de Spring Boot, de modo que comparten módulos y opciones
+ * (fechas ISO-8601, importes decimales) con el de JSON. El módulo Blackbird sustituye la
+ * reflexión en los accesores de los DTO por {@code LambdaMetafactory} y se aplica a todos ellos.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+public class FormatosRespuestaConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.parseMediaType(APPLICATION_STREAM_SMILE_VALUE);
+
+    /**
+     * Registra el módulo Blackbird en todos los {@code ObjectMapper} creados por Spring Boot.
+     *
+     * @return El módulo, salvo que {@code pedido.jackson.blackbird.enabled=false}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "pedido.jackson.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Los convertidores de Spring MVC. Sustituyen a los que Spring añade por defecto al detectar
+     * los formatos en el classpath, que no aplican la configuración de Spring Boot.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    static class Servlet {
+
+        @Bean
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        }
+
+        @Bean
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+        }
+    }
+
+    /**
+     * Los codecs de WebFlux. Solo se registra Smile: el codificador CBOR de Spring no admite
+     * flujos de elementos y el volcado reactivo de pedidos siempre es un flujo.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+            ObjectMapper smile = builder.factory(new SmileFactory()).build();
+            return configurer -> {
+                // Sin tipos explícitos, los constructores con ObjectMapper aceptan los tipos de JSON.
+                configurer.defaultCodecs().jackson2SmileEncoder(
+                        new Jackson2SmileEncoder(smile, APPLICATION_SMILE, APPLICATION_STREAM_SMILE));
+                configurer.defaultCodecs().jackson2SmileDecoder(
+                        new Jackson2SmileDecoder(smile, APPLICATION_SMILE, APPLICATION_STREAM_SMILE));
+            };
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.viewnext.kidaprojects.microservicepedido.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
 import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.metrics.PedidoMetricas;
 
 /**
  * Clase {@code GlobalExceptionHandler} que proporciona un controlador de excepciones globales
@@ -26,6 +28,9 @@ public class GlobalExceptionHandler {
     private static final String INVALID_FORMAT = "Error de formato en la solicitud JSON.";
     private static final String INVALID_ARGUMENT = "Argumento inválido para la solicitud.";
 
+    @Autowired
+    private PedidoMetricas metricas;
+
     /**
      * Maneja la excepción {@code HttpMessageNotReadableException} que se produce cuando
      * una solicitud no se puede leer debido a un formato JSON no válido.
@@ -58,6 +63,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(StockInsuficienteException.class)
     public ResponseEntity<String> handleStockInsuficienteException(StockInsuficienteException ex) {
+        metricas.registrarResultado(HttpStatus.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT).body("Stock insuficiente");
     }
 
@@ -69,6 +75,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(UnknownErrorException.class)
     public ResponseEntity<String> handleUnknownErrorException(UnknownErrorException ex) {
+        metricas.registrarResultado(HttpStatus.INTERNAL_SERVER_ERROR);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error");
     }
     
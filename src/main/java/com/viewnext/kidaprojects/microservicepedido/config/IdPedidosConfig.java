@@ -0,0 +1,52 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdBloques;
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdPedidos;
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdTemporal;
+import com.viewnext.kidaprojects.microservicepedido.id.PedidoIdGenerator;
+
+/**
+ * La clase {@code IdPedidosConfig} crea el {@link GeneradorIdPedidos} elegido con
+ * {@code pedido.id.estrategia} y lo entrega a Hibernate. Con {@code identity}, o sin la
+ * propiedad, no se crea ninguno y los identificadores los asigna la base de datos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+public class IdPedidosConfig {
+
+    /**
+     * @param propiedades La configuración de {@code spring.datasource}, de la que se toma la
+     *                    conexión a la primaria.
+     * @param tamano      El número de identificadores de cada bloque.
+     * @return El generador por bloques, con conexiones propias fuera del pool.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "pedido.id.estrategia", havingValue = "bloques")
+    GeneradorIdBloques generadorIdBloques(DataSourceProperties propiedades,
+            @Value("${pedido.id.bloques.tamano:1000}") int tamano) {
+        return new GeneradorIdBloques(
+                propiedades.initializeDataSourceBuilder().type(SimpleDriverDataSource.class).build(), tamano);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pedido.id.estrategia", havingValue = "temporal")
+    GeneradorIdTemporal generadorIdTemporal(@Value("${pedido.id.temporal.nodo}") int nodo) {
+        return new GeneradorIdTemporal(nodo);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer generadorIdHibernatePropertiesCustomizer(ObjectProvider<GeneradorIdPedidos> generador) {
+        return propiedades -> generador.ifAvailable(configurado -> propiedades.put(PedidoIdGenerator.PROPIEDAD, configurado));
+    }
+}
@@ -0,0 +1,60 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.viewnext.kidaprojects.microservicepedido.limite.LimiteAdaptativo;
+import com.viewnext.kidaprojects.microservicepedido.limite.LimiteConcurrenciaFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code LimiteConcurrenciaConfig} registra el filtro que limita las solicitudes en
+ * curso de los endpoints de pedidos y sus métricas:
+ *
+ * <ul>
+ * <li>{@code pedido.limite.actual}: el límite calculado a partir de la latencia.</li>
+ * <li>{@code pedido.limite.en-curso}: las solicitudes limitadas que se están atendiendo.</li>
+ * <li>{@code pedido.limite.rechazos}: las solicitudes rechazadas con 503, por prioridad
+ * (etiqueta {@code prioridad}).</li>
+ * </ul>
+ *
+ * <p>
+ * Se activa con {@code pedido.limite.enabled=true} y solo con Spring MVC; en el perfil
+ * {@code reactive} la concurrencia ya la acotan los pools de R2DBC y del cliente HTTP.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "pedido.limite.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LimiteConcurrenciaProperties.class)
+public class LimiteConcurrenciaConfig {
+
+    @Bean
+    LimiteAdaptativo limiteAdaptativo(LimiteConcurrenciaProperties propiedades, MeterRegistry meterRegistry) {
+        LimiteAdaptativo limite = new LimiteAdaptativo(propiedades.getInicial(), propiedades.getMinimo(),
+                propiedades.getMaximo(), propiedades.getTolerancia(), propiedades.getFraccionListados(),
+                propiedades.getMuestrasPorVentana(), propiedades.getVentanaLarga());
+        Gauge.builder("pedido.limite.actual", limite, LimiteAdaptativo::getLimite)
+                .description("Límite de solicitudes en curso de los endpoints de pedidos")
+                .register(meterRegistry);
+        Gauge.builder("pedido.limite.en-curso", limite, LimiteAdaptativo::getEnCurso)
+                .description("Solicitudes en curso de los endpoints de pedidos")
+                .register(meterRegistry);
+        return limite;
+    }
+
+    @Bean
+    LimiteConcurrenciaFilter limiteConcurrenciaFilter(LimiteAdaptativo limite, LimiteConcurrenciaProperties propiedades,
+            MeterRegistry meterRegistry) {
+        return new LimiteConcurrenciaFilter(limite, propiedades.getRetryAfter(), meterRegistry);
+    }
+}
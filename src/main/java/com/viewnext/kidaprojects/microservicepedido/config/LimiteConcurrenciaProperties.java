@@ -0,0 +1,115 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * La clase {@code LimiteConcurrenciaProperties} agrupa la configuración del límite adaptativo de
+ * solicitudes en curso de los endpoints de pedidos, bajo el prefijo {@code pedido.limite}.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@ConfigurationProperties(prefix = "pedido.limite")
+public class LimiteConcurrenciaProperties {
+
+    /** Activa el límite de concurrencia. */
+    private boolean enabled = true;
+
+    /** Límite de solicitudes en curso al arrancar. */
+    private int inicial = 20;
+
+    /** Límite mínimo, que se mantiene aunque la latencia siga creciendo. */
+    private int minimo = 5;
+
+    /** Límite máximo; no tiene sentido que supere el número de hilos de Tomcat. */
+    private int maximo = 200;
+
+    /** Aumento de latencia tolerado, respecto a la media de largo plazo, antes de reducir el límite. */
+    private double tolerancia = 1.5;
+
+    /** Fracción del límite que pueden ocupar los listados. */
+    private double fraccionListados = 0.5;
+
+    /** Número de solicitudes de cada ventana de medida. */
+    private int muestrasPorVentana = 10;
+
+    /** Número de ventanas que promedia la latencia de largo plazo. */
+    private int ventanaLarga = 600;
+
+    /** Tiempo indicado en la cabecera {@code Retry-After} de las solicitudes rechazadas. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInicial() {
+        return inicial;
+    }
+
+    public void setInicial(int inicial) {
+        this.inicial = inicial;
+    }
+
+    public int getMinimo() {
+        return minimo;
+    }
+
+    public void setMinimo(int minimo) {
+        this.minimo = minimo;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public void setMaximo(int maximo) {
+        this.maximo = maximo;
+    }
+
+    public double getTolerancia() {
+        return tolerancia;
+    }
+
+    public void setTolerancia(double tolerancia) {
+        this.tolerancia = tolerancia;
+    }
+
+    public double getFraccionListados() {
+        return fraccionListados;
+    }
+
+    public void setFraccionListados(double fraccionListados) {
+        this.fraccionListados = fraccionListados;
+    }
+
+    public int getMuestrasPorVentana() {
+        return muestrasPorVentana;
+    }
+
+    public void setMuestrasPorVentana(int muestrasPorVentana) {
+        this.muestrasPorVentana = muestrasPorVentana;
+    }
+
+    public int getVentanaLarga() {
+        return ventanaLarga;
+    }
+
+    public void setVentanaLarga(int ventanaLarga) {
+        this.ventanaLarga = ventanaLarga;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,175 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * La clase {@code ProductoClientProperties} agrupa la configuración del cliente HTTP que se
+ * utiliza para llamar al MicroservicioProducto, bajo el prefijo {@code producto.client}.
+ *
+ * <p>
+ * Incluye la URL base, el dimensionado del pool de conexiones de Reactor Netty y los tiempos
+ * máximos de conexión, lectura, escritura y respuesta.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@ConfigurationProperties(prefix = "producto.client")
+public class ProductoClientProperties {
+
+    /** URL base del MicroservicioProducto. */
+    private String baseUrl = "http://localhost:8080";
+
+    /** Número máximo de conexiones abiertas en el pool. */
+    private int maxConnections = 100;
+
+    /** Número máximo de solicitudes esperando una conexión libre del pool. */
+    private int pendingAcquireMaxCount = 500;
+
+    /** Tiempo máximo de espera para obtener una conexión del pool. */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    /** Tiempo que una conexión puede permanecer inactiva antes de cerrarse. */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /** Tiempo de vida máximo de una conexión. */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /** Intervalo con el que se revisan y cierran en segundo plano las conexiones caducadas. */
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    /** Tiempo máximo para establecer la conexión TCP. */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /** Tiempo máximo sin recibir datos en una conexión. */
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    /** Tiempo máximo sin poder escribir datos en una conexión. */
+    private Duration writeTimeout = Duration.ofSeconds(3);
+
+    /** Tiempo máximo de espera de la respuesta completa a una solicitud. */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /** Activa TCP keep-alive en las conexiones del pool. */
+    private boolean keepAlive = true;
+
+    /** Solicita respuestas comprimidas con gzip. */
+    private boolean compression = false;
+
+    /** Intenta HTTP/2 en texto plano (h2c), con HTTP/1.1 como alternativa. */
+    private boolean http2 = false;
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    public void setMaxLifeTime(Duration maxLifeTime) {
+        this.maxLifeTime = maxLifeTime;
+    }
+
+    public Duration getEvictInBackground() {
+        return evictInBackground;
+    }
+
+    public void setEvictInBackground(Duration evictInBackground) {
+        this.evictInBackground = evictInBackground;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public void setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+}
@@ -0,0 +1,24 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * La clase {@code ReactiveServerConfig} fuerza el uso de Reactor Netty como servidor web con el
+ * perfil {@code reactive}. Como Tomcat también está en el classpath, Spring Boot lo elegiría por
+ * defecto y las solicitudes no se atenderían en los hilos del bucle de eventos de Netty.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,136 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.viewnext.kidaprojects.microservicepedido.replicas.ConsistenciaLecturas;
+import com.viewnext.kidaprojects.microservicepedido.replicas.EnrutadorLecturasDataSource;
+import com.viewnext.kidaprojects.microservicepedido.replicas.LecturaPropiaFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code ReplicasConfig} sustituye el {@code DataSource} de Spring Boot por uno que
+ * envía las transacciones de solo lectura (listados, búsquedas y estadísticas) a las réplicas
+ * de {@code pedido.replicas.instancias} y el resto a la primaria de {@code spring.datasource}.
+ *
+ * <p>
+ * Se activa con {@code pedido.replicas.enabled=true}. Cada base de datos tiene su propio pool
+ * de Hikari, de modo que los listados largos no ocupan las conexiones de las altas de pedidos.
+ * Flyway migra solo la primaria. El perfil {@code reactive} usa su propio pool R2DBC contra la
+ * primaria y no se ve afectado.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedido.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicasProperties.class)
+public class ReplicasConfig {
+
+    /**
+     * Crea el pool de la primaria con las propiedades {@code spring.datasource.*}.
+     *
+     * @param propiedades La configuración de {@code spring.datasource}.
+     * @return El pool de la primaria.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primariaDataSource(DataSourceProperties propiedades) {
+        HikariDataSource dataSource = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    /**
+     * Crea un pool por réplica, configurado con {@code pedido.replicas.hikari.*}, y el
+     * {@code DataSource} que reparte las conexiones entre ellos y la primaria.
+     *
+     * @param primariaDataSource El pool de la primaria.
+     * @param primaria           La configuración de la primaria, de la que se toman las
+     *                           credenciales por defecto.
+     * @param replicas           La configuración de las réplicas.
+     * @param environment        El entorno, para enlazar las propiedades de Hikari.
+     * @param meterRegistry      El registro de métricas, si existe.
+     * @return El enrutador, que cierra los pools de las réplicas al cerrar el contexto.
+     */
+    @Bean(destroyMethod = "close")
+    EnrutadorLecturasDataSource enrutadorLecturasDataSource(HikariDataSource primariaDataSource,
+            DataSourceProperties primaria, ReplicasProperties replicas, Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        List<ReplicasProperties.Instancia> instancias = replicas.getInstancias();
+        for (int i = 0; i < instancias.size(); i++) {
+            ReplicasProperties.Instancia instancia = instancias.get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(instancia.getUrl())
+                    .username(instancia.getUsername() != null ? instancia.getUsername() : primaria.determineUsername())
+                    .password(instancia.getPassword() != null ? instancia.getPassword() : primaria.determinePassword())
+                    .build();
+            binder.bind("pedido.replicas.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + i);
+            meterRegistry.ifAvailable(registro -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registro)));
+            pools.put(pool.getPoolName(), pool);
+        }
+
+        EnrutadorLecturasDataSource enrutador = new EnrutadorLecturasDataSource(primariaDataSource, pools);
+        meterRegistry.ifAvailable(registro -> Gauge
+                .builder("pedido.replicas.disponibles", enrutador, EnrutadorLecturasDataSource::replicasDisponibles)
+                .description("Réplicas de lectura que reciben conexiones")
+                .register(registro));
+        return enrutador;
+    }
+
+    /**
+     * @param enrutador El enrutador entre primaria y réplicas.
+     * @return El {@code DataSource} de la aplicación, que retrasa la elección de la base de datos
+     *         hasta la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(EnrutadorLecturasDataSource enrutador) {
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+
+    /**
+     * @return El decorador que traslada la lectura en la primaria a las tareas asíncronas.
+     */
+    @Bean
+    TaskDecorator consistenciaLecturasTaskDecorator() {
+        return ConsistenciaLecturas.decorador();
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    LecturaPropiaFilter lecturaPropiaFilter(ReplicasProperties replicas) {
+        return new LecturaPropiaFilter(replicas.getVentanaLecturaPropia());
+    }
+}
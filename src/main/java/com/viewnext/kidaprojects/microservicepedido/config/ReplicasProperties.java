@@ -0,0 +1,102 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * La clase {@code ReplicasProperties} agrupa la configuración de las réplicas de lectura de la
+ * base de datos, bajo el prefijo {@code pedido.replicas}.
+ *
+ * <p>
+ * El pool de cada réplica se configura con las propiedades de Hikari bajo
+ * {@code pedido.replicas.hikari}, de forma independiente del pool de la primaria
+ * ({@code spring.datasource.hikari}).
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@ConfigurationProperties(prefix = "pedido.replicas")
+public class ReplicasProperties {
+
+    /** Activa el envío de las transacciones de solo lectura a las réplicas. */
+    private boolean enabled = false;
+
+    /** Las réplicas de lectura, que se reparten por turnos. */
+    private List<Instancia> instancias = new ArrayList<>();
+
+    /** Intervalo entre comprobaciones de disponibilidad de las réplicas. */
+    private Duration comprobacion = Duration.ofSeconds(5);
+
+    /** Tiempo tras una escritura durante el que el cliente que la hizo lee de la primaria. */
+    private Duration ventanaLecturaPropia = Duration.ofSeconds(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Instancia> getInstancias() {
+        return instancias;
+    }
+
+    public void setInstancias(List<Instancia> instancias) {
+        this.instancias = instancias;
+    }
+
+    public Duration getComprobacion() {
+        return comprobacion;
+    }
+
+    public void setComprobacion(Duration comprobacion) {
+        this.comprobacion = comprobacion;
+    }
+
+    public Duration getVentanaLecturaPropia() {
+        return ventanaLecturaPropia;
+    }
+
+    public void setVentanaLecturaPropia(Duration ventanaLecturaPropia) {
+        this.ventanaLecturaPropia = ventanaLecturaPropia;
+    }
+
+    /**
+     * Una réplica de lectura. Sin usuario ni contraseña se usan los de la primaria.
+     */
+    public static class Instancia {
+
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas programadas con {@code @Scheduled}.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,96 @@
+package com.viewnext.kidaprojects.microservicepedido.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * La clase {@code VirtualThreadConfig} ejecuta las solicitudes HTTP de Tomcat y las tareas
+ * asíncronas de Spring MVC (por ejemplo, las respuestas NDJSON) en hilos virtuales.
+ *
+ * <p>
+ * Se activa con {@code pedido.virtual-threads.enabled=true} (perfil {@code virtual}) y requiere
+ * Java 21; la aplicación se compila para ese nivel con el perfil de Maven {@code java21}. El
+ * ejecutor se obtiene por reflexión para que el resto de la aplicación siga compilando con Java
+ * 17.
+ * </p>
+ *
+ * <p>
+ * Con hilos virtuales la concurrencia deja de estar limitada por el pool de Tomcat, de modo que
+ * el límite real lo fija el pool de Hikari: las solicitudes esperan una conexión libre en lugar
+ * de abrir más conexiones contra MySQL. Para no anclar (pin) los hilos portadores, el código de
+ * la aplicación que se ejecuta en el camino de las solicitudes usa {@code ReentrantLock} en lugar
+ * de bloques {@code synchronized} (la reserva de identificadores, los lotes de stock agrupado y el
+ * búfer de eventos SSE), y el perfil {@code java21} actualiza el driver de MySQL a una versión
+ * que utiliza {@code ReentrantLock}.
+ * </p>
+ *
+ * <p>
+ * La comparación con el pool de Tomcat se repite con la prueba de carga, con los mismos
+ * parámetros en ambos modos: {@code ./mvnw -Pcarga verify} y
+ * {@code ./mvnw -Pcarga,java21 verify -Dcarga.hilos=virtual}. Para que el límite sea el modelo de
+ * hilos, y no el límite de concurrencia ni el bulkhead del cliente de productos, ambas ejecuciones
+ * deben añadir {@code -Dpedido.limite.enabled=false} y
+ * {@code -Dresilience4j.bulkhead.instances.producto.max-concurrent-calls=1000}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedido.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Crea el ejecutor que lanza un hilo virtual por tarea.
+     *
+     * @return El ejecutor de hilos virtuales, que se cierra al cerrar el contexto.
+     * @throws IllegalStateException Si la JVM no soporta hilos virtuales.
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 o superior", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    /**
+     * Sustituye el pool de hilos de los conectores de Tomcat por el ejecutor de hilos virtuales.
+     *
+     * @param virtualThreadExecutor El ejecutor de hilos virtuales.
+     * @return El personalizador del protocolo de Tomcat.
+     */
+    @Bean
+    TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Ejecuta las tareas asíncronas de Spring MVC en hilos virtuales.
+     *
+     * @param virtualThreadExecutor El ejecutor de hilos virtuales.
+     * @param taskDecorator         El decorador de tareas, si existe, como hace Spring Boot con
+     *                              su ejecutor por defecto.
+     * @return El ejecutor de tareas de la aplicación.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor,
+            ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadExecutor);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+}
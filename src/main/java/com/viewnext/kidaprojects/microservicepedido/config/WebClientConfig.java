@@ -1,34 +1,90 @@
 package com.viewnext.kidaprojects.microservicepedido.config;
 
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 /**
  * La clase {@code WebClientConfig} proporciona configuración para crear un WebClient utilizado
  * para realizar solicitudes HTTP a una API remota.
  *
  * <p>
+ * El cliente se apoya en un pool de conexiones de Reactor Netty dimensionado y con tiempos
+ * máximos según {@code ProductoClientProperties}. El pool publica sus métricas de ocupación y
+ * de solicitudes pendientes bajo el nombre {@code producto}.
+ * </p>
+ *
+ * <p>
  * El autor de esta clase es Víctor Colorado "Kid A".
  * </p>
  *
- * @version 1.0
+ * @version 1.1
  * @since 04 de Octubre de 2023
  */
 @Configuration
+@EnableConfigurationProperties(ProductoClientProperties.class)
 public class WebClientConfig {
 
-    private static final String BASE_URL = "http://localhost:8080";
+    /**
+     * Crea el pool de conexiones compartido por las solicitudes al MicroservicioProducto.
+     *
+     * @param propiedades La configuración del cliente.
+     * @return El proveedor de conexiones, que se libera al cerrar el contexto.
+     */
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider productoConnectionProvider(ProductoClientProperties propiedades) {
+        return ConnectionProvider.builder("producto")
+                .maxConnections(propiedades.getMaxConnections())
+                .pendingAcquireMaxCount(propiedades.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(propiedades.getPendingAcquireTimeout())
+                .maxIdleTime(propiedades.getMaxIdleTime())
+                .maxLifeTime(propiedades.getMaxLifeTime())
+                .evictInBackground(propiedades.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
 
     /**
-     * Crea y configura un WebClient para interactuar con una API remota en la
-     * ubicación especificada por BASE_URL.
+     * Crea y configura un WebClient para interactuar con el MicroservicioProducto en la URL
+     * base configurada.
      *
+     * @param builder            El constructor de WebClient proporcionado por Spring Boot.
+     * @param connectionProvider El pool de conexiones a utilizar.
+     * @param propiedades        La configuración del cliente.
      * @return Un objeto WebClient configurado.
      */
     @Bean
-    WebClient pedidoWebClient() {
-        String apiUrl = BASE_URL;
-        return WebClient.create(apiUrl);
+    WebClient pedidoWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+            ProductoClientProperties propiedades) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) propiedades.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, propiedades.isKeepAlive())
+                .responseTimeout(propiedades.getResponseTimeout())
+                .compress(propiedades.isCompression())
+                // Los manejadores se añaden en cada solicitud porque Reactor Netty los retira
+                // al devolver la conexión al pool; así no cierran conexiones inactivas.
+                .doOnRequest((solicitud, conexion) -> conexion
+                        .addHandlerLast(new ReadTimeoutHandler(propiedades.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(propiedades.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+
+        if (propiedades.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return builder
+                .baseUrl(propiedades.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.viewnext.kidaprojects.microservicepedido.exception;
+
+/**
+ * La clase {@code LlamadaRechazadaException} indica que una llamada al MicroservicioProducto no
+ * llegó a hacerse porque el circuit breaker está abierto o el bulkhead está lleno.
+ *
+ * <p>
+ * Es una {@code UnknownErrorException}, por lo que se trata igual que el resto de errores
+ * remotos, pero la consulta de precio no la reintenta: reintentar un rechazo solo retrasa la
+ * respuesta y vuelve a contar el mismo rechazo.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class LlamadaRechazadaException extends UnknownErrorException {
+
+    private static final long serialVersionUID = 1L;
+}
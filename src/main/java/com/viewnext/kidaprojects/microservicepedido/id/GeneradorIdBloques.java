@@ -0,0 +1,111 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * La clase {@code GeneradorIdBloques} reserva en la tabla {@code pedidos_ids} bloques de
+ * identificadores consecutivos y los entrega desde memoria, de modo que solo uno de cada
+ * {@code pedido.id.bloques.tamano} pedidos accede a la base de datos para obtener su
+ * identificador.
+ *
+ * <p>
+ * Cada reserva avanza el contador compartido en su propia transacción, que se confirma aunque el
+ * pedido que la provoca se deshaga: así dos nodos nunca reciben el mismo bloque. Los
+ * identificadores sin usar de un bloque se pierden al detener el nodo. El contador nunca queda
+ * por debajo del mayor identificador existente, por lo que se puede pasar a esta estrategia desde
+ * {@code identity} o {@code temporal} sin preparar la tabla, siempre que todas las instancias
+ * cambien a la vez.
+ * </p>
+ *
+ * <p>
+ * Las conexiones se obtienen de un {@code DataSource} propio, sin pool y contra la primaria: si
+ * se tomaran del pool de la aplicación, con todas sus conexiones ocupadas por transacciones que
+ * esperan un identificador, ninguna reserva podría completarse.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class GeneradorIdBloques implements GeneradorIdPedidos {
+
+    private static final String SELECT_ULTIMO_ID =
+            "SELECT GREATEST(COALESCE((SELECT MAX(id) FROM pedidos), 0), "
+            + "COALESCE((SELECT MAX(id) FROM pedidos_archivo), 0))";
+    private static final String RESERVAR =
+            "UPDATE pedidos_ids SET siguiente = GREATEST(siguiente, ?) + ? WHERE id = 1";
+    private static final String SELECT_SIGUIENTE = "SELECT siguiente FROM pedidos_ids WHERE id = 1";
+
+    private final DataSource dataSource;
+    private final int tamanoBloque;
+
+    // Un cerrojo y no synchronized: la reserva hace E/S y no debe fijar los hilos virtuales.
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private long siguiente;
+    private long limite;
+
+    public GeneradorIdBloques(DataSource dataSource, int tamanoBloque) {
+        if (tamanoBloque < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanoBloque);
+        }
+        this.dataSource = dataSource;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    @Override
+    public long siguiente() {
+        cerrojo.lock();
+        try {
+            if (siguiente == limite) {
+                reservarBloque();
+            }
+            return siguiente++;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Reserva el bloque [{@code siguiente}, {@code limite}). El mayor identificador existente se
+     * lee antes, con una lectura sin bloqueos, para no bloquear el final del índice de
+     * {@code pedidos} mientras se actualiza el contador.
+     */
+    private void reservarBloque() {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try {
+                long minimo = consultar(conexion, SELECT_ULTIMO_ID) + 1;
+                try (PreparedStatement reservar = conexion.prepareStatement(RESERVAR)) {
+                    reservar.setLong(1, minimo);
+                    reservar.setInt(2, tamanoBloque);
+                    if (reservar.executeUpdate() != 1) {
+                        throw new SQLException("Falta la fila de pedidos_ids");
+                    }
+                }
+                long fin = consultar(conexion, SELECT_SIGUIENTE);
+                conexion.commit();
+                siguiente = fin - tamanoBloque;
+                limite = fin;
+            } catch (SQLException e) {
+                conexion.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("No se pudo reservar un bloque de identificadores de pedido", e);
+        }
+    }
+
+    private static long consultar(Connection conexion, String sql) throws SQLException {
+        try (PreparedStatement consulta = conexion.prepareStatement(sql); ResultSet rs = consulta.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
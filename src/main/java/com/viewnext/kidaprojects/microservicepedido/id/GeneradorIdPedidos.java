@@ -0,0 +1,26 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+/**
+ * La interfaz {@code GeneradorIdPedidos} define cómo se asignan los identificadores de los
+ * pedidos antes de insertarlos, sin depender del {@code AUTO_INCREMENT} de la base de datos.
+ *
+ * <p>
+ * La implementación se elige con {@code pedido.id.estrategia}: {@code bloques}, que reserva
+ * rangos de identificadores en la tabla {@code pedidos_ids} y los reparte localmente, o
+ * {@code temporal}, que compone cada identificador con el instante, el nodo y un contador sin
+ * ninguna consulta. Con {@code identity} (por defecto) no hay generador y el identificador lo
+ * asigna la base de datos al insertar.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface GeneradorIdPedidos {
+
+    /**
+     * Obtiene un identificador que no se ha entregado antes en ningún nodo.
+     *
+     * @return Un identificador positivo.
+     */
+    long siguiente();
+}
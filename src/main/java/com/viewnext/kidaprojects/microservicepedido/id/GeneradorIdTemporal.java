@@ -0,0 +1,67 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * La clase {@code GeneradorIdTemporal} compone identificadores de 64 bits ordenados en el tiempo
+ * sin ninguna consulta a la base de datos:
+ *
+ * <pre>
+ * 0 | 41 bits: milisegundos desde 2026-01-01 UTC | 10 bits: nodo | 12 bits: contador
+ * </pre>
+ *
+ * <p>
+ * Cada nodo, identificado por {@code pedido.id.temporal.nodo} (de 0 a 1023), puede generar 4096
+ * identificadores por milisegundo. Si se agota el contador, o si el reloj retrocede, se sigue
+ * contando sobre el último milisegundo usado en lugar de esperar, de modo que los
+ * identificadores de un nodo son siempre crecientes. Como crecen con el tiempo, las inserciones
+ * van casi siempre al final del índice de la clave primaria.
+ * </p>
+ *
+ * <p>
+ * Dos instancias activas nunca deben compartir número de nodo. Los identificadores superan
+ * 2<sup>53</sup>, por lo que los clientes JavaScript deben tratarlos como texto o
+ * {@code BigInt}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class GeneradorIdTemporal implements GeneradorIdPedidos {
+
+    /** 2026-01-01T00:00:00Z en milisegundos. */
+    static final long EPOCA = 1767225600000L;
+    static final int BITS_NODO = 10;
+    static final int BITS_CONTADOR = 12;
+    public static final int NODO_MAXIMO = (1 << BITS_NODO) - 1;
+    private static final long MASCARA_CONTADOR = (1L << BITS_CONTADOR) - 1;
+
+    private final long nodo;
+    private final LongSupplier reloj;
+
+    /** El milisegundo y el contador del último identificador, como {@code ms << 12 | contador}. */
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public GeneradorIdTemporal(int nodo) {
+        this(nodo, System::currentTimeMillis);
+    }
+
+    GeneradorIdTemporal(int nodo, LongSupplier reloj) {
+        if (nodo < 0 || nodo > NODO_MAXIMO) {
+            throw new IllegalArgumentException("El nodo debe estar entre 0 y " + NODO_MAXIMO + ": " + nodo);
+        }
+        this.nodo = nodo;
+        this.reloj = reloj;
+    }
+
+    @Override
+    public long siguiente() {
+        long ahora = (reloj.getAsLong() - EPOCA) << BITS_CONTADOR;
+        // Al desbordarse, el contador pasa al milisegundo siguiente.
+        long marca = ultimo.accumulateAndGet(ahora, (anterior, actual) -> Math.max(anterior + 1, actual));
+        return (marca >>> BITS_CONTADOR) << (BITS_NODO + BITS_CONTADOR)
+                | nodo << BITS_CONTADOR
+                | (marca & MASCARA_CONTADOR);
+    }
+}
@@ -0,0 +1,23 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Marca el identificador de una entidad que se genera con {@link PedidoIdGenerator}, según la
+ * estrategia de {@code pedido.id.estrategia}.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@IdGeneratorType(PedidoIdGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface IdPedido {
+}
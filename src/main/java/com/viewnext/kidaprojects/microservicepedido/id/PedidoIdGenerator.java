@@ -0,0 +1,48 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+import java.lang.reflect.Member;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+/**
+ * El generador {@code PedidoIdGenerator} asigna a Hibernate los identificadores del
+ * {@link GeneradorIdPedidos} configurado, que recibe como propiedad de Hibernate
+ * ({@value #PROPIEDAD}).
+ *
+ * <p>
+ * Si no hay generador (estrategia {@code identity}) se comporta como {@code IDENTITY} y el
+ * identificador lo asigna la base de datos. En otro caso el identificador se conoce antes de la
+ * inserción, lo que evita leer la clave generada y permite a Hibernate agrupar las inserciones
+ * en lotes JDBC.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class PedidoIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    public static final String PROPIEDAD = "pedido.id.generador";
+
+    private final transient GeneradorIdPedidos generador;
+
+    public PedidoIdGenerator(IdPedido anotacion, Member miembro, CustomIdGeneratorCreationContext contexto) {
+        this.generador = (GeneradorIdPedidos) contexto.getServiceRegistry().getService(ConfigurationService.class)
+                .getSettings().get(PROPIEDAD);
+    }
+
+    @Override
+    public boolean generatedOnExecution() {
+        return generador == null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return generador.siguiente();
+    }
+}
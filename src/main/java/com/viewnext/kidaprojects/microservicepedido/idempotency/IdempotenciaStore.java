@@ -0,0 +1,39 @@
+package com.viewnext.kidaprojects.microservicepedido.idempotency;
+
+import java.util.function.Supplier;
+
+/**
+ * La interfaz {@code IdempotenciaStore} define el almacén de respuestas de las peticiones que
+ * llegan con la cabecera {@code Idempotency-Key}.
+ *
+ * <p>
+ * Para cada clave, la operación se ejecuta como mucho una vez mientras su respuesta esté
+ * guardada. Las peticiones repetidas reciben la respuesta guardada sin ejecutar la operación y,
+ * si la primera sigue en curso, esperan a que termine.
+ * </p>
+ *
+ * <p>
+ * La implementación se elige con {@code pedido.idempotencia.almacen}: {@code memoria} (por
+ * defecto, local a cada instancia) o {@code jdbc} (compartida entre instancias a través de la
+ * tabla {@code idempotencia}).
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface IdempotenciaStore {
+
+    /**
+     * Ejecuta la operación asociada a la clave o devuelve la respuesta guardada para ella.
+     *
+     * @param clave     La clave de idempotencia enviada por el cliente.
+     * @param huella    Una representación de los parámetros de la petición, para detectar que
+     *                  una clave se reutiliza con una petición distinta.
+     * @param operacion La operación a ejecutar si la clave no se ha usado.
+     * @return La respuesta de la operación, propia o guardada.
+     * @throws IllegalArgumentException Si la clave ya se usó con una petición distinta.
+     * @throws IllegalStateException    Si la petición original sigue en curso tras el tiempo
+     *                                  máximo de espera.
+     */
+    RespuestaAlmacenada ejecutar(String clave, String huella, Supplier<RespuestaAlmacenada> operacion);
+}
@@ -0,0 +1,158 @@
+package com.viewnext.kidaprojects.microservicepedido.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * La clase {@code IdempotenciaStoreJdbc} guarda las respuestas en la tabla {@code idempotencia},
+ * de modo que las repeticiones se detectan aunque lleguen a otra instancia del servicio.
+ *
+ * <p>
+ * La primera petición inserta la clave sin respuesta; la clave primaria garantiza que solo una
+ * lo consiga. Las demás consultan la fila hasta que tiene respuesta. Mientras está en curso, la
+ * fila caduca tras el tiempo máximo de espera, para que una instancia caída no bloquee la clave;
+ * una vez guardada la respuesta, tras el tiempo de vida configurado. Las filas caducadas se
+ * borran periódicamente por bloques.
+ * </p>
+ *
+ * <p>
+ * Todas las sentencias se ejecutan fuera de la transacción del pedido, para que la reserva de la
+ * clave sea visible de inmediato al resto de peticiones.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.idempotencia.almacen", havingValue = "jdbc")
+public class IdempotenciaStoreJdbc implements IdempotenciaStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotenciaStoreJdbc.class);
+
+    private static final String INSERT =
+            "INSERT INTO idempotencia (clave, huella, expira) VALUES (?, ?, ?)";
+    private static final String SELECT =
+            "SELECT huella, estado, cuerpo, expira FROM idempotencia WHERE clave = ?";
+    private static final String UPDATE =
+            "UPDATE idempotencia SET estado = ?, cuerpo = ?, expira = ? WHERE clave = ?";
+    private static final String DELETE =
+            "DELETE FROM idempotencia WHERE clave = ?";
+    private static final String DELETE_CADUCADA =
+            "DELETE FROM idempotencia WHERE clave = ? AND expira = ?";
+    private static final String PURGAR =
+            "DELETE FROM idempotencia WHERE expira < ? LIMIT ?";
+    private static final int BLOQUE_PURGA = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration esperaMaxima;
+    private final Duration intervaloConsulta;
+
+    public IdempotenciaStoreJdbc(DataSource dataSource,
+            @Value("${pedido.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${pedido.idempotencia.espera-maxima:30s}") Duration esperaMaxima,
+            @Value("${pedido.idempotencia.jdbc.intervalo-consulta:50ms}") Duration intervaloConsulta) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        this.esperaMaxima = esperaMaxima;
+        this.intervaloConsulta = intervaloConsulta;
+    }
+
+    @Override
+    public RespuestaAlmacenada ejecutar(String clave, String huella, Supplier<RespuestaAlmacenada> operacion) {
+        long limite = System.nanoTime() + esperaMaxima.toNanos();
+        do {
+            try {
+                jdbcTemplate.update(INSERT, clave, huella, Timestamp.valueOf(LocalDateTime.now().plus(esperaMaxima)));
+                return ejecutarPropia(clave, operacion);
+            } catch (DuplicateKeyException e) {
+                RespuestaAlmacenada guardada = consultar(clave, huella);
+                if (guardada != null) {
+                    return guardada;
+                }
+            }
+        } while (System.nanoTime() < limite && esperar());
+        throw new IllegalStateException("La petición con esta clave de idempotencia sigue en curso");
+    }
+
+    /**
+     * Borra las claves caducadas en bloques, para no mantener bloqueada la tabla.
+     */
+    @Scheduled(fixedDelayString = "${pedido.idempotencia.jdbc.purga:PT5M}")
+    public void purgar() {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int borradas;
+        int total = 0;
+        do {
+            borradas = jdbcTemplate.update(PURGAR, ahora, BLOQUE_PURGA);
+            total += borradas;
+        } while (borradas == BLOQUE_PURGA);
+        LOGGER.debug("Claves de idempotencia caducadas borradas: {}", total);
+    }
+
+    private RespuestaAlmacenada ejecutarPropia(String clave, Supplier<RespuestaAlmacenada> operacion) {
+        RespuestaAlmacenada respuesta;
+        try {
+            respuesta = operacion.get();
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(DELETE, clave);
+            throw e;
+        }
+        if (respuesta.isDefinitiva()) {
+            jdbcTemplate.update(UPDATE, respuesta.getEstado(), respuesta.getCuerpo(),
+                    Timestamp.valueOf(LocalDateTime.now().plus(ttl)), clave);
+        } else {
+            jdbcTemplate.update(DELETE, clave);
+        }
+        return respuesta;
+    }
+
+    /**
+     * Consulta la fila de la clave. Devuelve la respuesta guardada, o {@code null} si la petición
+     * sigue en curso o la fila ya no existe; en este último caso, o si ha caducado, se vuelve a
+     * intentar reservar la clave.
+     */
+    private RespuestaAlmacenada consultar(String clave, String huella) {
+        List<Fila> filas = jdbcTemplate.query(SELECT, (rs, numero) -> new Fila(rs.getString("huella"),
+                (Integer) rs.getObject("estado"), rs.getString("cuerpo"), rs.getTimestamp("expira")), clave);
+        if (filas.isEmpty()) {
+            return null;
+        }
+        Fila fila = filas.get(0);
+        if (fila.expira().toLocalDateTime().isBefore(LocalDateTime.now())) {
+            jdbcTemplate.update(DELETE_CADUCADA, clave, fila.expira());
+            return null;
+        }
+        if (!fila.huella().equals(huella)) {
+            throw new IllegalArgumentException("La clave de idempotencia ya se usó con otra petición");
+        }
+        return fila.estado() != null ? new RespuestaAlmacenada(fila.estado(), fila.cuerpo()) : null;
+    }
+
+    private boolean esperar() {
+        try {
+            Thread.sleep(intervaloConsulta.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record Fila(String huella, Integer estado, String cuerpo, Timestamp expira) {
+    }
+}
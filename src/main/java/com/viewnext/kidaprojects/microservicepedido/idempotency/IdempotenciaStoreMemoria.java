@@ -0,0 +1,116 @@
+package com.viewnext.kidaprojects.microservicepedido.idempotency;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * La clase {@code IdempotenciaStoreMemoria} guarda las respuestas en una caché Caffeine acotada
+ * en tamaño y con caducidad tras la escritura.
+ *
+ * <p>
+ * Las peticiones en curso se registran aparte, en un mapa que solo contiene tantas entradas como
+ * peticiones concurrentes haya: así la política de expulsión de la caché nunca descarta una
+ * petición en curso y una repetición concurrente siempre espera a su resultado en lugar de
+ * ejecutarse de nuevo.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.idempotencia.almacen", havingValue = "memoria", matchIfMissing = true)
+public class IdempotenciaStoreMemoria implements IdempotenciaStore {
+
+    private final Cache<String, Entrada> completadas;
+    private final ConcurrentMap<String, Entrada> enCurso = new ConcurrentHashMap<>();
+    private final Duration esperaMaxima;
+
+    public IdempotenciaStoreMemoria(MeterRegistry meterRegistry,
+            @Value("${pedido.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${pedido.idempotencia.tamano-maximo:100000}") long tamanoMaximo,
+            @Value("${pedido.idempotencia.espera-maxima:30s}") Duration esperaMaxima) {
+        this.completadas = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.esperaMaxima = esperaMaxima;
+        CaffeineCacheMetrics.monitor(meterRegistry, completadas, "idempotencia");
+    }
+
+    @Override
+    public RespuestaAlmacenada ejecutar(String clave, String huella, Supplier<RespuestaAlmacenada> operacion) {
+        Entrada completada = completadas.getIfPresent(clave);
+        if (completada != null) {
+            return completada.respuesta(huella).join();
+        }
+
+        Entrada propia = new Entrada(huella);
+        Entrada existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            return esperar(existente.respuesta(huella));
+        }
+
+        try {
+            // La petición original pudo terminar entre la consulta a la caché y el registro.
+            completada = completadas.getIfPresent(clave);
+            RespuestaAlmacenada respuesta = completada != null ? completada.respuesta(huella).join() : operacion.get();
+            if (completada == null && respuesta.isDefinitiva()) {
+                completadas.put(clave, propia);
+            }
+            propia.resultado.complete(respuesta);
+            return respuesta;
+        } catch (RuntimeException e) {
+            propia.resultado.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    private RespuestaAlmacenada esperar(CompletableFuture<RespuestaAlmacenada> resultado) {
+        try {
+            return resultado.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("La petición con esta clave de idempotencia sigue en curso");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera interrumpida", e);
+        }
+    }
+
+    private static final class Entrada {
+
+        private final String huella;
+        private final CompletableFuture<RespuestaAlmacenada> resultado = new CompletableFuture<>();
+
+        private Entrada(String huella) {
+            this.huella = huella;
+        }
+
+        private CompletableFuture<RespuestaAlmacenada> respuesta(String huellaPeticion) {
+            if (!huella.equals(huellaPeticion)) {
+                throw new IllegalArgumentException("La clave de idempotencia ya se usó con otra petición");
+            }
+            return resultado;
+        }
+    }
+}
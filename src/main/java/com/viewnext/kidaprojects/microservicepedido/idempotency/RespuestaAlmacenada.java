@@ -0,0 +1,56 @@
+package com.viewnext.kidaprojects.microservicepedido.idempotency;
+
+/**
+ * La clase {@code RespuestaAlmacenada} guarda la respuesta de una petición idempotente: el código
+ * de estado HTTP y el cuerpo ya serializado, para poder devolverla tal cual en las repeticiones.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class RespuestaAlmacenada {
+
+	private int estado;
+	private String cuerpo;
+
+	public RespuestaAlmacenada(int estado, String cuerpo) {
+		super();
+		this.estado = estado;
+		this.cuerpo = cuerpo;
+	}
+
+	public RespuestaAlmacenada() {
+		super();
+	}
+
+	public int getEstado() {
+		return estado;
+	}
+
+	public void setEstado(int estado) {
+		this.estado = estado;
+	}
+
+	public String getCuerpo() {
+		return cuerpo;
+	}
+
+	public void setCuerpo(String cuerpo) {
+		this.cuerpo = cuerpo;
+	}
+
+	/**
+	 * Indica si la respuesta es definitiva y debe devolverse en las repeticiones. Los errores del
+	 * servidor (5xx) no lo son: el stock ya se ha compensado y un reintento puede tener éxito.
+	 *
+	 * @return {@code true} si la respuesta debe guardarse.
+	 */
+	public boolean isDefinitiva() {
+		return estado < 500;
+	}
+
+	@Override
+	public String toString() {
+		return "RespuestaAlmacenada [estado=" + estado + ", cuerpo=" + cuerpo + "]";
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.viewnext.kidaprojects.microservicepedido.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * La clase {@code LimiteAdaptativo} limita el número de solicitudes en curso y ajusta el límite
+ * según la latencia observada, siguiendo un algoritmo de gradiente.
+ *
+ * <p>
+ * Las latencias se agrupan en ventanas de {@code muestrasPorVentana} solicitudes. Al cerrar cada
+ * ventana se compara su latencia media (latencia corta) con una media móvil de muchas ventanas
+ * (latencia larga): mientras la corta no supere a la larga en más de {@code tolerancia} veces, el
+ * límite crece en su raíz cuadrada; si la supera, el límite se reduce en proporción, hasta la
+ * mitad por ventana. Así, cuando MySQL o el MicroservicioProducto se ralentizan, la concurrencia
+ * baja antes de agotar los hilos de Tomcat y el pool de conexiones. Las ventanas en las que no se
+ * llegó a usar la mitad del límite no lo modifican, porque no dicen nada de la capacidad real.
+ * </p>
+ *
+ * <p>
+ * Las solicitudes de {@link Prioridad#ALTA} pueden ocupar todo el límite; las de
+ * {@link Prioridad#BAJA}, solo la fracción {@code fraccionBaja}, de modo que siempre queda hueco
+ * para las altas de pedidos aunque haya muchos listados en curso.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class LimiteAdaptativo {
+
+    /** Prioridad de una solicitud frente al límite. */
+    public enum Prioridad {
+        ALTA, BAJA
+    }
+
+    private static final double GRADIENTE_MINIMO = 0.5;
+    private static final double SUAVIZADO = 0.2;
+
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final double fraccionBaja;
+    private final int muestrasPorVentana;
+    private final int ventanaLarga;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile double limite;
+
+    /** Protege la ventana en curso y la latencia larga. */
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private long sumaNanos;
+    private int muestras;
+    private int maximoEnCurso;
+    private double latenciaLarga;
+
+    /**
+     * @param inicial            El límite inicial.
+     * @param minimo             El límite mínimo.
+     * @param maximo             El límite máximo.
+     * @param tolerancia         El aumento de latencia, respecto a la latencia larga, a partir
+     *                           del cual se reduce el límite.
+     * @param fraccionBaja       La fracción del límite que pueden ocupar las solicitudes de
+     *                           prioridad baja.
+     * @param muestrasPorVentana El número de latencias de cada ventana.
+     * @param ventanaLarga       El número de ventanas que promedia la latencia larga.
+     */
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, double tolerancia, double fraccionBaja,
+            int muestrasPorVentana, int ventanaLarga) {
+        if (minimo < 1 || minimo > maximo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException(
+                    "Se requiere 1 <= mínimo <= inicial <= máximo: " + minimo + ", " + inicial + ", " + maximo);
+        }
+        if (tolerancia < 1 || fraccionBaja <= 0 || fraccionBaja > 1 || muestrasPorVentana < 1 || ventanaLarga < 1) {
+            throw new IllegalArgumentException("Configuración del límite de concurrencia no válida");
+        }
+        this.limite = inicial;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.fraccionBaja = fraccionBaja;
+        this.muestrasPorVentana = muestrasPorVentana;
+        this.ventanaLarga = ventanaLarga;
+    }
+
+    /**
+     * Intenta ocupar un hueco. Si lo consigue, debe liberarse después con {@link #liberar(long)}
+     * o {@link #liberar()}.
+     *
+     * @param prioridad La prioridad de la solicitud.
+     * @return {@code true} si la solicitud puede continuar, {@code false} si debe rechazarse.
+     */
+    public boolean adquirir(Prioridad prioridad) {
+        int cupo = prioridad == Prioridad.ALTA ? (int) limite : Math.max(1, (int) (limite * fraccionBaja));
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= cupo) {
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera un hueco y registra la latencia de la solicitud.
+     *
+     * @param nanos La duración de la solicitud, en nanosegundos.
+     */
+    public void liberar(long nanos) {
+        int ocupados = enCurso.getAndDecrement();
+        cerrojo.lock();
+        try {
+            sumaNanos += nanos;
+            maximoEnCurso = Math.max(maximoEnCurso, ocupados);
+            if (++muestras >= muestrasPorVentana) {
+                cerrarVentana();
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Libera un hueco sin registrar la latencia, para solicitudes cuya duración no es comparable
+     * con las demás (por ejemplo, los volcados completos en NDJSON).
+     */
+    public void liberar() {
+        enCurso.decrementAndGet();
+    }
+
+    private void cerrarVentana() {
+        double latenciaCorta = (double) sumaNanos / muestras;
+        int usados = maximoEnCurso;
+        sumaNanos = 0;
+        muestras = 0;
+        maximoEnCurso = 0;
+
+        if (latenciaLarga == 0) {
+            latenciaLarga = latenciaCorta;
+        } else {
+            latenciaLarga += (latenciaCorta - latenciaLarga) / ventanaLarga;
+        }
+        // Tras un periodo lento, la latencia larga baja más deprisa para no frenar la recuperación.
+        if (latenciaLarga > 2 * latenciaCorta) {
+            latenciaLarga *= 0.95;
+        }
+        double actual = limite;
+        if (usados < actual / 2) {
+            return;
+        }
+        double gradiente = Math.max(GRADIENTE_MINIMO, Math.min(1, tolerancia * latenciaLarga / latenciaCorta));
+        double nuevo = actual * gradiente + Math.sqrt(actual);
+        nuevo = actual * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        limite = Math.max(minimo, Math.min(maximo, nuevo));
+    }
+
+    /**
+     * @return El límite actual de solicitudes en curso.
+     */
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * @return El número de solicitudes en curso.
+     */
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+}
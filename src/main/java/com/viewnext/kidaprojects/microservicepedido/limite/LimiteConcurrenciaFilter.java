@@ -0,0 +1,138 @@
+package com.viewnext.kidaprojects.microservicepedido.limite;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.viewnext.kidaprojects.microservicepedido.limite.LimiteAdaptativo.Prioridad;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * El filtro {@code LimiteConcurrenciaFilter} aplica el {@link LimiteAdaptativo} a los endpoints
+ * de pedidos y rechaza el exceso de solicitudes con 503 (Service Unavailable) y la cabecera
+ * {@code Retry-After}, antes de que ocupen un hilo en el controlador o una conexión de la base
+ * de datos.
+ *
+ * <p>
+ * Las altas ({@code POST /pedido} y {@code POST /pedido/batch}) tienen prioridad alta y los
+ * listados ({@code GET /pedido} y {@code GET /pedido/buscar}), baja. Los volcados en NDJSON o
+ * Smile ocupan su hueco hasta que termina la respuesta asíncrona, pero su duración no se usa
+ * para ajustar el límite. El resto de rutas no se limitan.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    static final String SATURADO = "Servicio saturado, reintente más tarde";
+
+    private final LimiteAdaptativo limite;
+    private final String retryAfter;
+    private final Counter rechazosAlta;
+    private final Counter rechazosBaja;
+
+    /**
+     * @param limite        El límite de concurrencia.
+     * @param retryAfter    El tiempo que se indica al cliente antes de reintentar.
+     * @param meterRegistry El registro de métricas.
+     */
+    public LimiteConcurrenciaFilter(LimiteAdaptativo limite, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limite = limite;
+        this.retryAfter = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.rechazosAlta = rechazos(meterRegistry, Prioridad.ALTA);
+        this.rechazosBaja = rechazos(meterRegistry, Prioridad.BAJA);
+    }
+
+    private static Counter rechazos(MeterRegistry meterRegistry, Prioridad prioridad) {
+        return Counter.builder("pedido.limite.rechazos")
+                .description("Solicitudes rechazadas por el límite de concurrencia")
+                .tag("prioridad", prioridad.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return prioridad(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Prioridad prioridad = prioridad(request);
+        if (!limite.adquirir(prioridad)) {
+            (prioridad == Prioridad.ALTA ? rechazosAlta : rechazosBaja).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(SATURADO);
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        boolean asincrona = false;
+        try {
+            chain.doFilter(request, response);
+            asincrona = request.isAsyncStarted();
+        } finally {
+            if (asincrona) {
+                request.getAsyncContext().addListener(new Liberacion());
+            } else {
+                limite.liberar(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    /**
+     * @return La prioridad de la solicitud, o {@code null} si no se limita.
+     */
+    private static Prioridad prioridad(HttpServletRequest request) {
+        String ruta = request.getServletPath();
+        String metodo = request.getMethod();
+        if (HttpMethod.POST.matches(metodo) && ("/pedido".equals(ruta) || "/pedido/batch".equals(ruta))) {
+            return Prioridad.ALTA;
+        }
+        if (HttpMethod.GET.matches(metodo) && ("/pedido".equals(ruta) || "/pedido/buscar".equals(ruta))) {
+            return Prioridad.BAJA;
+        }
+        return null;
+    }
+
+    /** Libera el hueco de una respuesta asíncrona cuando termina, con o sin error. */
+    private final class Liberacion implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limite.liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete se invoca también tras un timeout.
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete se invoca también tras un error.
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
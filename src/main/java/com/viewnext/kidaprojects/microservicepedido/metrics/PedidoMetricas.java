@@ -0,0 +1,106 @@
+package com.viewnext.kidaprojects.microservicepedido.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code PedidoMetricas} agrupa las métricas propias del alta de pedidos.
+ *
+ * <ul>
+ * <li>{@code pedido.alta}: latencia de cada etapa del alta (etiqueta {@code etapa}: reserva de
+ * stock, consulta de precio, guardado y total), con histograma de percentiles. El histograma usa
+ * cubetas fijas entre 1 ms y 10 s, de modo que registrar una muestra es barato y los percentiles
+ * se calculan en Prometheus.</li>
+ * <li>{@code pedido.resultado}: número de respuestas de los endpoints de pedidos por código de
+ * estado HTTP (etiqueta {@code estado}).</li>
+ * <li>{@code pedido.idempotencia.repeticiones}: número de peticiones con una clave de
+ * idempotencia ya usada, respondidas con la respuesta guardada.</li>
+ * </ul>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+public class PedidoMetricas {
+
+    public static final String ETAPA_RESERVA_STOCK = "reserva_stock";
+    public static final String ETAPA_PRECIO = "precio";
+    public static final String ETAPA_GUARDADO = "guardado";
+    public static final String ETAPA_TOTAL = "total";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> etapas;
+
+    public PedidoMetricas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.etapas = Map.of(
+                ETAPA_RESERVA_STOCK, timerEtapa(ETAPA_RESERVA_STOCK),
+                ETAPA_PRECIO, timerEtapa(ETAPA_PRECIO),
+                ETAPA_GUARDADO, timerEtapa(ETAPA_GUARDADO),
+                ETAPA_TOTAL, timerEtapa(ETAPA_TOTAL));
+    }
+
+    /**
+     * Mide el tiempo que tarda en completarse (con éxito o con error) una operación asíncrona.
+     *
+     * @param <T>       El tipo del valor de la operación.
+     * @param etapa     El nombre de la etapa.
+     * @param operacion La operación a medir.
+     * @return La operación instrumentada.
+     */
+    public <T> Mono<T> cronometrar(String etapa, Mono<T> operacion) {
+        Timer timer = etapas.get(etapa);
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return operacion.doFinally(senal -> timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Mide el tiempo que tarda una operación síncrona, incluso si lanza una excepción.
+     *
+     * @param <T>       El tipo del valor de la operación.
+     * @param etapa     El nombre de la etapa.
+     * @param operacion La operación a medir.
+     * @return El valor devuelto por la operación.
+     */
+    public <T> T cronometrar(String etapa, Supplier<T> operacion) {
+        return etapas.get(etapa).record(operacion);
+    }
+
+    /**
+     * Cuenta una respuesta de los endpoints de pedidos.
+     *
+     * @param estado El código de estado HTTP de la respuesta.
+     */
+    public void registrarResultado(HttpStatusCode estado) {
+        meterRegistry.counter("pedido.resultado", "estado", String.valueOf(estado.value())).increment();
+    }
+
+    /**
+     * Cuenta una petición repetida respondida con la respuesta guardada para su clave de
+     * idempotencia.
+     */
+    public void registrarRepeticion() {
+        meterRegistry.counter("pedido.idempotencia.repeticiones").increment();
+    }
+
+    private Timer timerEtapa(String etapa) {
+        return Timer.builder("pedido.alta")
+                .description("Latencia de las etapas del alta de pedidos")
+                .tag("etapa", etapa)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
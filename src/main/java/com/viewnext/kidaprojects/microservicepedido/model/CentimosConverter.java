@@ -0,0 +1,27 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * El conversor JPA entre los importes en céntimos de las entidades y las columnas
+ * {@code DECIMAL} de la base de datos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Converter
+public class CentimosConverter implements AttributeConverter<Long, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Long centimos) {
+		return centimos != null ? Importes.aDecimal(centimos) : null;
+	}
+
+	@Override
+	public Long convertToEntityAttribute(BigDecimal importe) {
+		return importe != null ? Importes.aCentimos(importe) : null;
+	}
+}
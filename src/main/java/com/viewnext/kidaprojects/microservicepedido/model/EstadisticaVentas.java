@@ -0,0 +1,88 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * La clase {@code EstadisticaVentas} representa las ventas acumuladas de un producto: número de
+ * pedidos, unidades e importe total.
+ *
+ * <p>
+ * En las series temporales, {@code periodo} es el inicio de la hora o del día al que corresponden
+ * los valores; en los rankings de productos es {@code null} y no se serializa.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstadisticaVentas {
+
+	private int codigo;
+	private LocalDateTime periodo;
+	private long pedidos;
+	private long unidades;
+	private BigDecimal total;
+
+	public EstadisticaVentas(int codigo, LocalDateTime periodo, long pedidos, long unidades, BigDecimal total) {
+		super();
+		this.codigo = codigo;
+		this.periodo = periodo;
+		this.pedidos = pedidos;
+		this.unidades = unidades;
+		this.total = total;
+	}
+
+	public EstadisticaVentas() {
+		super();
+	}
+
+	public int getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(int codigo) {
+		this.codigo = codigo;
+	}
+
+	public LocalDateTime getPeriodo() {
+		return periodo;
+	}
+
+	public void setPeriodo(LocalDateTime periodo) {
+		this.periodo = periodo;
+	}
+
+	public long getPedidos() {
+		return pedidos;
+	}
+
+	public void setPedidos(long pedidos) {
+		this.pedidos = pedidos;
+	}
+
+	public long getUnidades() {
+		return unidades;
+	}
+
+	public void setUnidades(long unidades) {
+		this.unidades = unidades;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public void setTotal(BigDecimal total) {
+		this.total = total;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadisticaVentas [codigo=" + codigo + ", periodo=" + periodo + ", pedidos=" + pedidos
+				+ ", unidades=" + unidades + ", total=" + total + "]";
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * La clase {@code EstadoArchivo} describe hasta dónde se han archivado los pedidos.
+ *
+ * <p>
+ * Los pedidos con fecha anterior a {@code completado} están solo en {@code pedidos_archivo} y los
+ * pedidos con fecha igual o posterior a {@code objetivo}, solo en {@code pedidos}. Entre ambas
+ * fechas, mientras se ejecuta un archivado, un pedido puede estar en cualquiera de las dos
+ * tablas. Un valor {@code null} indica que todavía no se ha archivado nada.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class EstadoArchivo {
+
+	private LocalDateTime completado;
+	private LocalDateTime objetivo;
+
+	public EstadoArchivo(LocalDateTime completado, LocalDateTime objetivo) {
+		super();
+		this.completado = completado;
+		this.objetivo = objetivo;
+	}
+
+	public EstadoArchivo() {
+		super();
+	}
+
+	public LocalDateTime getCompletado() {
+		return completado;
+	}
+
+	public void setCompletado(LocalDateTime completado) {
+		this.completado = completado;
+	}
+
+	public LocalDateTime getObjetivo() {
+		return objetivo;
+	}
+
+	public void setObjetivo(LocalDateTime objetivo) {
+		this.objetivo = objetivo;
+	}
+
+	@Override
+	public String toString() {
+		return "EstadoArchivo [completado=" + completado + ", objetivo=" + objetivo + "]";
+	}
+
+}
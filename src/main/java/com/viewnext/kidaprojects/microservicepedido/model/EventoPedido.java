@@ -0,0 +1,71 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * La clase {@code EventoPedido} representa un evento de la tabla {@code outbox}. El identificador
+ * es creciente y sirve como posición de los consumidores en el flujo de eventos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class EventoPedido {
+
+	/** El tipo de los eventos de alta de pedido. */
+	public static final String PEDIDO_CREADO = "PEDIDO_CREADO";
+
+	private long id;
+	private String tipo;
+	private LocalDateTime creado;
+	private PedidoDTO pedido;
+
+	public EventoPedido(long id, String tipo, LocalDateTime creado, PedidoDTO pedido) {
+		super();
+		this.id = id;
+		this.tipo = tipo;
+		this.creado = creado;
+		this.pedido = pedido;
+	}
+
+	public EventoPedido() {
+		super();
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public String getTipo() {
+		return tipo;
+	}
+
+	public void setTipo(String tipo) {
+		this.tipo = tipo;
+	}
+
+	public LocalDateTime getCreado() {
+		return creado;
+	}
+
+	public void setCreado(LocalDateTime creado) {
+		this.creado = creado;
+	}
+
+	public PedidoDTO getPedido() {
+		return pedido;
+	}
+
+	public void setPedido(PedidoDTO pedido) {
+		this.pedido = pedido;
+	}
+
+	@Override
+	public String toString() {
+		return "EventoPedido [id=" + id + ", tipo=" + tipo + ", creado=" + creado + ", pedido=" + pedido + "]";
+	}
+
+}
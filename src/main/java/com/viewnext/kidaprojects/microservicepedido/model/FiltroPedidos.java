@@ -0,0 +1,106 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * La clase {@code FiltroPedidos} reúne los criterios de una búsqueda de pedidos: el código del
+ * producto, el rango de fechas [{@code desde}, {@code hasta}), el sentido de la ordenación por
+ * fecha y la posición desde la que continuar (fecha e identificador del último pedido devuelto).
+ *
+ * <p>
+ * Los criterios con valor {@code null} no se aplican.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class FiltroPedidos {
+
+	private Integer codigo;
+	private LocalDateTime desde;
+	private LocalDateTime hasta;
+	private boolean descendente;
+	private LocalDateTime despuesDeFecha;
+	private Long despuesDeId;
+	private int limite;
+
+	public FiltroPedidos(Integer codigo, LocalDateTime desde, LocalDateTime hasta, boolean descendente,
+			LocalDateTime despuesDeFecha, Long despuesDeId, int limite) {
+		super();
+		this.codigo = codigo;
+		this.desde = desde;
+		this.hasta = hasta;
+		this.descendente = descendente;
+		this.despuesDeFecha = despuesDeFecha;
+		this.despuesDeId = despuesDeId;
+		this.limite = limite;
+	}
+
+	public FiltroPedidos() {
+		super();
+	}
+
+	public Integer getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(Integer codigo) {
+		this.codigo = codigo;
+	}
+
+	public LocalDateTime getDesde() {
+		return desde;
+	}
+
+	public void setDesde(LocalDateTime desde) {
+		this.desde = desde;
+	}
+
+	public LocalDateTime getHasta() {
+		return hasta;
+	}
+
+	public void setHasta(LocalDateTime hasta) {
+		this.hasta = hasta;
+	}
+
+	public boolean isDescendente() {
+		return descendente;
+	}
+
+	public void setDescendente(boolean descendente) {
+		this.descendente = descendente;
+	}
+
+	public LocalDateTime getDespuesDeFecha() {
+		return despuesDeFecha;
+	}
+
+	public void setDespuesDeFecha(LocalDateTime despuesDeFecha) {
+		this.despuesDeFecha = despuesDeFecha;
+	}
+
+	public Long getDespuesDeId() {
+		return despuesDeId;
+	}
+
+	public void setDespuesDeId(Long despuesDeId) {
+		this.despuesDeId = despuesDeId;
+	}
+
+	public int getLimite() {
+		return limite;
+	}
+
+	public void setLimite(int limite) {
+		this.limite = limite;
+	}
+
+	@Override
+	public String toString() {
+		return "FiltroPedidos [codigo=" + codigo + ", desde=" + desde + ", hasta=" + hasta + ", descendente="
+				+ descendente + ", despuesDeFecha=" + despuesDeFecha + ", despuesDeId=" + despuesDeId + ", limite="
+				+ limite + "]";
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * La clase {@code Importes} reúne las operaciones con importes monetarios, que en la aplicación
+ * se representan como un {@code long} con el número de céntimos.
+ *
+ * <p>
+ * Con céntimos enteros las sumas y los productos son exactos y no reservan memoria; la
+ * conversión a {@code BigDecimal} solo se hace en los límites con la base de datos, donde los
+ * importes son {@code DECIMAL} con {@value #ESCALA} decimales, y con la API.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public final class Importes {
+
+	/** El número de decimales de los importes. */
+	public static final int ESCALA = 2;
+
+	private Importes() {
+	}
+
+	/**
+	 * Calcula el importe de un número de unidades.
+	 *
+	 * @param precioCentimos El precio unitario en céntimos.
+	 * @param unidades       El número de unidades.
+	 * @return El importe en céntimos.
+	 * @throws ArithmeticException Si el resultado no cabe en un {@code long}.
+	 */
+	public static long multiplicar(long precioCentimos, int unidades) {
+		return Math.multiplyExact(precioCentimos, unidades);
+	}
+
+	/**
+	 * Convierte un importe en céntimos a un {@code BigDecimal} con la escala de los importes.
+	 *
+	 * @param centimos El importe en céntimos.
+	 * @return El importe.
+	 */
+	public static BigDecimal aDecimal(long centimos) {
+		return BigDecimal.valueOf(centimos, ESCALA);
+	}
+
+	/**
+	 * Convierte un importe a céntimos, redondeando al céntimo más próximo si tiene más decimales.
+	 *
+	 * @param importe El importe.
+	 * @return El importe en céntimos.
+	 * @throws ArithmeticException Si el resultado no cabe en un {@code long}.
+	 */
+	public static long aCentimos(BigDecimal importe) {
+		return importe.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Interpreta un importe escrito en decimal, como {@code "12.5"} o {@code "-0.99"}, y lo
+	 * devuelve en céntimos. Los casos habituales se resuelven recorriendo los caracteres, sin
+	 * crear objetos intermedios; los que tienen más de {@value #ESCALA} decimales o notación
+	 * exponencial se delegan en {@code BigDecimal} y se redondean al céntimo más próximo.
+	 *
+	 * @param texto El importe.
+	 * @return El importe en céntimos.
+	 * @throws NumberFormatException Si el texto no es un número.
+	 */
+	public static long parsear(CharSequence texto) {
+		int longitud = texto.length();
+		int i = 0;
+		boolean negativo = false;
+		if (longitud > 0 && (texto.charAt(0) == '-' || texto.charAt(0) == '+')) {
+			negativo = texto.charAt(0) == '-';
+			i++;
+		}
+		long centimos = 0;
+		int digitos = 0;
+		int decimales = -1;
+		for (; i < longitud; i++) {
+			char c = texto.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (decimales == ESCALA || digitos == 16) {
+					return aCentimos(new BigDecimal(texto.toString()));
+				}
+				centimos = centimos * 10 + (c - '0');
+				digitos++;
+				if (decimales >= 0) {
+					decimales++;
+				}
+			} else if (c == '.' && decimales < 0) {
+				decimales = 0;
+			} else {
+				return aCentimos(new BigDecimal(texto.toString()));
+			}
+		}
+		if (digitos == 0) {
+			throw new NumberFormatException("Importe no válido: " + texto);
+		}
+		for (int d = Math.max(decimales, 0); d < ESCALA; d++) {
+			centimos *= 10;
+		}
+		return negativo ? -centimos : centimos;
+	}
+}
@@ -0,0 +1,47 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+/**
+ * La clase {@code LineaPedido} representa una línea de un pedido en lote: el código del producto
+ * y la cantidad de unidades solicitadas.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class LineaPedido {
+
+	// Sin valor si falta en la solicitud, para poder rechazarla en lugar de tomar un 0.
+	private Integer codigo;
+	private Integer cantidad;
+
+	public LineaPedido(Integer codigo, Integer cantidad) {
+		super();
+		this.codigo = codigo;
+		this.cantidad = cantidad;
+	}
+
+	public LineaPedido() {
+		super();
+	}
+
+	public Integer getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(Integer codigo) {
+		this.codigo = codigo;
+	}
+
+	public Integer getCantidad() {
+		return cantidad;
+	}
+
+	public void setCantidad(Integer cantidad) {
+		this.cantidad = cantidad;
+	}
+
+	@Override
+	public String toString() {
+		return "LineaPedido [codigo=" + codigo + ", cantidad=" + cantidad + "]";
+	}
+
+}
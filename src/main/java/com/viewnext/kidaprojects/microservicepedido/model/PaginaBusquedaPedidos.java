@@ -0,0 +1,54 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code PaginaBusquedaPedidos} representa una página del resultado de una búsqueda de
+ * pedidos ordenada por fecha.
+ *
+ * <p>
+ * El cursor {@code siguiente} identifica el último pedido de la página y debe enviarse como
+ * parámetro {@code after}, junto con los mismos criterios, para obtener la página siguiente. Es
+ * {@code null} cuando no quedan más pedidos.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class PaginaBusquedaPedidos {
+
+	private List<PedidoDTO> pedidos;
+	private String siguiente;
+
+	public PaginaBusquedaPedidos(List<PedidoDTO> pedidos, String siguiente) {
+		super();
+		this.pedidos = pedidos;
+		this.siguiente = siguiente;
+	}
+
+	public PaginaBusquedaPedidos() {
+		super();
+	}
+
+	public List<PedidoDTO> getPedidos() {
+		return pedidos;
+	}
+
+	public void setPedidos(List<PedidoDTO> pedidos) {
+		this.pedidos = pedidos;
+	}
+
+	public String getSiguiente() {
+		return siguiente;
+	}
+
+	public void setSiguiente(String siguiente) {
+		this.siguiente = siguiente;
+	}
+
+	@Override
+	public String toString() {
+		return "PaginaBusquedaPedidos [pedidos=" + pedidos + ", siguiente=" + siguiente + "]";
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.util.List;
+
+/**
+ * La clase {@code PaginaPedidos} representa una página de pedidos obtenida mediante paginación
+ * por cursor sobre el identificador del pedido.
+ *
+ * <p>
+ * El cursor {@code siguiente} contiene el identificador del último pedido de la página y debe
+ * enviarse como parámetro {@code after} para obtener la página siguiente. Es {@code null} cuando
+ * no quedan más pedidos.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class PaginaPedidos {
+
+	private List<PedidoDTO> pedidos;
+	private Long siguiente;
+
+	public PaginaPedidos(List<PedidoDTO> pedidos, Long siguiente) {
+		super();
+		this.pedidos = pedidos;
+		this.siguiente = siguiente;
+	}
+
+	public PaginaPedidos() {
+		super();
+	}
+
+	public List<PedidoDTO> getPedidos() {
+		return pedidos;
+	}
+
+	public void setPedidos(List<PedidoDTO> pedidos) {
+		this.pedidos = pedidos;
+	}
+
+	public Long getSiguiente() {
+		return siguiente;
+	}
+
+	public void setSiguiente(Long siguiente) {
+		this.siguiente = siguiente;
+	}
+
+	@Override
+	public String toString() {
+		return "PaginaPedidos [pedidos=" + pedidos + ", siguiente=" + siguiente + "]";
+	}
+
+}
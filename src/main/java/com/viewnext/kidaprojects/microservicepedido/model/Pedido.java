@@ -5,19 +5,21 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
 
+import com.viewnext.kidaprojects.microservicepedido.id.IdPedido;
+
 
 /**
  * La clase {@code Pedido} representa un pedido que puede ser almacenado en una base de datos.
  * Contiene información como el código del pedido, la cantidad de unidades, el total y la fecha del pedido.
+ * El total se guarda en céntimos (ver {@link Importes}) y en la base de datos como {@code DECIMAL}.
  *
  * <p>
  * El autor de esta clase es Víctor Colorado "Kid A".
@@ -31,24 +33,27 @@ import jakarta.persistence.TemporalType;
 public class Pedido {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
-	private int id;
+	@IdPedido
+	private long id;
 	
 	private int codigo;
 	private int unidades;
-	private double total;
+	
+	@Column(name = "total")
+	@Convert(converter = CentimosConverter.class)
+	private long totalCentimos;
 	
 	@Column(name = "fecha")
 	@Temporal(TemporalType.TIMESTAMP)
 	private LocalDateTime fecha;
 	
 	
-	public Pedido(int codigo, int unidades, double total, LocalDateTime fecha) {
+	public Pedido(int codigo, int unidades, long totalCentimos, LocalDateTime fecha) {
 		super();
 		
 		this.codigo = codigo;
 		this.unidades = unidades;
-		this.total = total;
+		this.totalCentimos = totalCentimos;
 		this.fecha = fecha;
 	}
 	
@@ -60,12 +65,12 @@ public class Pedido {
 	}
 
 
-	public int getId() {
+	public long getId() {
 		return id;
 	}
 
 
-	public void setId(int id) {
+	public void setId(long id) {
 		this.id = id;
 	}
 
@@ -90,13 +95,13 @@ public class Pedido {
 	}
 
 
-	public double getTotal() {
-		return total;
+	public long getTotalCentimos() {
+		return totalCentimos;
 	}
 
 
-	public void setTotal(double total) {
-		this.total = total;
+	public void setTotalCentimos(long totalCentimos) {
+		this.totalCentimos = totalCentimos;
 	}
 
 
@@ -131,7 +136,7 @@ public class Pedido {
 
 	@Override
 	public String toString() {
-		return "Pedido [id=" + id + ", codigo=" + codigo + ", unidades=" + unidades + ", total=" + total + ", fecha="
+		return "Pedido [id=" + id + ", codigo=" + codigo + ", unidades=" + unidades + ", totalCentimos=" + totalCentimos + ", fecha="
 				+ fecha + "]";
 	}
 	
@@ -0,0 +1,93 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * La clase {@code PedidoDTO} es la representación de un pedido en las respuestas de la API y en
+ * los eventos. Se separa de la entidad {@code Pedido} para que la serialización no dependa del
+ * estado de JPA ni de los proxies de Hibernate, y para exponer el total como importe decimal
+ * exacto en lugar de en céntimos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class PedidoDTO {
+
+	private long id;
+	private int codigo;
+	private int unidades;
+	private BigDecimal total;
+	private LocalDateTime fecha;
+
+	public PedidoDTO(long id, int codigo, int unidades, BigDecimal total, LocalDateTime fecha) {
+		super();
+		this.id = id;
+		this.codigo = codigo;
+		this.unidades = unidades;
+		this.total = total;
+		this.fecha = fecha;
+	}
+
+	public PedidoDTO() {
+		super();
+	}
+
+	/**
+	 * Crea la representación de un pedido.
+	 *
+	 * @param pedido El pedido.
+	 * @return Su representación.
+	 */
+	public static PedidoDTO de(Pedido pedido) {
+		return new PedidoDTO(pedido.getId(), pedido.getCodigo(), pedido.getUnidades(),
+				Importes.aDecimal(pedido.getTotalCentimos()), pedido.getFecha());
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public int getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(int codigo) {
+		this.codigo = codigo;
+	}
+
+	public int getUnidades() {
+		return unidades;
+	}
+
+	public void setUnidades(int unidades) {
+		this.unidades = unidades;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public void setTotal(BigDecimal total) {
+		this.total = total;
+	}
+
+	public LocalDateTime getFecha() {
+		return fecha;
+	}
+
+	public void setFecha(LocalDateTime fecha) {
+		this.fecha = fecha;
+	}
+
+	@Override
+	public String toString() {
+		return "PedidoDTO [id=" + id + ", codigo=" + codigo + ", unidades=" + unidades + ", total=" + total
+				+ ", fecha=" + fecha + "]";
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+/**
+ * La clase {@code ResultadoLinea} representa el resultado de procesar una {@code LineaPedido}
+ * dentro de un pedido en lote.
+ *
+ * <p>
+ * Cada línea se resuelve de forma independiente: si se ha registrado, {@code pedido} contiene el
+ * pedido creado; en caso contrario {@code estado} indica el motivo del fallo.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class ResultadoLinea {
+
+	/**
+	 * Los posibles estados de una línea procesada.
+	 */
+	public enum Estado {
+		CREADO, STOCK_INSUFICIENTE, PRODUCTO_NO_ENCONTRADO, ERROR
+	}
+
+	private int codigo;
+	private int cantidad;
+	private Estado estado;
+	private PedidoDTO pedido;
+
+	public ResultadoLinea(int codigo, int cantidad, Estado estado, PedidoDTO pedido) {
+		super();
+		this.codigo = codigo;
+		this.cantidad = cantidad;
+		this.estado = estado;
+		this.pedido = pedido;
+	}
+
+	public ResultadoLinea() {
+		super();
+	}
+
+	public int getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(int codigo) {
+		this.codigo = codigo;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+
+	public void setCantidad(int cantidad) {
+		this.cantidad = cantidad;
+	}
+
+	public Estado getEstado() {
+		return estado;
+	}
+
+	public void setEstado(Estado estado) {
+		this.estado = estado;
+	}
+
+	public PedidoDTO getPedido() {
+		return pedido;
+	}
+
+	public void setPedido(PedidoDTO pedido) {
+		this.pedido = pedido;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoLinea [codigo=" + codigo + ", cantidad=" + cantidad + ", estado=" + estado + ", pedido="
+				+ pedido + "]";
+	}
+
+}
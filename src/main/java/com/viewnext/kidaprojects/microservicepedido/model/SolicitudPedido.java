@@ -0,0 +1,89 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+/**
+ * La clase {@code SolicitudPedido} representa un pedido aceptado en modo asíncrono y su estado.
+ *
+ * <p>
+ * Mientras espera en la cola su estado es {@code PENDIENTE}; una vez procesado pasa a uno de los
+ * estados de {@code ResultadoLinea.Estado} y, si se ha registrado, {@code pedido} contiene el
+ * pedido creado.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class SolicitudPedido {
+
+	/**
+	 * Los posibles estados de una solicitud.
+	 */
+	public enum Estado {
+		PENDIENTE, CREADO, STOCK_INSUFICIENTE, PRODUCTO_NO_ENCONTRADO, ERROR
+	}
+
+	private String id;
+	private int codigo;
+	private int cantidad;
+	private Estado estado;
+	private PedidoDTO pedido;
+
+	public SolicitudPedido(String id, int codigo, int cantidad, Estado estado, PedidoDTO pedido) {
+		super();
+		this.id = id;
+		this.codigo = codigo;
+		this.cantidad = cantidad;
+		this.estado = estado;
+		this.pedido = pedido;
+	}
+
+	public SolicitudPedido() {
+		super();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public int getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(int codigo) {
+		this.codigo = codigo;
+	}
+
+	public int getCantidad() {
+		return cantidad;
+	}
+
+	public void setCantidad(int cantidad) {
+		this.cantidad = cantidad;
+	}
+
+	public Estado getEstado() {
+		return estado;
+	}
+
+	public void setEstado(Estado estado) {
+		this.estado = estado;
+	}
+
+	public PedidoDTO getPedido() {
+		return pedido;
+	}
+
+	public void setPedido(PedidoDTO pedido) {
+		this.pedido = pedido;
+	}
+
+	@Override
+	public String toString() {
+		return "SolicitudPedido [id=" + id + ", codigo=" + codigo + ", cantidad=" + cantidad + ", estado=" + estado
+				+ ", pedido=" + pedido + "]";
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+
+/**
+ * La clase {@code ArchivoEventoSink} añade los eventos a un fichero local en formato NDJSON, un
+ * evento por línea. Solo se crea si {@code pedido.outbox.archivo.enabled=true}; sirve para
+ * integrar procesos locales y para probar el flujo de eventos sin infraestructura adicional.
+ *
+ * <p>
+ * Cada lote se confirma en disco antes de guardar la posición en {@code outbox_offsets}, de modo
+ * que tras una caída el fichero puede contener un lote repetido pero nunca le falta ninguno.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.archivo.enabled", havingValue = "true")
+public class ArchivoEventoSink implements EventoSink, DisposableBean {
+
+    private static final String CONSUMIDOR = "archivo";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final FileChannel canal;
+    private long posicion = -1;
+
+    public ArchivoEventoSink(OutboxRepository outboxRepository, ObjectMapper objectMapper,
+            @Value("${pedido.outbox.archivo.ruta:pedidos-eventos.ndjson}") Path ruta) throws IOException {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String nombre() {
+        return CONSUMIDOR;
+    }
+
+    @Override
+    public synchronized long posicion() {
+        if (posicion < 0) {
+            posicion = outboxRepository.offset(CONSUMIDOR);
+        }
+        return posicion;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoPedido> eventos) {
+        try {
+            StringBuilder lineas = new StringBuilder();
+            for (EventoPedido evento : eventos) {
+                lineas.append(objectMapper.writeValueAsString(evento)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long ultimo = eventos.get(eventos.size() - 1).getId();
+        outboxRepository.guardarOffset(CONSUMIDOR, ultimo);
+        posicion = ultimo;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        canal.close();
+    }
+}
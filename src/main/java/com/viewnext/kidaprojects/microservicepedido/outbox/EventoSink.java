@@ -0,0 +1,47 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import java.util.List;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+
+/**
+ * La interfaz {@code EventoSink} define un destino al que {@code RelayOutbox} entrega los
+ * eventos de la tabla {@code outbox}.
+ *
+ * <p>
+ * Cada destino conoce su posición: el identificador del último evento que ha recibido. El relay
+ * le entrega los eventos siguientes en orden y en lotes; si la entrega falla, se repite el lote
+ * más adelante, por lo que un destino puede recibir un evento más de una vez.
+ * </p>
+ *
+ * <p>
+ * El relay solo se crea si hay algún destino; las condiciones de un destino nuevo deben
+ * añadirse a {@code RelayOutbox.HayDestinos}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface EventoSink {
+
+    /**
+     * El nombre del destino, para trazas y métricas.
+     *
+     * @return El nombre.
+     */
+    String nombre();
+
+    /**
+     * La posición del destino.
+     *
+     * @return El identificador del último evento entregado.
+     */
+    long posicion();
+
+    /**
+     * Entrega un lote de eventos y, si tiene éxito, avanza la posición hasta el último.
+     *
+     * @param eventos Los eventos, en orden de identificador.
+     */
+    void publicar(List<EventoPedido> eventos);
+}
@@ -0,0 +1,50 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+
+/**
+ * La clase {@code PurgaOutbox} borra de la tabla {@code outbox} los eventos anteriores al periodo
+ * de retención que ya se han entregado a todos los {@link EventoSink}. Si no hay ningún destino
+ * en esta aplicación, por ejemplo en el perfil reactivo, los eventos se borran solo por
+ * antigüedad.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+public class PurgaOutbox {
+
+    private static final int BLOQUE_PURGA = 1000;
+
+    private final OutboxRepository outboxRepository;
+    private final List<EventoSink> sinks;
+    private final Duration retencion;
+
+    public PurgaOutbox(OutboxRepository outboxRepository, List<EventoSink> sinks,
+            @Value("${pedido.outbox.retencion:7d}") Duration retencion) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.retencion = retencion;
+    }
+
+    /**
+     * Borra los eventos entregados a todos los destinos y anteriores al periodo de retención.
+     */
+    @Scheduled(fixedDelayString = "${pedido.outbox.purga:PT1H}")
+    public void purgar() {
+        long entregados = sinks.stream().mapToLong(EventoSink::posicion).min().orElse(Long.MAX_VALUE);
+        LocalDateTime anterior = LocalDateTime.now().minus(retencion);
+        int borrados;
+        do {
+            borrados = outboxRepository.purgar(entregados, anterior, BLOQUE_PURGA);
+        } while (borrados == BLOQUE_PURGA);
+    }
+}
@@ -0,0 +1,128 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * La clase {@code RelayOutbox} lee periódicamente los eventos nuevos de la tabla {@code outbox} y
+ * los entrega en lotes a cada {@link EventoSink}, desde la posición de cada uno.
+ *
+ * <p>
+ * Los identificadores se asignan al insertar, pero las transacciones pueden confirmarse en otro
+ * orden. Para no saltarse un evento que aún no es visible, cada lote se corta en el primer hueco
+ * de la numeración, salvo que el evento posterior al hueco tenga más de
+ * {@code pedido.outbox.relay.espera-huecos}: en ese caso se considera que el hueco procede de una
+ * transacción deshecha.
+ * </p>
+ *
+ * <p>
+ * Solo se crea si existe algún destino: el SSE en una aplicación servlet o el fichero si
+ * {@code pedido.outbox.archivo.enabled=true}. Los eventos los borra {@link PurgaOutbox}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Conditional(RelayOutbox.HayDestinos.class)
+public class RelayOutbox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RelayOutbox.class);
+
+    private final OutboxRepository outboxRepository;
+    private final List<EventoSink> sinks;
+    private final MeterRegistry meterRegistry;
+    private final int tamanoLote;
+    private final Duration esperaHuecos;
+
+    public RelayOutbox(OutboxRepository outboxRepository, List<EventoSink> sinks, MeterRegistry meterRegistry,
+            @Value("${pedido.outbox.relay.lote:500}") int tamanoLote,
+            @Value("${pedido.outbox.relay.espera-huecos:10s}") Duration esperaHuecos) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.meterRegistry = meterRegistry;
+        this.tamanoLote = tamanoLote;
+        this.esperaHuecos = esperaHuecos;
+    }
+
+    /**
+     * Entrega a cada destino los eventos pendientes.
+     */
+    @Scheduled(fixedDelayString = "${pedido.outbox.relay.intervalo:PT0.5S}")
+    public void publicar() {
+        for (EventoSink sink : sinks) {
+            try {
+                while (publicarLote(sink)) {
+                    // Continúa mientras haya lotes completos pendientes.
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("No se pudieron entregar eventos al destino {}", sink.nombre(), e);
+            }
+        }
+    }
+
+    private boolean publicarLote(EventoSink sink) {
+        long posicion = sink.posicion();
+        List<EventoPedido> leidos = outboxRepository.leerDesde(posicion, tamanoLote);
+        List<EventoPedido> eventos = hastaElPrimerHueco(posicion, leidos);
+        if (eventos.isEmpty()) {
+            return false;
+        }
+        sink.publicar(eventos);
+        meterRegistry.counter("pedido.outbox.publicados", "destino", sink.nombre()).increment(eventos.size());
+        return eventos.size() == tamanoLote;
+    }
+
+    private List<EventoPedido> hastaElPrimerHueco(long posicion, List<EventoPedido> leidos) {
+        LocalDateTime limiteHueco = LocalDateTime.now().minus(esperaHuecos);
+        List<EventoPedido> eventos = new ArrayList<>(leidos.size());
+        long esperado = posicion + 1;
+        for (EventoPedido evento : leidos) {
+            // Con posición 0 el primer evento puede no ser el 1 si ya se han purgado los anteriores.
+            boolean hueco = evento.getId() != esperado && (posicion > 0 || !eventos.isEmpty());
+            if (hueco && evento.getCreado().isAfter(limiteHueco)) {
+                break;
+            }
+            eventos.add(evento);
+            esperado = evento.getId() + 1;
+        }
+        return eventos;
+    }
+
+    /**
+     * Se cumple si se crea alguno de los {@link EventoSink}; debe reflejar sus condiciones.
+     */
+    static class HayDestinos extends AnyNestedCondition {
+
+        HayDestinos() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnWebApplication(type = Type.SERVLET)
+        static class Sse {
+        }
+
+        @ConditionalOnProperty(name = "pedido.outbox.archivo.enabled", havingValue = "true")
+        static class Archivo {
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+
+/**
+ * La clase {@code SseEventoSink} reenvía los eventos a los clientes suscritos mediante
+ * Server-Sent Events.
+ *
+ * <p>
+ * El identificador de cada evento SSE es el del evento de la tabla {@code outbox}, por lo que un
+ * cliente que se reconecta con la cabecera {@code Last-Event-ID} continúa donde lo dejó: los
+ * eventos recientes se sirven desde un búfer en memoria y los anteriores se leen de la tabla. La
+ * posición de este destino no se guarda: tras un reinicio empieza por el último evento existente
+ * y los clientes recuperan el resto con su {@code Last-Event-ID}.
+ * </p>
+ *
+ * <p>
+ * El relay solo añade los eventos al búfer; el envío a cada cliente lo hace un hilo aparte, de
+ * modo que un cliente lento no retrasa al relay ni a los demás. Ese hilo no empieza hasta que
+ * Spring MVC ha conectado el emisor a la respuesta, para que los eventos se escriban en la
+ * conexión en lugar de acumularse en el emisor. Primero lee de la tabla, página a página, los
+ * eventos anteriores al búfer y después recorre el búfer desde la posición del cliente; cada
+ * envío espera a que el cliente acepte los datos. Una vez al día, el búfer acota lo que puede
+ * retrasarse cada cliente: si se descartan eventos que aún no ha recibido, se cierra su conexión
+ * y el cliente, al reconectar, los recupera de la tabla. El cerrojo solo protege el búfer y la
+ * lista de suscriptores; ninguna operación de red ni de base de datos se hace con él tomado.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class SseEventoSink implements EventoSink, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SseEventoSink.class);
+    private static final int PAGINA_REPETICION = 500;
+
+    private final OutboxRepository outboxRepository;
+    private final int tamanoBufer;
+    private final long timeout;
+    private final ExecutorService envios;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Deque<EventoPedido> recientes = new ArrayDeque<>();
+    private final Set<Suscriptor> suscriptores = new CopyOnWriteArraySet<>();
+    private volatile long posicion = -1;
+    // El identificador del último evento que ya no está en el búfer, o que nunca llegó a estar.
+    private long fueraDeBufer = -1;
+
+    public SseEventoSink(OutboxRepository outboxRepository,
+            @Value("${pedido.outbox.sse.bufer:10000}") int tamanoBufer,
+            @Value("${pedido.outbox.sse.timeout:30m}") Duration timeout) {
+        this.outboxRepository = outboxRepository;
+        this.tamanoBufer = tamanoBufer;
+        this.timeout = timeout.toMillis();
+        AtomicInteger hilos = new AtomicInteger();
+        this.envios = Executors.newCachedThreadPool(tarea -> {
+            Thread hilo = new Thread(tarea, "sse-envio-" + hilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @Override
+    public String nombre() {
+        return "sse";
+    }
+
+    @Override
+    public long posicion() {
+        long actual = posicion;
+        if (actual >= 0) {
+            return actual;
+        }
+        long ultimoId = outboxRepository.ultimoId();
+        cerrojo.lock();
+        try {
+            if (posicion < 0) {
+                posicion = ultimoId;
+                fueraDeBufer = ultimoId;
+            }
+            return posicion;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void publicar(List<EventoPedido> eventos) {
+        posicion();
+        List<Suscriptor> avisar = new ArrayList<>();
+        cerrojo.lock();
+        try {
+            for (EventoPedido evento : eventos) {
+                recientes.addLast(evento);
+                if (recientes.size() > tamanoBufer) {
+                    fueraDeBufer = recientes.removeFirst().getId();
+                }
+            }
+            posicion = eventos.get(eventos.size() - 1).getId();
+            for (Suscriptor suscriptor : suscriptores) {
+                if (!suscriptor.programado) {
+                    suscriptor.programado = true;
+                    avisar.add(suscriptor);
+                }
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+        avisar.forEach(this::programar);
+    }
+
+    /**
+     * Suscribe un cliente al flujo de eventos. El emisor se devuelve de inmediato; los eventos
+     * pendientes se envían después, desde el hilo del suscriptor.
+     *
+     * @param ultimoEventoId El identificador del último evento que recibió el cliente, o
+     *                       {@code null} para recibir solo los eventos nuevos.
+     * @return El emisor SSE del cliente.
+     */
+    public SseEmitter suscribir(Long ultimoEventoId) {
+        // Fija también el límite del búfer, con el que se compara la posición del cliente.
+        long ultimo = posicion();
+        Suscriptor suscriptor = new Suscriptor(new Emisor(timeout), ultimoEventoId != null ? ultimoEventoId : ultimo);
+        Emisor emisor = suscriptor.emisor;
+        emisor.onCompletion(() -> suscriptores.remove(suscriptor));
+        emisor.onTimeout(() -> suscriptores.remove(suscriptor));
+        emisor.onError(error -> suscriptores.remove(suscriptor));
+
+        cerrojo.lock();
+        try {
+            // Hasta que se conecte el emisor, el relay no programa envíos para este cliente.
+            suscriptor.programado = true;
+            suscriptores.add(suscriptor);
+        } finally {
+            cerrojo.unlock();
+        }
+        emisor.conectado.thenRun(() -> programar(suscriptor));
+        return emisor;
+    }
+
+    /**
+     * Deja de enviar eventos a los clientes.
+     */
+    @Override
+    public void destroy() {
+        envios.shutdownNow();
+    }
+
+    private void programar(Suscriptor suscriptor) {
+        try {
+            envios.execute(suscriptor::enviarPendientes);
+        } catch (RejectedExecutionException e) {
+            // La aplicación se está deteniendo.
+        }
+    }
+
+    /**
+     * Copia los eventos del búfer posteriores a {@code despuesDe}. Se llama con el cerrojo tomado.
+     */
+    private List<EventoPedido> posteriores(long despuesDe) {
+        List<EventoPedido> eventos = new ArrayList<>();
+        Iterator<EventoPedido> iterador = recientes.descendingIterator();
+        while (iterador.hasNext()) {
+            EventoPedido evento = iterador.next();
+            if (evento.getId() <= despuesDe) {
+                break;
+            }
+            eventos.add(evento);
+        }
+        Collections.reverse(eventos);
+        return eventos;
+    }
+
+    /**
+     * Emisor que avisa cuando Spring MVC lo conecta a la respuesta. Hasta entonces, lo que se
+     * envía se guarda en memoria en el propio emisor.
+     */
+    private static final class Emisor extends SseEmitter {
+
+        private final CompletableFuture<Void> conectado = new CompletableFuture<>();
+
+        private Emisor(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        protected void extendResponse(ServerHttpResponse respuesta) {
+            super.extendResponse(respuesta);
+            conectado.complete(null);
+        }
+    }
+
+    private final class Suscriptor {
+
+        private final Emisor emisor;
+        private volatile long posicion;
+        // Protegido por el cerrojo: indica que hay una tarea de envío en curso o pendiente.
+        private boolean programado;
+        // Protegido por el cerrojo: el cliente ya ha alcanzado el búfer.
+        private boolean alDia;
+
+        private Suscriptor(Emisor emisor, long posicion) {
+            this.emisor = emisor;
+            this.posicion = posicion;
+        }
+
+        /**
+         * Envía los eventos posteriores a la posición del cliente hasta alcanzar el último: los
+         * anteriores al búfer, una página de la tabla cada vez, y después los del búfer. Solo hay
+         * una tarea de envío por suscriptor a la vez.
+         */
+        private void enviarPendientes() {
+            try {
+                while (enviarSiguientes()) {
+                    // Continúa mientras queden eventos por enviar.
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("No se pudieron leer los eventos pendientes de un cliente SSE", e);
+                cerrojo.lock();
+                try {
+                    suscriptores.remove(this);
+                    programado = false;
+                } finally {
+                    cerrojo.unlock();
+                }
+                emisor.completeWithError(e);
+            }
+        }
+
+        /**
+         * Envía la siguiente página de la tabla o los eventos pendientes del búfer.
+         *
+         * @return Si puede quedar algo por enviar.
+         */
+        private boolean enviarSiguientes() {
+            List<EventoPedido> pendientes = null;
+            long hasta = -1;
+            boolean retrasado = false;
+            cerrojo.lock();
+            try {
+                if (!suscriptores.contains(this)) {
+                    programado = false;
+                    return false;
+                }
+                if (posicion < fueraDeBufer && !alDia) {
+                    hasta = fueraDeBufer;
+                } else if (posicion < fueraDeBufer) {
+                    suscriptores.remove(this);
+                    programado = false;
+                    retrasado = true;
+                } else {
+                    alDia = true;
+                    pendientes = posteriores(posicion);
+                    if (pendientes.isEmpty()) {
+                        programado = false;
+                        return false;
+                    }
+                }
+            } finally {
+                cerrojo.unlock();
+            }
+            if (retrasado) {
+                LOGGER.debug("Cliente SSE desconectado por ir más de {} eventos por detrás", tamanoBufer);
+                emisor.complete();
+                return false;
+            }
+            if (hasta >= 0) {
+                return enviarDesdeTabla(hasta);
+            }
+            return enviar(pendientes);
+        }
+
+        private boolean enviarDesdeTabla(long hasta) {
+            List<EventoPedido> pendientes = outboxRepository.leerDesde(posicion, PAGINA_REPETICION).stream()
+                    .filter(evento -> evento.getId() <= hasta)
+                    .toList();
+            if (pendientes.isEmpty()) {
+                // Los eventos que faltan hasta el búfer se han purgado o nunca se confirmaron.
+                posicion = hasta;
+                return true;
+            }
+            return enviar(pendientes);
+        }
+
+        private boolean enviar(List<EventoPedido> eventos) {
+            try {
+                for (EventoPedido evento : eventos) {
+                    if (evento.getId() > posicion) {
+                        emisor.send(SseEmitter.event()
+                                .id(String.valueOf(evento.getId()))
+                                .name(evento.getTipo())
+                                .data(evento));
+                        posicion = evento.getId();
+                    }
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                suscriptores.remove(this);
+                emisor.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.viewnext.kidaprojects.microservicepedido.queue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.model.LineaPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido.Estado;
+import com.viewnext.kidaprojects.microservicepedido.service.PedidoService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * La clase {@code ColaPedidos} acepta pedidos en modo asíncrono y los procesa en segundo plano.
+ * Solo se crea si {@code pedido.async.enabled=true}.
+ *
+ * <p>
+ * Cada solicitud aceptada se anota en el {@link DiarioPedidos} antes de confirmarse al cliente,
+ * de modo que sobrevive a un reinicio. Los hilos de trabajo toman de la cola hasta
+ * {@code pedido.async.lote} solicitudes y las procesan juntas con
+ * {@link PedidoService#darDeAltaPedidos(List)}: reservas de stock en paralelo y una única
+ * inserción por lotes. La entrega es «al menos una vez»: si el proceso cae entre el commit de un
+ * lote y su anotación en el diario, ese lote se vuelve a procesar al arrancar.
+ * </p>
+ *
+ * <p>
+ * Solo se anotan como completadas las solicitudes con un resultado definitivo: creadas, sin
+ * stock suficiente, de un producto inexistente o rechazadas por no ser válidas. Las que fallan
+ * por un error transitorio (el servicio de productos o la base de datos no responden) siguen
+ * {@code PENDIENTE} y se vuelven a encolar tras una espera que se duplica en cada intento, desde
+ * {@code pedido.async.reintento-espera} hasta {@code pedido.async.reintento-espera-maxima}.
+ * Mientras tanto conservan su hueco en la cola.
+ * </p>
+ *
+ * <p>
+ * La capacidad está acotada por un semáforo que cuenta las solicitudes aceptadas y aún no
+ * procesadas; cuando se agota, las nuevas se rechazan. El estado de cada solicitud se conserva
+ * en memoria durante {@code pedido.async.estado-ttl}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.async.enabled", havingValue = "true")
+public class ColaPedidos implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColaPedidos.class);
+
+    private final PedidoService pedidoService;
+    private final DiarioPedidos diario;
+    private final BlockingQueue<SolicitudPedido> cola = new LinkedBlockingQueue<>();
+    private final Semaphore capacidad;
+    private final Cache<String, SolicitudPedido> estados;
+    private final List<Thread> trabajadores = new ArrayList<>();
+    private final int hilos;
+    private final int tamanoLote;
+    private final Duration esperaDiario;
+    private final Map<String, Integer> intentos = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reintentos;
+    private final long esperaReintento;
+    private final long esperaMaximaReintento;
+    private volatile boolean activa = true;
+
+    public ColaPedidos(PedidoService pedidoService, MeterRegistry meterRegistry,
+            @Value("${pedido.async.diario:pedidos-async.journal}") Path rutaDiario,
+            @Value("${pedido.async.diario-tamano-maximo:67108864}") long tamanoMaximoDiario,
+            @Value("${pedido.async.capacidad:10000}") int capacidad,
+            @Value("${pedido.async.hilos:4}") int hilos,
+            @Value("${pedido.async.lote:100}") int tamanoLote,
+            @Value("${pedido.async.estado-ttl:1h}") Duration ttlEstado,
+            @Value("${pedido.async.espera-diario:5s}") Duration esperaDiario,
+            @Value("${pedido.async.reintento-espera:1s}") Duration esperaReintento,
+            @Value("${pedido.async.reintento-espera-maxima:1m}") Duration esperaMaximaReintento) throws IOException {
+        this.pedidoService = pedidoService;
+        this.diario = new DiarioPedidos(rutaDiario, tamanoMaximoDiario);
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+        this.esperaDiario = esperaDiario;
+        this.esperaReintento = esperaReintento.toMillis();
+        this.esperaMaximaReintento = esperaMaximaReintento.toMillis();
+        this.reintentos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "pedido-async-reintentos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(Math.max(capacidad * 10L, 10_000))
+                .expireAfterWrite(ttlEstado)
+                .build();
+
+        List<SolicitudPedido> recuperadas = diario.recuperadas();
+        // Puede quedar negativo si se recuperan más solicitudes que la capacidad configurada.
+        this.capacidad = new Semaphore(capacidad - recuperadas.size());
+        recuperadas.forEach(solicitud -> {
+            estados.put(solicitud.getId(), solicitud);
+            cola.add(solicitud);
+        });
+        meterRegistry.gauge("pedido.async.cola", cola, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void arrancar() {
+        for (int i = 0; i < hilos; i++) {
+            Thread trabajador = new Thread(this::trabajar, "pedido-async-" + i);
+            trabajador.start();
+            trabajadores.add(trabajador);
+        }
+    }
+
+    /**
+     * Acepta un pedido para procesarlo en segundo plano.
+     *
+     * @param codigo   El código del producto.
+     * @param cantidad La cantidad de unidades.
+     * @return La solicitud aceptada, en estado {@code PENDIENTE}.
+     * @throws RejectedExecutionException Si la cola está llena.
+     * @throws UnknownErrorException      Si no se ha podido anotar la solicitud en el diario.
+     * @throws IllegalArgumentException   Si la cantidad no es positiva.
+     */
+    public SolicitudPedido aceptar(int codigo, int cantidad)
+            throws RejectedExecutionException, UnknownErrorException, IllegalArgumentException {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser positiva");
+        }
+        if (!activa || !capacidad.tryAcquire()) {
+            throw new RejectedExecutionException("La cola de pedidos está llena");
+        }
+        SolicitudPedido solicitud = new SolicitudPedido(UUID.randomUUID().toString(), codigo, cantidad,
+                Estado.PENDIENTE, null);
+        try {
+            diario.registrarAceptada(solicitud).get(esperaDiario.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            capacidad.release();
+            throw new UnknownErrorException();
+        } catch (InterruptedException e) {
+            capacidad.release();
+            Thread.currentThread().interrupt();
+            throw new UnknownErrorException();
+        }
+        estados.put(solicitud.getId(), solicitud);
+        cola.add(solicitud);
+        return solicitud;
+    }
+
+    /**
+     * Consulta el estado de una solicitud.
+     *
+     * @param id El identificador de la solicitud.
+     * @return La solicitud, o {@code null} si no existe o su estado ya ha caducado.
+     */
+    public SolicitudPedido consultar(String id) {
+        return estados.getIfPresent(id);
+    }
+
+    /**
+     * Deja de aceptar solicitudes, espera a que los hilos terminen el lote en curso y cierra el
+     * diario. Las solicitudes que queden en la cola o pendientes de reintento se recuperan del
+     * diario al arrancar.
+     */
+    @Override
+    public void destroy() throws IOException {
+        activa = false;
+        reintentos.shutdownNow();
+        for (Thread trabajador : trabajadores) {
+            try {
+                trabajador.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        diario.close();
+    }
+
+    private void trabajar() {
+        List<SolicitudPedido> lote = new ArrayList<>(tamanoLote);
+        while (activa) {
+            int completadas = 0;
+            try {
+                SolicitudPedido primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanoLote - 1);
+                completadas = procesar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Error inesperado procesando un lote de {} solicitudes", lote.size(), e);
+                reintentar(lote);
+            } finally {
+                capacidad.release(completadas);
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Procesa un lote, publica el estado de las solicitudes con un resultado definitivo y las
+     * anota como completadas. Las demás se vuelven a encolar más tarde.
+     *
+     * @return El número de solicitudes completadas.
+     */
+    private int procesar(List<SolicitudPedido> lote) {
+        List<LineaPedido> lineas = new ArrayList<>(lote.size());
+        lote.forEach(solicitud -> lineas.add(new LineaPedido(solicitud.getCodigo(), solicitud.getCantidad())));
+
+        List<ResultadoLinea> resultados = null;
+        boolean invalido = false;
+        try {
+            resultados = pedidoService.darDeAltaPedidos(lineas);
+        } catch (IllegalArgumentException e) {
+            // Repetir no serviría de nada: el lote se da por terminado con error.
+            LOGGER.error("Lote de {} solicitudes de pedido rechazado: {}", lote.size(), e.getMessage());
+            invalido = true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("No se pudo procesar un lote de {} solicitudes de pedido; se reintentará", lote.size(), e);
+        }
+
+        List<String> ids = new ArrayList<>(lote.size());
+        List<SolicitudPedido> fallidas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            SolicitudPedido solicitud = lote.get(i);
+            ResultadoLinea resultado = resultados != null ? resultados.get(i) : null;
+            Estado estado;
+            if (invalido) {
+                estado = Estado.ERROR;
+            } else if (resultado != null && resultado.getEstado() != ResultadoLinea.Estado.ERROR) {
+                estado = Estado.valueOf(resultado.getEstado().name());
+            } else {
+                fallidas.add(solicitud);
+                continue;
+            }
+            // Se publica una instancia nueva para no modificar la que puede estar serializándose.
+            estados.put(solicitud.getId(), new SolicitudPedido(solicitud.getId(), solicitud.getCodigo(),
+                    solicitud.getCantidad(), estado, resultado != null ? resultado.getPedido() : null));
+            intentos.remove(solicitud.getId());
+            ids.add(solicitud.getId());
+        }
+        reintentar(fallidas);
+
+        if (!ids.isEmpty()) {
+            try {
+                diario.registrarCompletadas(ids).get(esperaDiario.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                LOGGER.error("No se pudieron anotar {} solicitudes completadas en el diario", ids.size(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return ids.size();
+    }
+
+    /**
+     * Vuelve a encolar cada solicitud tras una espera que se duplica con cada intento fallido. Si
+     * la cola se detiene antes, la solicitud sigue sin completar en el diario.
+     */
+    private void reintentar(List<SolicitudPedido> fallidas) {
+        for (SolicitudPedido solicitud : fallidas) {
+            int intento = intentos.merge(solicitud.getId(), 1, Integer::sum);
+            long espera = Math.min(esperaMaximaReintento, esperaReintento << Math.min(intento - 1, 20));
+            try {
+                reintentos.schedule(() -> {
+                    if (activa) {
+                        cola.add(solicitud);
+                    }
+                }, espera, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // La cola se está deteniendo.
+            }
+        }
+    }
+}
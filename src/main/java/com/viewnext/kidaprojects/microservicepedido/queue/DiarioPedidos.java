@@ -0,0 +1,230 @@
+package com.viewnext.kidaprojects.microservicepedido.queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido.Estado;
+
+/**
+ * La clase {@code DiarioPedidos} es el diario local en el que se anotan las solicitudes aceptadas
+ * en modo asíncrono, para volver a encolar tras un reinicio las que no llegaron a procesarse.
+ *
+ * <p>
+ * Cada solicitud aceptada añade una línea {@code A;id;codigo;cantidad} y cada solicitud procesada
+ * una línea {@code C;id}. Las escrituras las hace un único hilo que agrupa todas las pendientes y
+ * las confirma en disco con un solo {@code force}, de modo que el coste de la sincronización se
+ * reparte entre las peticiones concurrentes. Cuando el fichero supera el tamaño configurado, se
+ * reescribe con las solicitudes sin completar y se sustituye de forma atómica.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+class DiarioPedidos implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiarioPedidos.class);
+
+    private static final String ACEPTADA = "A";
+    private static final String COMPLETADA = "C";
+    private static final String SEPARADOR = ";";
+
+    private final Path ruta;
+    private final long tamanoMaximo;
+    private final Map<String, Anotacion> sinCompletar = new ConcurrentHashMap<>();
+    // Orden de aceptación, para que la compactación conserve el orden de recuperación.
+    private final AtomicLong secuencia = new AtomicLong();
+    private final BlockingQueue<Escritura> escrituras = new LinkedBlockingQueue<>();
+    private final List<SolicitudPedido> recuperadas;
+    private final Thread escritor;
+    private FileChannel canal;
+    private volatile boolean abierto = true;
+
+    DiarioPedidos(Path ruta, long tamanoMaximo) throws IOException {
+        this.ruta = ruta;
+        this.tamanoMaximo = tamanoMaximo;
+        this.recuperadas = leer();
+        compactar();
+        this.escritor = new Thread(this::escribir, "pedido-async-diario");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Devuelve las solicitudes aceptadas y no completadas en la ejecución anterior.
+     *
+     * @return Las solicitudes pendientes, en el orden en que se aceptaron.
+     */
+    List<SolicitudPedido> recuperadas() {
+        return recuperadas;
+    }
+
+    /**
+     * Anota una solicitud aceptada.
+     *
+     * @param solicitud La solicitud.
+     * @return Un futuro que se completa cuando la anotación está confirmada en disco.
+     */
+    CompletableFuture<Void> registrarAceptada(SolicitudPedido solicitud) {
+        String linea = String.join(SEPARADOR, ACEPTADA, solicitud.getId(), String.valueOf(solicitud.getCodigo()),
+                String.valueOf(solicitud.getCantidad()));
+        sinCompletar.put(solicitud.getId(), new Anotacion(secuencia.incrementAndGet(), linea));
+        return encolar(linea + "\n");
+    }
+
+    /**
+     * Anota las solicitudes procesadas, que ya no se volverán a encolar al reiniciar.
+     *
+     * @param ids Los identificadores de las solicitudes.
+     * @return Un futuro que se completa cuando la anotación está confirmada en disco.
+     */
+    CompletableFuture<Void> registrarCompletadas(Collection<String> ids) {
+        StringBuilder lineas = new StringBuilder();
+        for (String id : ids) {
+            sinCompletar.remove(id);
+            lineas.append(COMPLETADA).append(SEPARADOR).append(id).append('\n');
+        }
+        return encolar(lineas.toString());
+    }
+
+    /**
+     * Termina de escribir las anotaciones pendientes y cierra el fichero.
+     */
+    @Override
+    public void close() throws IOException {
+        abierto = false;
+        try {
+            escritor.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    private CompletableFuture<Void> encolar(String texto) {
+        if (!abierto) {
+            return CompletableFuture.failedFuture(new IllegalStateException("El diario está cerrado"));
+        }
+        Escritura escritura = new Escritura(texto, new CompletableFuture<>());
+        escrituras.add(escritura);
+        return escritura.confirmada();
+    }
+
+    private void escribir() {
+        List<Escritura> grupo = new ArrayList<>();
+        // No se interrumpe este hilo para cerrarlo: interrumpir una escritura en un FileChannel
+        // cierra el canal. Al cerrar se vacía lo que quede en la cola antes de terminar.
+        while (abierto || !escrituras.isEmpty()) {
+            try {
+                Escritura primera = escrituras.poll(100, TimeUnit.MILLISECONDS);
+                if (primera != null) {
+                    grupo.add(primera);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            escrituras.drainTo(grupo);
+            if (grupo.isEmpty()) {
+                continue;
+            }
+            try {
+                StringBuilder texto = new StringBuilder();
+                grupo.forEach(escritura -> texto.append(escritura.texto()));
+                ByteBuffer buffer = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                canal.force(false);
+                grupo.forEach(escritura -> escritura.confirmada().complete(null));
+                if (canal.size() > tamanoMaximo) {
+                    compactar();
+                }
+            } catch (IOException e) {
+                LOGGER.error("No se pudo escribir en el diario de pedidos {}", ruta, e);
+                grupo.forEach(escritura -> escritura.confirmada().completeExceptionally(new UncheckedIOException(e)));
+            }
+            grupo.clear();
+        }
+    }
+
+    private List<SolicitudPedido> leer() throws IOException {
+        Map<String, SolicitudPedido> pendientes = new LinkedHashMap<>();
+        if (Files.exists(ruta)) {
+            for (String linea : Files.readAllLines(ruta, StandardCharsets.UTF_8)) {
+                String[] campos = linea.split(SEPARADOR);
+                try {
+                    if (campos.length == 4 && ACEPTADA.equals(campos[0])) {
+                        pendientes.put(campos[1], new SolicitudPedido(campos[1], Integer.parseInt(campos[2]),
+                                Integer.parseInt(campos[3]), Estado.PENDIENTE, null));
+                        sinCompletar.put(campos[1], new Anotacion(secuencia.incrementAndGet(), linea));
+                    } else if (campos.length == 2 && COMPLETADA.equals(campos[0])) {
+                        pendientes.remove(campos[1]);
+                        sinCompletar.remove(campos[1]);
+                    }
+                } catch (NumberFormatException e) {
+                    // Línea incompleta por una caída durante la escritura.
+                    LOGGER.warn("Se ignora una línea no válida del diario de pedidos: {}", linea);
+                }
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            LOGGER.info("Recuperadas {} solicitudes de pedido pendientes del diario {}", pendientes.size(), ruta);
+        }
+        return new ArrayList<>(pendientes.values());
+    }
+
+    /**
+     * Reescribe el diario con las solicitudes sin completar. Solo se ejecuta al abrir el diario o
+     * desde el hilo escritor, por lo que no hay escrituras concurrentes.
+     */
+    private void compactar() throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder texto = new StringBuilder();
+            sinCompletar.values().stream()
+                    .sorted(Comparator.comparingLong(Anotacion::orden))
+                    .forEach(anotacion -> texto.append(anotacion.linea()).append('\n'));
+            ByteBuffer buffer = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                nuevo.write(buffer);
+            }
+            nuevo.force(true);
+        }
+        if (canal != null) {
+            canal.close();
+        }
+        Files.move(temporal, ruta, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private record Anotacion(long orden, String linea) {
+    }
+
+    private record Escritura(String texto, CompletableFuture<Void> confirmada) {
+    }
+}
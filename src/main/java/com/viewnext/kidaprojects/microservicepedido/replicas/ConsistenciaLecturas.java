@@ -0,0 +1,61 @@
+package com.viewnext.kidaprojects.microservicepedido.replicas;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * La clase {@code ConsistenciaLecturas} indica, para el hilo actual, si las lecturas deben
+ * hacerse en la base de datos primaria aunque la transacción sea de solo lectura.
+ *
+ * <p>
+ * Lo activa {@code LecturaPropiaFilter} cuando el cliente acaba de escribir y las réplicas
+ * podrían no tener todavía sus cambios. El decorador de tareas traslada la marca a los hilos de
+ * las tareas asíncronas de Spring MVC, como las respuestas NDJSON.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public final class ConsistenciaLecturas {
+
+    private static final ThreadLocal<Boolean> PRIMARIA = new ThreadLocal<>();
+
+    private ConsistenciaLecturas() {
+    }
+
+    /**
+     * @return {@code true} si las lecturas del hilo actual deben ir a la primaria.
+     */
+    public static boolean primariaRequerida() {
+        return Boolean.TRUE.equals(PRIMARIA.get());
+    }
+
+    /**
+     * Obliga a leer de la primaria en el hilo actual hasta que se llame a {@link #limpiar()}.
+     */
+    public static void requerirPrimaria() {
+        PRIMARIA.set(Boolean.TRUE);
+    }
+
+    public static void limpiar() {
+        PRIMARIA.remove();
+    }
+
+    /**
+     * @return Un decorador que ejecuta cada tarea con la marca del hilo que la envía.
+     */
+    public static TaskDecorator decorador() {
+        return tarea -> {
+            if (!primariaRequerida()) {
+                return tarea;
+            }
+            return () -> {
+                requerirPrimaria();
+                try {
+                    tarea.run();
+                } finally {
+                    limpiar();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.viewnext.kidaprojects.microservicepedido.replicas;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * La clase {@code EnrutadorLecturasDataSource} entrega las conexiones de las transacciones de
+ * solo lectura desde las réplicas y las demás desde la primaria.
+ *
+ * <p>
+ * Las réplicas disponibles se reparten por turnos. Si una réplica no entrega una conexión se
+ * marca como caída y la lectura se hace en la primaria; la comprobación periódica la vuelve a
+ * marcar como disponible cuando responde. Sin réplicas disponibles, o con
+ * {@code ConsistenciaLecturas} activado, todas las lecturas van a la primaria.
+ * </p>
+ *
+ * <p>
+ * Debe envolverse en un {@code LazyConnectionDataSourceProxy}: el gestor de transacciones pide
+ * la conexión antes de marcar la transacción como de solo lectura, y el proxy retrasa la
+ * elección hasta la primera sentencia.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class EnrutadorLecturasDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrutadorLecturasDataSource.class);
+    private static final int SEGUNDOS_VALIDACION = 2;
+
+    private final DataSource primaria;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger turno = new AtomicInteger();
+
+    /**
+     * @param primaria La base de datos primaria, que recibe las escrituras.
+     * @param replicas Las réplicas de lectura por nombre, en el orden del reparto.
+     */
+    public EnrutadorLecturasDataSource(DataSource primaria, Map<String, DataSource> replicas) {
+        this.primaria = primaria;
+        replicas.forEach((nombre, dataSource) -> this.replicas.add(new Replica(nombre, dataSource)));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = elegirReplica();
+        if (replica == null) {
+            return primaria.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            marcar(replica, false, e);
+            return primaria.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Las credenciales se configuran en cada pool");
+    }
+
+    /**
+     * Comprueba que cada réplica entrega una conexión válida y actualiza su disponibilidad.
+     */
+    @Scheduled(fixedDelayString = "${pedido.replicas.comprobacion:PT5S}")
+    public void comprobarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection conexion = replica.dataSource.getConnection()) {
+                marcar(replica, conexion.isValid(SEGUNDOS_VALIDACION), null);
+            } catch (SQLException e) {
+                marcar(replica, false, e);
+            }
+        }
+    }
+
+    /**
+     * @return El número de réplicas marcadas como disponibles.
+     */
+    public int replicasDisponibles() {
+        return (int) replicas.stream().filter(replica -> replica.disponible).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable cerrable) {
+                cerrable.close();
+            }
+        }
+    }
+
+    /**
+     * @return La siguiente réplica disponible si la transacción actual es de solo lectura, o
+     *         {@code null} si la conexión debe salir de la primaria.
+     */
+    private Replica elegirReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ConsistenciaLecturas.primariaRequerida()) {
+            return null;
+        }
+        int total = replicas.size();
+        for (int intento = 0; intento < total; intento++) {
+            Replica replica = replicas.get(Math.floorMod(turno.getAndIncrement(), total));
+            if (replica.disponible) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static void marcar(Replica replica, boolean disponible, SQLException causa) {
+        if (replica.disponible == disponible) {
+            return;
+        }
+        replica.disponible = disponible;
+        if (disponible) {
+            log.info("La réplica {} vuelve a estar disponible", replica.nombre);
+        } else {
+            log.warn("La réplica {} no está disponible; sus lecturas pasan a la primaria", replica.nombre, causa);
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nombre;
+        private final DataSource dataSource;
+        private volatile boolean disponible = true;
+
+        private Replica(String nombre, DataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+    }
+}
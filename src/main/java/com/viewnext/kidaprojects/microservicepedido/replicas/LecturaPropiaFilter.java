@@ -0,0 +1,70 @@
+package com.viewnext.kidaprojects.microservicepedido.replicas;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * El filtro {@code LecturaPropiaFilter} garantiza que un cliente lee sus propias escrituras
+ * aunque las réplicas vayan con retraso.
+ *
+ * <p>
+ * Las respuestas a solicitudes de escritura ({@code POST}, {@code PUT}, {@code PATCH} y
+ * {@code DELETE}) incluyen la cabecera {@code Pedido-Ultima-Escritura} con el instante de la
+ * solicitud en milisegundos. Si el cliente la reenvía en sus lecturas, estas se hacen en la
+ * primaria mientras no haya pasado la ventana configurada. Como el instante es el de inicio de
+ * la escritura, la ventana debe cubrir su duración más el retraso de replicación.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA = "Pedido-Ultima-Escritura";
+
+    private final long ventanaMillis;
+
+    public LecturaPropiaFilter(Duration ventana) {
+        this.ventanaMillis = ventana.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+        if (esEscritura(request.getMethod())) {
+            response.setHeader(CABECERA, Long.toString(ahora));
+        } else if (dentroDeVentana(request.getHeader(CABECERA), ahora)) {
+            ConsistenciaLecturas.requerirPrimaria();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConsistenciaLecturas.limpiar();
+        }
+    }
+
+    private boolean dentroDeVentana(String ultimaEscritura, long ahora) {
+        if (ultimaEscritura == null) {
+            return false;
+        }
+        try {
+            return ahora - Long.parseLong(ultimaEscritura.trim()) < ventanaMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean esEscritura(String metodo) {
+        return HttpMethod.POST.matches(metodo) || HttpMethod.PUT.matches(metodo)
+                || HttpMethod.PATCH.matches(metodo) || HttpMethod.DELETE.matches(metodo);
+    }
+}
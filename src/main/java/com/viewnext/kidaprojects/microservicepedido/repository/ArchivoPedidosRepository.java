@@ -0,0 +1,135 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadoArchivo;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+/**
+ * La clase {@code ArchivoPedidosRepository} traslada pedidos de la tabla {@code pedidos} a
+ * {@code pedidos_archivo} y mantiene el estado del archivado en {@code pedidos_archivado}.
+ *
+ * <p>
+ * Como el resto de repositorios JDBC, trabaja con la conexión de la transacción en curso: la
+ * copia y el borrado de un bloque se confirman juntos si se ejecutan en la misma transacción.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Repository
+public class ArchivoPedidosRepository {
+
+    /**
+     * Condición que excluye de {@code pedidos_archivo} los pedidos que siguen también en
+     * {@code pedidos}, es decir, los ya copiados cuyo borrado aún no se ha confirmado.
+     */
+    static final String SOLO_ARCHIVADOS =
+            "NOT EXISTS (SELECT 1 FROM pedidos p WHERE p.id = pedidos_archivo.id)";
+
+    private static final String SELECT_ESTADO =
+            "SELECT completado, objetivo FROM pedidos_archivado WHERE id = 1";
+    private static final String UPDATE_OBJETIVO =
+            "UPDATE pedidos_archivado SET objetivo = ? WHERE id = 1";
+    private static final String UPDATE_COMPLETADO =
+            "UPDATE pedidos_archivado SET completado = ? WHERE id = 1";
+    private static final String SELECT_PENDIENTES =
+            "SELECT id, codigo, unidades, total, fecha FROM pedidos WHERE fecha < ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String COPIAR =
+            "INSERT INTO pedidos_archivo (id, codigo, unidades, total, fecha) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE codigo = VALUES(codigo)";
+    private static final String BORRAR =
+            "DELETE FROM pedidos WHERE id = ? AND fecha = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ArchivoPedidosRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Obtiene el estado actual del archivado.
+     *
+     * @return El estado.
+     */
+    public EstadoArchivo estado() {
+        return jdbcTemplate.queryForObject(SELECT_ESTADO, (rs, fila) -> {
+            Timestamp completado = rs.getTimestamp("completado");
+            Timestamp objetivo = rs.getTimestamp("objetivo");
+            return new EstadoArchivo(completado != null ? completado.toLocalDateTime() : null,
+                    objetivo != null ? objetivo.toLocalDateTime() : null);
+        });
+    }
+
+    /**
+     * Anota la fecha hasta la que se va a archivar. Debe confirmarse antes de copiar ningún
+     * pedido, para que las consultas empiecen a incluir la tabla de archivo.
+     *
+     * @param objetivo La fecha, excluida.
+     */
+    public void fijarObjetivo(LocalDateTime objetivo) {
+        jdbcTemplate.update(UPDATE_OBJETIVO, Timestamp.valueOf(objetivo));
+    }
+
+    /**
+     * Anota que ya no queda en {@code pedidos} ningún pedido anterior a la fecha indicada.
+     *
+     * @param completado La fecha, excluida.
+     */
+    public void fijarCompletado(LocalDateTime completado) {
+        jdbcTemplate.update(UPDATE_COMPLETADO, Timestamp.valueOf(completado));
+    }
+
+    /**
+     * Lee, en orden de identificador, los pedidos anteriores a una fecha que siguen en
+     * {@code pedidos}.
+     *
+     * @param anterior  La fecha, excluida.
+     * @param despuesDe El identificador a partir del cual (sin incluirlo) se leen pedidos.
+     * @param limite    El número máximo de pedidos.
+     * @return Los pedidos leídos.
+     */
+    public List<Pedido> pendientes(LocalDateTime anterior, long despuesDe, int limite) {
+        return jdbcTemplate.query(SELECT_PENDIENTES, (rs, fila) -> PedidoRepositoryCustomImpl.mapearPedido(rs),
+                Timestamp.valueOf(anterior), despuesDe, limite);
+    }
+
+    /**
+     * Copia los pedidos a {@code pedidos_archivo} conservando sus identificadores. Los que ya
+     * estuvieran copiados por un archivado interrumpido se ignoran.
+     *
+     * @param pedidos Los pedidos a copiar.
+     */
+    public void copiar(List<Pedido> pedidos) {
+        List<Object[]> filas = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            filas.add(new Object[] { pedido.getId(), pedido.getCodigo(), pedido.getUnidades(),
+                    Importes.aDecimal(pedido.getTotalCentimos()),
+                    Timestamp.valueOf(pedido.getFecha()) });
+        }
+        jdbcTemplate.batchUpdate(COPIAR, filas);
+    }
+
+    /**
+     * Borra los pedidos de {@code pedidos}. Se filtra también por fecha para que, con la tabla
+     * particionada, cada borrado acceda a una sola partición.
+     *
+     * @param pedidos Los pedidos a borrar.
+     */
+    public void borrar(List<Pedido> pedidos) {
+        List<Object[]> filas = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            filas.add(new Object[] { pedido.getId(), Timestamp.valueOf(pedido.getFecha()) });
+        }
+        jdbcTemplate.batchUpdate(BORRAR, filas);
+    }
+}
@@ -0,0 +1,336 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadisticaVentas;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+/**
+ * La clase {@code EstadisticasRepository} mantiene y consulta los agregados de ventas de las
+ * tablas {@code ventas_producto_hora} y {@code ventas_producto_dia}.
+ *
+ * <p>
+ * Los agregados se incrementan con {@code INSERT ... ON DUPLICATE KEY UPDATE}, de modo que cada
+ * pedido actualiza una fila por tabla sin leerla antes. Al ejecutarse con la conexión de la
+ * transacción en curso, la actualización se confirma o se deshace junto con el pedido.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Repository
+public class EstadisticasRepository {
+
+    static final String ACUMULAR_HORA =
+            "INSERT INTO ventas_producto_hora (codigo, hora, pedidos, unidades, total) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE pedidos = pedidos + VALUES(pedidos), unidades = unidades + VALUES(unidades), "
+            + "total = total + VALUES(total)";
+    static final String ACUMULAR_DIA =
+            "INSERT INTO ventas_producto_dia (codigo, dia, pedidos, unidades, total) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE pedidos = pedidos + VALUES(pedidos), unidades = unidades + VALUES(unidades), "
+            + "total = total + VALUES(total)";
+    private static final String SELECT_HORAS =
+            "SELECT codigo, hora, pedidos, unidades, total FROM ventas_producto_hora "
+            + "WHERE codigo = ? AND hora >= ? AND hora < ? ORDER BY hora";
+    private static final String SELECT_DIAS =
+            "SELECT codigo, dia, pedidos, unidades, total FROM ventas_producto_dia "
+            + "WHERE codigo = ? AND dia >= ? AND dia < ? ORDER BY dia";
+    private static final String SELECT_RANKING =
+            "SELECT codigo, SUM(pedidos) AS pedidos, SUM(unidades) AS unidades, SUM(total) AS total "
+            + "FROM ventas_producto_dia WHERE dia >= ? AND dia < ? GROUP BY codigo ORDER BY %s DESC, codigo LIMIT ?";
+    private static final String ELIMINAR_HORA =
+            "DELETE FROM ventas_producto_hora WHERE codigo = ? AND hora = ? AND pedidos = 0";
+    private static final String ELIMINAR_DIA =
+            "DELETE FROM ventas_producto_dia WHERE codigo = ? AND dia = ? AND pedidos = 0";
+    // Una sola sentencia lee los pedidos y los agregados del mismo periodo, de modo que ambos
+    // salen de la misma instantánea de la base de datos.
+    private static final String SELECT_PERIODO =
+            "SELECT 1 AS tipo, codigo, fecha AS periodo, 1 AS pedidos, unidades, total FROM pedidos "
+            + "WHERE fecha >= ? AND fecha < ? "
+            + "UNION ALL SELECT 1, codigo, fecha, 1, unidades, total FROM pedidos_archivo "
+            + "WHERE fecha >= ? AND fecha < ? AND " + ArchivoPedidosRepository.SOLO_ARCHIVADOS + " "
+            + "UNION ALL SELECT 2, codigo, hora, pedidos, unidades, total FROM ventas_producto_hora "
+            + "WHERE hora >= ? AND hora < ? "
+            + "UNION ALL SELECT 3, codigo, dia, pedidos, unidades, total FROM ventas_producto_dia "
+            + "WHERE dia >= ? AND dia < ?";
+    private static final String SELECT_PRIMER_DIA =
+            "SELECT MIN(dia) FROM (SELECT CAST(MIN(fecha) AS DATE) AS dia FROM pedidos "
+            + "UNION ALL SELECT CAST(MIN(fecha) AS DATE) FROM pedidos_archivo "
+            + "UNION ALL SELECT CAST(MIN(hora) AS DATE) FROM ventas_producto_hora "
+            + "UNION ALL SELECT MIN(dia) FROM ventas_producto_dia) primeros";
+    private static final String SELECT_ULTIMO_DIA =
+            "SELECT MAX(dia) FROM (SELECT CAST(MAX(fecha) AS DATE) AS dia FROM pedidos "
+            + "UNION ALL SELECT CAST(MAX(fecha) AS DATE) FROM pedidos_archivo "
+            + "UNION ALL SELECT CAST(MAX(hora) AS DATE) FROM ventas_producto_hora "
+            + "UNION ALL SELECT MAX(dia) FROM ventas_producto_dia) ultimos";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Con fetch size para recorrer los pedidos de un periodo sin cargarlos todos en memoria.
+    private final JdbcTemplate jdbcTemplatePeriodos;
+
+    public EstadisticasRepository(DataSource dataSource,
+            @Value("${pedido.listado.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplatePeriodos = new JdbcTemplate(dataSource);
+        this.jdbcTemplatePeriodos.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Suma los pedidos indicados a los agregados por hora y por día. Los pedidos se agrupan antes
+     * por producto y periodo, y las filas se actualizan siempre en el mismo orden para que dos
+     * transacciones concurrentes no se bloqueen mutuamente.
+     *
+     * @param pedidos Los pedidos a acumular. Se ignoran los que no tienen fecha.
+     */
+    public void acumular(Collection<Pedido> pedidos) {
+        Map<Clave<LocalDateTime>, Acumulado> porHora = new TreeMap<>();
+        Map<Clave<LocalDate>, Acumulado> porDia = new TreeMap<>();
+        for (Pedido pedido : pedidos) {
+            if (pedido.getFecha() == null) {
+                continue;
+            }
+            porHora.computeIfAbsent(new Clave<>(pedido.getCodigo(), pedido.getFecha().truncatedTo(ChronoUnit.HOURS)),
+                    k -> new Acumulado()).sumar(pedido);
+            porDia.computeIfAbsent(new Clave<>(pedido.getCodigo(), pedido.getFecha().toLocalDate()),
+                    k -> new Acumulado()).sumar(pedido);
+        }
+        if (porHora.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> filasHora = new ArrayList<>(porHora.size());
+        porHora.forEach((clave, acumulado) -> filasHora.add(new Object[] { clave.codigo(),
+                Timestamp.valueOf(clave.periodo()), acumulado.pedidos, acumulado.unidades, Importes.aDecimal(acumulado.totalCentimos) }));
+        List<Object[]> filasDia = new ArrayList<>(porDia.size());
+        porDia.forEach((clave, acumulado) -> filasDia.add(new Object[] { clave.codigo(),
+                Date.valueOf(clave.periodo()), acumulado.pedidos, acumulado.unidades,
+                Importes.aDecimal(acumulado.totalCentimos) }));
+
+        jdbcTemplate.batchUpdate(ACUMULAR_HORA, filasHora);
+        jdbcTemplate.batchUpdate(ACUMULAR_DIA, filasDia);
+    }
+
+    /**
+     * Obtiene las ventas de un producto por hora en el rango [{@code desde}, {@code hasta}).
+     *
+     * @param codigo El código del producto.
+     * @param desde  El inicio del rango, incluido.
+     * @param hasta  El fin del rango, excluido.
+     * @return Las ventas de cada hora con algún pedido, en orden cronológico.
+     */
+    public List<EstadisticaVentas> ventasPorHora(int codigo, LocalDateTime desde, LocalDateTime hasta) {
+        return jdbcTemplate.query(SELECT_HORAS, (rs, fila) -> new EstadisticaVentas(rs.getInt("codigo"),
+                rs.getTimestamp("hora").toLocalDateTime(), rs.getLong("pedidos"), rs.getLong("unidades"),
+                rs.getBigDecimal("total")), codigo, Timestamp.valueOf(desde), Timestamp.valueOf(hasta));
+    }
+
+    /**
+     * Obtiene las ventas de un producto por día en el rango [{@code desde}, {@code hasta}).
+     *
+     * @param codigo El código del producto.
+     * @param desde  El primer día del rango, incluido.
+     * @param hasta  El último día del rango, excluido.
+     * @return Las ventas de cada día con algún pedido, en orden cronológico.
+     */
+    public List<EstadisticaVentas> ventasPorDia(int codigo, LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(SELECT_DIAS, (rs, fila) -> new EstadisticaVentas(rs.getInt("codigo"),
+                rs.getDate("dia").toLocalDate().atStartOfDay(), rs.getLong("pedidos"), rs.getLong("unidades"),
+                rs.getBigDecimal("total")), codigo, Date.valueOf(desde), Date.valueOf(hasta));
+    }
+
+    /**
+     * Obtiene los productos con más ventas en el rango de días [{@code desde}, {@code hasta}).
+     *
+     * @param desde         El primer día del rango, incluido.
+     * @param hasta         El último día del rango, excluido.
+     * @param limite        El número máximo de productos.
+     * @param porUnidades   {@code true} para ordenar por unidades, {@code false} por importe.
+     * @return Los productos ordenados de mayor a menor.
+     */
+    public List<EstadisticaVentas> ranking(LocalDate desde, LocalDate hasta, int limite, boolean porUnidades) {
+        String sql = String.format(SELECT_RANKING, porUnidades ? "SUM(unidades)" : "SUM(total)");
+        return jdbcTemplate.query(sql, (rs, fila) -> new EstadisticaVentas(rs.getInt("codigo"), null,
+                rs.getLong("pedidos"), rs.getLong("unidades"), rs.getBigDecimal("total")),
+                Date.valueOf(desde), Date.valueOf(hasta), limite);
+    }
+
+    /**
+     * Devuelve el primer día con pedidos, incluidos los archivados, o con agregados.
+     *
+     * @return El primer día, o {@code null} si no hay pedidos ni agregados.
+     */
+    public LocalDate primerDia() {
+        Date dia = jdbcTemplate.queryForObject(SELECT_PRIMER_DIA, Date.class);
+        return dia != null ? dia.toLocalDate() : null;
+    }
+
+    /**
+     * Devuelve el último día con pedidos, incluidos los archivados, o con agregados.
+     *
+     * @return El último día, o {@code null} si no hay pedidos ni agregados.
+     */
+    public LocalDate ultimoDia() {
+        Date dia = jdbcTemplate.queryForObject(SELECT_ULTIMO_DIA, Date.class);
+        return dia != null ? dia.toLocalDate() : null;
+    }
+
+    /**
+     * Calcula la corrección que necesitan los agregados del periodo [{@code desde},
+     * {@code hasta}) comparando los pedidos, incluidos los archivados, con los agregados
+     * guardados. Ambos se leen en una sola sentencia y, por tanto, de la misma instantánea: como
+     * cada alta guarda el pedido y su agregado en la misma transacción, la diferencia es exacta
+     * aunque se den de alta pedidos mientras tanto, sea cual sea su identificador.
+     *
+     * @param desde El inicio del periodo, incluido. Debe ser el inicio de un día.
+     * @param hasta El fin del periodo, excluido. Debe ser el inicio de un día.
+     * @return La corrección, que se aplica con {@link #aplicar(Correccion)}.
+     */
+    public Correccion calcularCorreccion(LocalDateTime desde, LocalDateTime hasta) {
+        Correccion correccion = new Correccion();
+        Timestamp inicio = Timestamp.valueOf(desde);
+        Timestamp fin = Timestamp.valueOf(hasta);
+        jdbcTemplatePeriodos.query(SELECT_PERIODO, rs -> {
+            int codigo = rs.getInt("codigo");
+            LocalDateTime periodo = rs.getTimestamp("periodo").toLocalDateTime();
+            long pedidos = rs.getLong("pedidos");
+            long unidades = rs.getLong("unidades");
+            long centimos = Importes.aCentimos(rs.getBigDecimal("total"));
+            switch (rs.getInt("tipo")) {
+            case 1 -> {
+                correccion.pedidos++;
+                correccion.hora(codigo, periodo.truncatedTo(ChronoUnit.HOURS)).calculado.sumar(pedidos, unidades, centimos);
+                correccion.dia(codigo, periodo.toLocalDate()).calculado.sumar(pedidos, unidades, centimos);
+            }
+            case 2 -> correccion.hora(codigo, periodo).guardado.sumar(pedidos, unidades, centimos);
+            default -> correccion.dia(codigo, periodo.toLocalDate()).guardado.sumar(pedidos, unidades, centimos);
+            }
+        }, inicio, fin, inicio, fin, inicio, fin, Date.valueOf(desde.toLocalDate()), Date.valueOf(hasta.toLocalDate()));
+        return correccion;
+    }
+
+    /**
+     * Suma a los agregados la diferencia calculada por {@link #calcularCorreccion} y elimina las
+     * filas que quedan sin pedidos. Los pedidos dados de alta después de calcularla ya se habrán
+     * sumado a los agregados, o se sumarán, por su cuenta. Las filas se actualizan en el mismo
+     * orden que en {@link #acumular(Collection)}.
+     *
+     * @param correccion La corrección.
+     */
+    public void aplicar(Correccion correccion) {
+        List<Object[]> filasHora = new ArrayList<>();
+        List<Object[]> eliminarHora = new ArrayList<>();
+        correccion.horas.forEach((clave, diferencia) -> diferencia.filas(clave.codigo(),
+                Timestamp.valueOf(clave.periodo()), filasHora, eliminarHora));
+        List<Object[]> filasDia = new ArrayList<>();
+        List<Object[]> eliminarDia = new ArrayList<>();
+        correccion.dias.forEach((clave, diferencia) -> diferencia.filas(clave.codigo(),
+                Date.valueOf(clave.periodo()), filasDia, eliminarDia));
+
+        jdbcTemplate.batchUpdate(ACUMULAR_HORA, filasHora);
+        jdbcTemplate.batchUpdate(ELIMINAR_HORA, eliminarHora);
+        jdbcTemplate.batchUpdate(ACUMULAR_DIA, filasDia);
+        jdbcTemplate.batchUpdate(ELIMINAR_DIA, eliminarDia);
+    }
+
+    /**
+     * La diferencia entre los agregados de un periodo calculados a partir de los pedidos y los
+     * guardados, por producto y hora y por producto y día.
+     */
+    public static final class Correccion {
+
+        private final Map<Clave<LocalDateTime>, Diferencia> horas = new TreeMap<>();
+        private final Map<Clave<LocalDate>, Diferencia> dias = new TreeMap<>();
+        private long pedidos;
+
+        private Correccion() {
+        }
+
+        /**
+         * @return El número de pedidos del periodo.
+         */
+        public long getPedidos() {
+            return pedidos;
+        }
+
+        /**
+         * @return El número de filas de agregados que hay que corregir.
+         */
+        public long getFilasCorregidas() {
+            return horas.values().stream().filter(Diferencia::hayDiferencia).count()
+                    + dias.values().stream().filter(Diferencia::hayDiferencia).count();
+        }
+
+        private Diferencia hora(int codigo, LocalDateTime hora) {
+            return horas.computeIfAbsent(new Clave<>(codigo, hora), k -> new Diferencia());
+        }
+
+        private Diferencia dia(int codigo, LocalDate dia) {
+            return dias.computeIfAbsent(new Clave<>(codigo, dia), k -> new Diferencia());
+        }
+    }
+
+    private static final class Diferencia {
+
+        private final Acumulado calculado = new Acumulado();
+        private final Acumulado guardado = new Acumulado();
+
+        private boolean hayDiferencia() {
+            return calculado.pedidos != guardado.pedidos || calculado.unidades != guardado.unidades
+                    || calculado.totalCentimos != guardado.totalCentimos;
+        }
+
+        private void filas(int codigo, Object periodo, List<Object[]> acumular, List<Object[]> eliminar) {
+            if (!hayDiferencia()) {
+                return;
+            }
+            acumular.add(new Object[] { codigo, periodo, calculado.pedidos - guardado.pedidos,
+                    calculado.unidades - guardado.unidades,
+                    Importes.aDecimal(calculado.totalCentimos - guardado.totalCentimos) });
+            if (calculado.pedidos == 0) {
+                eliminar.add(new Object[] { codigo, periodo });
+            }
+        }
+    }
+
+    private static final class Acumulado {
+
+        private long pedidos;
+        private long unidades;
+        private long totalCentimos;
+
+        private void sumar(Pedido pedido) {
+            sumar(1, pedido.getUnidades(), pedido.getTotalCentimos());
+        }
+
+        private void sumar(long pedidos, long unidades, long totalCentimos) {
+            this.pedidos += pedidos;
+            this.unidades += unidades;
+            this.totalCentimos += totalCentimos;
+        }
+    }
+
+    private record Clave<T extends Comparable<? super T>>(int codigo, T periodo) implements Comparable<Clave<T>> {
+
+        @Override
+        public int compareTo(Clave<T> otra) {
+            int resultado = Integer.compare(codigo, otra.codigo);
+            return resultado != 0 ? resultado : periodo.compareTo(otra.periodo);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+
+/**
+ * La clase {@code OutboxRepository} escribe y lee los eventos de la tabla {@code outbox} y las
+ * posiciones de sus consumidores en {@code outbox_offsets}.
+ *
+ * <p>
+ * Los eventos se insertan con la conexión de la transacción en curso, de modo que un evento
+ * existe si y solo si se ha confirmado el pedido al que se refiere.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Repository
+public class OutboxRepository {
+
+    static final String INSERT =
+            "INSERT INTO outbox (tipo, carga, creado) VALUES (?, ?, ?)";
+    private static final String SELECT_DESDE =
+            "SELECT id, tipo, carga, creado FROM outbox WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_OFFSET =
+            "SELECT ultimo_id FROM outbox_offsets WHERE consumidor = ?";
+    private static final String UPSERT_OFFSET =
+            "INSERT INTO outbox_offsets (consumidor, ultimo_id) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE ultimo_id = VALUES(ultimo_id)";
+    private static final String PURGAR =
+            "DELETE FROM outbox WHERE id <= ? AND creado < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxRepository(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra un evento {@code PEDIDO_CREADO} por cada pedido.
+     *
+     * @param pedidos Los pedidos creados.
+     */
+    public void registrarCreados(Collection<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            filas.add(new Object[] { EventoPedido.PEDIDO_CREADO, serializar(pedido), ahora });
+        }
+        jdbcTemplate.batchUpdate(INSERT, filas);
+    }
+
+    /**
+     * Lee los eventos posteriores a una posición, en orden.
+     *
+     * @param despuesDe La posición, excluida.
+     * @param limite    El número máximo de eventos.
+     * @return Los eventos leídos.
+     */
+    public List<EventoPedido> leerDesde(long despuesDe, int limite) {
+        return jdbcTemplate.query(SELECT_DESDE, (rs, fila) -> new EventoPedido(rs.getLong("id"), rs.getString("tipo"),
+                rs.getTimestamp("creado").toLocalDateTime(), deserializar(rs.getString("carga"))), despuesDe, limite);
+    }
+
+    /**
+     * Devuelve el identificador del último evento, o 0 si no hay ninguno.
+     *
+     * @return El identificador.
+     */
+    public long ultimoId() {
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM outbox", Long.class);
+        return id != null ? id : 0;
+    }
+
+    /**
+     * Obtiene la posición de un consumidor.
+     *
+     * @param consumidor El nombre del consumidor.
+     * @return El identificador del último evento entregado, o 0 si no ha recibido ninguno.
+     */
+    public long offset(String consumidor) {
+        List<Long> offsets = jdbcTemplate.queryForList(SELECT_OFFSET, Long.class, consumidor);
+        return offsets.isEmpty() ? 0 : offsets.get(0);
+    }
+
+    /**
+     * Guarda la posición de un consumidor.
+     *
+     * @param consumidor El nombre del consumidor.
+     * @param ultimoId   El identificador del último evento entregado.
+     */
+    public void guardarOffset(String consumidor, long ultimoId) {
+        jdbcTemplate.update(UPSERT_OFFSET, consumidor, ultimoId);
+    }
+
+    /**
+     * Borra, como mucho, {@code limite} eventos ya entregados y anteriores a una fecha.
+     *
+     * @param hastaId  El identificador del último evento que se puede borrar.
+     * @param anterior La fecha de creación a partir de la que se conservan los eventos.
+     * @param limite   El número máximo de eventos a borrar.
+     * @return El número de eventos borrados.
+     */
+    public int purgar(long hastaId, LocalDateTime anterior, int limite) {
+        return jdbcTemplate.update(PURGAR, hastaId, Timestamp.valueOf(anterior), limite);
+    }
+
+    String serializar(Pedido pedido) {
+        try {
+            return objectMapper.writeValueAsString(PedidoDTO.de(pedido));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PedidoDTO deserializar(String carga) {
+        try {
+            return objectMapper.readValue(carga, PedidoDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * La clase {@code ParticionesRepository} consulta y modifica las particiones mensuales de la
+ * tabla {@code pedidos} creadas por {@code mysql/V8__particionado_pedidos.sql}. Solo funciona con
+ * MySQL; el resto de componentes no la utilizan si {@code pedido.particionado.enabled} es
+ * {@code false}.
+ *
+ * <p>
+ * Las particiones se definen por {@code UNIX_TIMESTAMP(fecha)}, de modo que sus límites se
+ * comparan siempre en la base de datos, con la misma zona horaria con la que se crearon.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Repository
+public class ParticionesRepository {
+
+    private static final String PARTICIONES =
+            "FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pedidos' "
+            + "AND PARTITION_DESCRIPTION <> 'MAXVALUE'";
+    private static final String SELECT_LIMITE =
+            "SELECT FROM_UNIXTIME(MAX(CAST(PARTITION_DESCRIPTION AS UNSIGNED))) " + PARTICIONES;
+    private static final String SELECT_HASTA =
+            "SELECT PARTITION_NAME " + PARTICIONES
+            + " AND CAST(PARTITION_DESCRIPTION AS UNSIGNED) <= UNIX_TIMESTAMP(?) ORDER BY PARTITION_ORDINAL_POSITION";
+    private static final String REORGANIZAR =
+            "ALTER TABLE pedidos REORGANIZE PARTITION p_futuro INTO ("
+            + "PARTITION p%s VALUES LESS THAN (UNIX_TIMESTAMP('%s 00:00:00')), "
+            + "PARTITION p_futuro VALUES LESS THAN MAXVALUE)";
+    private static final DateTimeFormatter NOMBRE = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern NOMBRE_VALIDO = Pattern.compile("\\w+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParticionesRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Devuelve el límite superior de la última partición mensual, es decir, la fecha a partir de
+     * la cual los pedidos van a {@code p_futuro}.
+     *
+     * @return La fecha, o {@code null} si la tabla no está particionada.
+     */
+    public LocalDateTime limiteSuperior() {
+        Timestamp limite = jdbcTemplate.queryForObject(SELECT_LIMITE, Timestamp.class);
+        return limite != null ? limite.toLocalDateTime() : null;
+    }
+
+    /**
+     * Crea la partición del mes indicado separándola de {@code p_futuro}. Si {@code p_futuro}
+     * está vacía, como ocurre cuando se crean con antelación, la operación no mueve filas.
+     *
+     * @param mes El mes de la nueva partición, que debe empezar en el límite superior actual.
+     */
+    public void anadir(YearMonth mes) {
+        jdbcTemplate.execute(String.format(REORGANIZAR, mes.format(NOMBRE), mes.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * Obtiene las particiones cuyos pedidos son todos anteriores a una fecha.
+     *
+     * @param limite La fecha, excluida.
+     * @return Los nombres de las particiones, de la más antigua a la más reciente.
+     */
+    public List<String> particionesHasta(LocalDateTime limite) {
+        return jdbcTemplate.queryForList(SELECT_HASTA, String.class, Timestamp.valueOf(limite));
+    }
+
+    /**
+     * Elimina una partición y todos sus pedidos sin recorrerlos.
+     *
+     * @param particion El nombre de la partición.
+     */
+    public void eliminar(String particion) {
+        if (!NOMBRE_VALIDO.matcher(particion).matches()) {
+            throw new IllegalArgumentException("Nombre de partición no válido: " + particion);
+        }
+        jdbcTemplate.execute("ALTER TABLE pedidos DROP PARTITION " + particion);
+    }
+}
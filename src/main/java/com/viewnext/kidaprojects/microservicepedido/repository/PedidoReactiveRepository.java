@@ -0,0 +1,173 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * La clase {@code PedidoReactiveRepository} accede a la tabla {@code pedidos} mediante R2DBC,
+ * sin bloquear ningún hilo. Solo se crea con el perfil {@code reactive}.
+ *
+ * <p>
+ * El pool de conexiones R2DBC se crea aquí y no se publica como bean: si existiera un bean
+ * {@code ConnectionFactory}, Spring Boot dejaría de configurar el {@code DataSource} JDBC que
+ * siguen utilizando el resto de componentes.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Repository
+@Profile("reactive")
+public class PedidoReactiveRepository implements DisposableBean {
+
+    private static final String SELECT_TODOS =
+            "SELECT id, codigo, unidades, total, fecha FROM pedidos ORDER BY id";
+    private static final String SELECT_TODOS_ARCHIVO =
+            "SELECT id, codigo, unidades, total, fecha FROM pedidos_archivo WHERE "
+            + ArchivoPedidosRepository.SOLO_ARCHIVADOS + " ORDER BY id";
+    private static final String INSERT =
+            "INSERT INTO pedidos (codigo, unidades, total, fecha) VALUES (:codigo, :unidades, :total, :fecha)";
+    private static final String INSERT_CON_ID =
+            "INSERT INTO pedidos (id, codigo, unidades, total, fecha) VALUES (:id, :codigo, :unidades, :total, :fecha)";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transaccion;
+    private final OutboxRepository outboxRepository;
+    private final GeneradorIdPedidos generadorId;
+
+    public PedidoReactiveRepository(OutboxRepository outboxRepository, ObjectProvider<GeneradorIdPedidos> generadorId,
+            @Value("${pedido.r2dbc.url}") String url,
+            @Value("${pedido.r2dbc.username}") String username,
+            @Value("${pedido.r2dbc.password}") String password,
+            @Value("${pedido.r2dbc.pool.max-size:20}") int maxSize,
+            @Value("${pedido.r2dbc.pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions opciones = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(opciones))
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.transaccion = TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+        this.outboxRepository = outboxRepository;
+        this.generadorId = generadorId.getIfAvailable();
+    }
+
+    /**
+     * Obtiene todos los pedidos, primero los archivados y después los de la tabla
+     * {@code pedidos}, ordenados por identificador. Las filas se emiten a medida que llegan de la
+     * base de datos, respetando la contrapresión del suscriptor. Ambas consultas se ejecutan en
+     * una misma transacción, como en {@code PedidoRepositoryCustomImpl#recorrerTodos}.
+     *
+     * @return Un {@code Flux} con los pedidos.
+     */
+    public Flux<Pedido> findAll() {
+        return Flux.concat(
+                databaseClient.sql(SELECT_TODOS_ARCHIVO).map(PedidoReactiveRepository::mapearPedido).all(),
+                databaseClient.sql(SELECT_TODOS).map(PedidoReactiveRepository::mapearPedido).all())
+                .as(transaccion::transactional);
+    }
+
+    /**
+     * Inserta un nuevo pedido, le asigna su identificador, lo suma a las estadísticas de ventas y
+     * registra su evento en la tabla {@code outbox}, todo en una misma transacción.
+     *
+     * <p>El identificador lo da el {@code GeneradorIdPedidos} configurado o, si no hay ninguno,
+     * la base de datos. El generador se invoca fuera de los hilos de E/S porque puede tener que
+     * reservar un bloque con JDBC.</p>
+     *
+     * @param pedido El pedido a insertar.
+     * @return Un {@code Mono} con el pedido insertado.
+     */
+    public Mono<Pedido> save(Pedido pedido) {
+        Mono<Long> insercion = generadorId != null
+                ? Mono.fromCallable(generadorId::siguiente)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(id -> vincular(databaseClient.sql(INSERT_CON_ID).bind("id", id), pedido)
+                                .then()
+                                .thenReturn(id))
+                : vincular(databaseClient.sql(INSERT), pedido)
+                        .filter(statement -> statement.returnGeneratedValues("id"))
+                        .map(fila -> fila.get("id", Long.class))
+                        .one();
+        return insercion
+                .doOnNext(pedido::setId)
+                .flatMap(id -> acumular(pedido).then(registrarCreado(pedido)).thenReturn(pedido))
+                .as(transaccion::transactional);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec vincular(DatabaseClient.GenericExecuteSpec sentencia, Pedido pedido) {
+        return sentencia.bind("codigo", pedido.getCodigo())
+                .bind("unidades", pedido.getUnidades())
+                .bind("total", Importes.aDecimal(pedido.getTotalCentimos()))
+                .bind("fecha", pedido.getFecha());
+    }
+
+
+    private Mono<Void> acumular(Pedido pedido) {
+        return acumular(EstadisticasRepository.ACUMULAR_HORA, pedido, pedido.getFecha().truncatedTo(ChronoUnit.HOURS))
+                .then(acumular(EstadisticasRepository.ACUMULAR_DIA, pedido, pedido.getFecha().toLocalDate()));
+    }
+
+    private Mono<Void> acumular(String sql, Pedido pedido, Object periodo) {
+        return databaseClient.sql(sql)
+                .bind(0, pedido.getCodigo())
+                .bind(1, periodo)
+                .bind(2, 1L)
+                .bind(3, (long) pedido.getUnidades())
+                .bind(4, Importes.aDecimal(pedido.getTotalCentimos()))
+                .then();
+    }
+
+    private Mono<Void> registrarCreado(Pedido pedido) {
+        return databaseClient.sql(OutboxRepository.INSERT)
+                .bind(0, EventoPedido.PEDIDO_CREADO)
+                .bind(1, outboxRepository.serializar(pedido))
+                .bind(2, LocalDateTime.now())
+                .then();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static Pedido mapearPedido(Readable fila) {
+        Pedido pedido = new Pedido();
+        pedido.setId(fila.get("id", Long.class));
+        pedido.setCodigo(fila.get("codigo", Integer.class));
+        pedido.setUnidades(fila.get("unidades", Integer.class));
+        pedido.setTotalCentimos(Importes.aCentimos(fila.get("total", BigDecimal.class)));
+        pedido.setFecha(fila.get("fecha", LocalDateTime.class));
+        return pedido;
+    }
+}
@@ -19,6 +19,5 @@ import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
  * @version 1.0
  * @since 04 de Octubre de 2023
  */
-public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
-
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, PedidoRepositoryCustom {
 }
@@ -0,0 +1,61 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.viewnext.kidaprojects.microservicepedido.model.FiltroPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+/**
+ * La interfaz {@code PedidoRepositoryCustom} define las operaciones sobre la tabla de pedidos
+ * que no pueden expresarse con los métodos derivados de Spring Data JPA.
+ *
+ * <p>
+ * Su implementación trabaja directamente sobre JDBC para poder recorrer la tabla completa sin
+ * cargarla en memoria.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Recorre todos los pedidos, incluidos los archivados, ordenados por su identificador,
+     * entregándolos uno a uno al consumidor a medida que se leen del cursor de la base de datos.
+     *
+     * @param consumidor El consumidor que recibe cada pedido leído.
+     */
+    void recorrerTodos(Consumer<Pedido> consumidor);
+
+    /**
+     * Obtiene los pedidos, incluidos los archivados, cuyo identificador es mayor que el cursor
+     * indicado, ordenados por identificador. Al filtrar por la clave primaria la consulta no
+     * depende de la posición de la página dentro de la tabla.
+     *
+     * @param despuesDeId El identificador a partir del cual (sin incluirlo) se devuelven pedidos.
+     * @param limite      El número máximo de pedidos.
+     * @return Una lista con, como mucho, {@code limite} pedidos.
+     */
+    List<Pedido> listarDesde(long despuesDeId, int limite);
+
+    /**
+     * Inserta los pedidos indicados en una única operación JDBC por lotes y asigna a cada uno su
+     * identificador, obtenido del {@code GeneradorIdPedidos} configurado o, si no hay ninguno,
+     * generado por la base de datos.
+     *
+     * @param pedidos Los pedidos a insertar, en el orden en que se asignarán los identificadores.
+     */
+    void insertarEnLote(List<Pedido> pedidos);
+
+    /**
+     * Busca los pedidos que cumplen el filtro, incluidos los archivados, ordenados por fecha e
+     * identificador. Solo se leen las columnas incluidas en los índices de búsqueda, de modo que
+     * la consulta se resuelve con el índice sin acceder a la tabla, y los pedidos devueltos no
+     * quedan gestionados por JPA.
+     *
+     * @param filtro Los criterios de la búsqueda.
+     * @return Como máximo {@code filtro.getLimite()} pedidos.
+     */
+    List<Pedido> buscar(FiltroPedidos filtro);
+}
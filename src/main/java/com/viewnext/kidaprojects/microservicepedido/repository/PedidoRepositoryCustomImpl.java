@@ -0,0 +1,319 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.EstadoArchivo;
+import com.viewnext.kidaprojects.microservicepedido.model.FiltroPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+/**
+ * La clase {@code PedidoRepositoryCustomImpl} implementa {@code PedidoRepositoryCustom} mediante
+ * un {@code JdbcTemplate} con un tamaño de lectura (fetch size) acotado, de forma que el driver
+ * entrega las filas por bloques y la memoria consumida no depende del tamaño de la tabla.
+ *
+ * <p>
+ * Las consultas incluyen los pedidos trasladados a {@code pedidos_archivo}. Las búsquedas por
+ * fecha solo consultan las tablas que pueden contener pedidos del rango solicitado, según el
+ * {@link EstadoArchivo}; el resto de lecturas consultan ambas. Mientras se ejecuta un archivado,
+ * un pedido puede estar en las dos tablas, por lo que los resultados se combinan descartando
+ * duplicados.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public class PedidoRepositoryCustomImpl implements PedidoRepositoryCustom {
+
+    private static final String TABLA_ACTIVOS = "pedidos";
+    private static final String TABLA_ARCHIVO = "pedidos_archivo";
+    private static final String SELECT_TODOS =
+            "SELECT id, codigo, unidades, total, fecha FROM pedidos ORDER BY id";
+    private static final String SELECT_TODOS_ARCHIVO =
+            "SELECT id, codigo, unidades, total, fecha FROM pedidos_archivo WHERE "
+            + ArchivoPedidosRepository.SOLO_ARCHIVADOS + " ORDER BY id";
+    private static final String SELECT_DESDE_ID =
+            "SELECT id, codigo, unidades, total, fecha FROM %s WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BUSQUEDA =
+            "SELECT id, codigo, unidades, total, fecha FROM %s WHERE ";
+    private static final Comparator<Pedido> POR_ID = Comparator.comparingLong(Pedido::getId);
+    private static final Comparator<Pedido> POR_FECHA =
+            Comparator.comparing(Pedido::getFecha).thenComparingLong(Pedido::getId);
+    private static final String INSERT =
+            "INSERT INTO pedidos (codigo, unidades, total, fecha) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_CON_ID =
+            "INSERT INTO pedidos (codigo, unidades, total, fecha, id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Sin fetch size: las búsquedas están limitadas y con useCursorFetch el driver abriría un
+    // cursor en el servidor para cada una de ellas.
+    private final JdbcTemplate jdbcTemplateConsultas;
+
+    private final ArchivoPedidosRepository archivoPedidosRepository;
+    private final TransactionTemplate transaccionLectura;
+    private final GeneradorIdPedidos generadorId;
+
+    public PedidoRepositoryCustomImpl(DataSource dataSource, ArchivoPedidosRepository archivoPedidosRepository,
+            PlatformTransactionManager transactionManager, ObjectProvider<GeneradorIdPedidos> generadorId,
+            @Value("${pedido.listado.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplateConsultas = new JdbcTemplate(dataSource);
+        this.archivoPedidosRepository = archivoPedidosRepository;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.generadorId = generadorId.getIfAvailable();
+    }
+
+    /**
+     * Recorre primero los pedidos archivados y después la tabla {@code pedidos}, cada una en orden
+     * de identificador, sin materializar el resultado. Como solo se archivan pedidos antiguos, en
+     * la práctica el recorrido completo también queda ordenado por identificador.
+     *
+     * <p>Ambas lecturas se hacen en una misma transacción de solo lectura, de modo que con MySQL
+     * ven la misma instantánea y un archivado simultáneo no hace que un pedido se omita o se
+     * entregue dos veces.</p>
+     *
+     * @param consumidor El consumidor que recibe cada pedido leído.
+     */
+    @Override
+    public void recorrerTodos(Consumer<Pedido> consumidor) {
+        transaccionLectura.executeWithoutResult(status -> {
+            jdbcTemplate.query(SELECT_TODOS_ARCHIVO, rs -> {
+                consumidor.accept(mapearPedido(rs));
+            });
+            jdbcTemplate.query(SELECT_TODOS, rs -> {
+                consumidor.accept(mapearPedido(rs));
+            });
+        });
+    }
+
+    /**
+     * Consulta ambas tablas por la clave primaria y combina los resultados.
+     *
+     * @param despuesDeId El identificador a partir del cual (sin incluirlo) se devuelven pedidos.
+     * @param limite      El número máximo de pedidos.
+     * @return Los pedidos ordenados por identificador.
+     */
+    @Override
+    public List<Pedido> listarDesde(long despuesDeId, int limite) {
+        // Primero la tabla de pedidos: un pedido archivado entre ambas consultas aparece en las
+        // dos y se descarta al combinarlas, pero nunca falta.
+        List<Pedido> activos = jdbcTemplateConsultas.query(String.format(SELECT_DESDE_ID, TABLA_ACTIVOS),
+                (rs, fila) -> mapearPedido(rs), despuesDeId, limite);
+        List<Pedido> archivados = jdbcTemplateConsultas.query(String.format(SELECT_DESDE_ID, TABLA_ARCHIVO),
+                (rs, fila) -> mapearPedido(rs), despuesDeId, limite);
+        return mezclar(activos, archivados, POR_ID, limite);
+    }
+
+    /**
+     * Inserta los pedidos con un único {@code executeBatch}. Al ejecutarse con la conexión de la
+     * transacción en curso, la inserción forma parte de ella. Con un generador de identificadores
+     * configurado, los identificadores se asignan antes y no hace falta leer las claves generadas.
+     *
+     * @param pedidos Los pedidos a insertar.
+     */
+    @Override
+    public void insertarEnLote(List<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+            if (generadorId != null) {
+                try (PreparedStatement ps = conexion.prepareStatement(INSERT_CON_ID)) {
+                    for (Pedido pedido : pedidos) {
+                        pedido.setId(generadorId.siguiente());
+                        asignarColumnas(ps, pedido);
+                        ps.setLong(5, pedido.getId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return null;
+            }
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Pedido pedido : pedidos) {
+                    asignarColumnas(ps, pedido);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (claves.next()) {
+                        pedidos.get(i++).setId(claves.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void asignarColumnas(PreparedStatement ps, Pedido pedido) throws SQLException {
+        ps.setInt(1, pedido.getCodigo());
+        ps.setInt(2, pedido.getUnidades());
+        ps.setBigDecimal(3, Importes.aDecimal(pedido.getTotalCentimos()));
+        ps.setTimestamp(4, pedido.getFecha() != null ? Timestamp.valueOf(pedido.getFecha()) : null);
+    }
+
+    /**
+     * Consulta la tabla {@code pedidos} salvo que el rango sea anterior a la fecha de archivado
+     * completado, y {@code pedidos_archivo} salvo que sea posterior a la fecha objetivo del
+     * archivado, y combina los resultados en el orden solicitado.
+     *
+     * @param filtro Los criterios de la búsqueda.
+     * @return Los pedidos encontrados.
+     */
+    @Override
+    public List<Pedido> buscar(FiltroPedidos filtro) {
+        EstadoArchivo estado = archivoPedidosRepository.estado();
+        List<Pedido> activos = incluyeActivos(filtro, estado) ? buscarEn(TABLA_ACTIVOS, filtro) : List.of();
+        // El estado se vuelve a leer: si ha empezado un archivado durante la consulta anterior, ya
+        // habrá anotado su fecha objetivo antes de mover ningún pedido.
+        estado = archivoPedidosRepository.estado();
+        List<Pedido> archivados = incluyeArchivo(filtro, estado) ? buscarEn(TABLA_ARCHIVO, filtro) : List.of();
+        return mezclar(activos, archivados, filtro.isDescendente() ? POR_FECHA.reversed() : POR_FECHA,
+                filtro.getLimite());
+    }
+
+    /**
+     * Construye la consulta a partir de los criterios presentes. Con un código de producto, la
+     * igualdad sobre {@code codigo} y el rango sobre {@code fecha} usan el índice
+     * {@code (codigo, fecha, id, ...)}; sin él, el índice {@code (fecha, id, ...)}. En ambos casos
+     * el orden pedido coincide con el del índice y la continuación por cursor es un rango sobre
+     * {@code (fecha, id)}, por lo que el coste no depende de la página solicitada. Con la tabla
+     * {@code pedidos} particionada, el rango de fechas limita además las particiones leídas.
+     *
+     * @param tabla  La tabla a consultar.
+     * @param filtro Los criterios de la búsqueda.
+     * @return Los pedidos encontrados.
+     */
+    private List<Pedido> buscarEn(String tabla, FiltroPedidos filtro) {
+        StringBuilder sql = new StringBuilder(String.format(SELECT_BUSQUEDA, tabla));
+        List<Object> parametros = new ArrayList<>();
+        String mayor = filtro.isDescendente() ? " < " : " > ";
+        String sentido = filtro.isDescendente() ? " DESC" : " ASC";
+
+        sql.append("fecha IS NOT NULL");
+        if (filtro.getCodigo() != null) {
+            sql.append(" AND codigo = ?");
+            parametros.add(filtro.getCodigo());
+        }
+        if (filtro.getDesde() != null) {
+            sql.append(" AND fecha >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getDesde()));
+        }
+        if (filtro.getHasta() != null) {
+            sql.append(" AND fecha < ?");
+            parametros.add(Timestamp.valueOf(filtro.getHasta()));
+        }
+        if (filtro.getDespuesDeFecha() != null && filtro.getDespuesDeId() != null) {
+            Timestamp fecha = Timestamp.valueOf(filtro.getDespuesDeFecha());
+            sql.append(" AND (fecha").append(mayor).append("? OR (fecha = ? AND id").append(mayor).append("?))");
+            parametros.add(fecha);
+            parametros.add(fecha);
+            parametros.add(filtro.getDespuesDeId());
+        }
+        sql.append(" ORDER BY fecha").append(sentido).append(", id").append(sentido).append(" LIMIT ?");
+        parametros.add(filtro.getLimite());
+
+        return jdbcTemplateConsultas.query(sql.toString(), (rs, fila) -> mapearPedido(rs), parametros.toArray());
+    }
+
+    /**
+     * Los pedidos de la tabla {@code pedidos} tienen todos fecha igual o posterior a la del
+     * archivado completado.
+     */
+    private static boolean incluyeActivos(FiltroPedidos filtro, EstadoArchivo estado) {
+        LocalDateTime completado = estado.getCompletado();
+        if (completado == null) {
+            return true;
+        }
+        if (filtro.getHasta() != null && !filtro.getHasta().isAfter(completado)) {
+            return false;
+        }
+        return !(filtro.isDescendente() && filtro.getDespuesDeFecha() != null
+                && filtro.getDespuesDeFecha().isBefore(completado));
+    }
+
+    /**
+     * Los pedidos de la tabla {@code pedidos_archivo} tienen todos fecha anterior al objetivo del
+     * archivado.
+     */
+    private static boolean incluyeArchivo(FiltroPedidos filtro, EstadoArchivo estado) {
+        LocalDateTime objetivo = estado.getObjetivo();
+        if (objetivo == null) {
+            return false;
+        }
+        if (filtro.getDesde() != null && !filtro.getDesde().isBefore(objetivo)) {
+            return false;
+        }
+        return !(!filtro.isDescendente() && filtro.getDespuesDeFecha() != null
+                && !filtro.getDespuesDeFecha().isBefore(objetivo));
+    }
+
+    /**
+     * Combina dos listas ordenadas con el mismo criterio, descartando los pedidos repetidos.
+     *
+     * @param primera El resultado de la primera consulta.
+     * @param segunda El resultado de la segunda consulta.
+     * @param orden   El criterio de ordenación de ambas listas.
+     * @param limite  El número máximo de pedidos del resultado.
+     * @return Los primeros {@code limite} pedidos de la combinación.
+     */
+    private static List<Pedido> mezclar(List<Pedido> primera, List<Pedido> segunda, Comparator<Pedido> orden,
+            int limite) {
+        if (segunda.isEmpty()) {
+            return primera;
+        }
+        if (primera.isEmpty()) {
+            return segunda;
+        }
+        List<Pedido> resultado = new ArrayList<>(limite);
+        int i = 0;
+        int j = 0;
+        while (resultado.size() < limite && (i < primera.size() || j < segunda.size())) {
+            int comparacion = i == primera.size() ? 1
+                    : j == segunda.size() ? -1 : orden.compare(primera.get(i), segunda.get(j));
+            if (comparacion <= 0) {
+                resultado.add(primera.get(i++));
+                if (comparacion == 0) {
+                    j++;
+                }
+            } else {
+                resultado.add(segunda.get(j++));
+            }
+        }
+        return resultado;
+    }
+
+    static Pedido mapearPedido(ResultSet rs) throws SQLException {
+        Pedido pedido = new Pedido();
+        pedido.setId(rs.getLong("id"));
+        pedido.setCodigo(rs.getInt("codigo"));
+        pedido.setUnidades(rs.getInt("unidades"));
+        pedido.setTotalCentimos(Importes.aCentimos(rs.getBigDecimal("total")));
+        Timestamp fecha = rs.getTimestamp("fecha");
+        pedido.setFecha(fecha != null ? fecha.toLocalDateTime() : null);
+        return pedido;
+    }
+}
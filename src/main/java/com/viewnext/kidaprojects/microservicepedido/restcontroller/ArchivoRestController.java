@@ -0,0 +1,41 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viewnext.kidaprojects.microservicepedido.service.ArchivoService;
+
+/**
+ * El controlador REST de administración del archivado de pedidos. El archivado es bloqueante
+ * (JDBC), por lo que solo se publica en la pila servlet.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class ArchivoRestController {
+
+	@Autowired
+	private ArchivoService service;
+
+	/**
+	 * Traslada a la tabla de archivo los pedidos anteriores al horizonte configurado, sin esperar
+	 * a la ejecución programada.
+	 *
+	 * @return ResponseEntity con el número de pedidos archivados, o 409 (Conflict) si ya hay un
+	 *         archivado en curso.
+	 */
+	@PostMapping("admin/pedidos/archivar")
+	public ResponseEntity<?> archivar() {
+		try {
+			return ResponseEntity.ok(service.archivar());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viewnext.kidaprojects.microservicepedido.service.EstadisticasService;
+
+/**
+ * El controlador REST de estadísticas de ventas. Las consultas se responden a partir de agregados
+ * por producto y hora o día que se actualizan con cada pedido. Las consultas son bloqueantes
+ * (JDBC), por lo que solo se publica en la pila servlet.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class EstadisticasRestController {
+
+	private static final String INVALID_CRITERIO = "El criterio debe ser total o unidades";
+
+	@Autowired
+	private EstadisticasService service;
+
+	/**
+	 * Obtiene las ventas de un producto por hora.
+	 *
+	 * @param codigo El código del producto.
+	 * @param desde  El inicio del rango en formato ISO, incluido.
+	 * @param hasta  El fin del rango en formato ISO, excluido.
+	 * @return ResponseEntity con las ventas de cada hora, o un mensaje de error si el rango no es válido.
+	 */
+	@GetMapping(value = "estadisticas/producto/{codigo}/horas", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> ventasPorHora(@PathVariable("codigo") int codigo,
+			@RequestParam("desde") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime desde,
+			@RequestParam("hasta") @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime hasta) {
+		try {
+			return ResponseEntity.ok(service.ventasPorHora(codigo, desde, hasta));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Obtiene las ventas de un producto por día.
+	 *
+	 * @param codigo El código del producto.
+	 * @param desde  El primer día del rango en formato ISO, incluido.
+	 * @param hasta  El último día del rango en formato ISO, excluido.
+	 * @return ResponseEntity con las ventas de cada día, o un mensaje de error si el rango no es válido.
+	 */
+	@GetMapping(value = "estadisticas/producto/{codigo}/dias", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> ventasPorDia(@PathVariable("codigo") int codigo,
+			@RequestParam("desde") @DateTimeFormat(iso = ISO.DATE) LocalDate desde,
+			@RequestParam("hasta") @DateTimeFormat(iso = ISO.DATE) LocalDate hasta) {
+		try {
+			return ResponseEntity.ok(service.ventasPorDia(codigo, desde, hasta));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Obtiene los productos más vendidos en un rango de días.
+	 *
+	 * @param desde    El primer día del rango en formato ISO, incluido.
+	 * @param hasta    El último día del rango en formato ISO, excluido.
+	 * @param n        El número de productos.
+	 * @param criterio {@code total} para ordenar por importe o {@code unidades}.
+	 * @return ResponseEntity con los productos, o un mensaje de error si los criterios no son válidos.
+	 */
+	@GetMapping(value = "estadisticas/top", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> ranking(@RequestParam("desde") @DateTimeFormat(iso = ISO.DATE) LocalDate desde,
+			@RequestParam("hasta") @DateTimeFormat(iso = ISO.DATE) LocalDate hasta,
+			@RequestParam(value = "n", defaultValue = "10") int n,
+			@RequestParam(value = "criterio", defaultValue = "total") String criterio) {
+		if (!"total".equals(criterio) && !"unidades".equals(criterio)) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_CRITERIO);
+		}
+		try {
+			return ResponseEntity.ok(service.ranking(desde, hasta, n, "unidades".equals(criterio)));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Recalcula las estadísticas a partir de la tabla de pedidos.
+	 *
+	 * @return ResponseEntity con el número de pedidos procesados, o 409 (Conflict) si ya hay una
+	 *         reconstrucción en curso.
+	 */
+	@PostMapping("admin/estadisticas/reconstruir")
+	public ResponseEntity<?> reconstruir() {
+		try {
+			return ResponseEntity.ok(service.reconstruir());
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+}
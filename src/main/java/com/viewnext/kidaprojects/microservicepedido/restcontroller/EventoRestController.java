@@ -0,0 +1,42 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.viewnext.kidaprojects.microservicepedido.outbox.SseEventoSink;
+
+/**
+ * El controlador REST del flujo de eventos de pedidos. Permite a otros sistemas recibir los
+ * pedidos nuevos de forma incremental en lugar de consultar periódicamente {@code GET /pedido}.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class EventoRestController {
+
+	@Autowired
+	private SseEventoSink sseEventoSink;
+
+	/**
+	 * Suscribe al cliente al flujo de eventos {@code PEDIDO_CREADO} mediante Server-Sent Events.
+	 *
+	 * @param lastEventId El identificador del último evento recibido, que el navegador envía al
+	 *                    reconectar (opcional).
+	 * @param desde       Alternativa a {@code Last-Event-ID} para clientes que no lo envían
+	 *                    (opcional).
+	 * @return El emisor SSE. Sin posición, solo se reciben los eventos nuevos.
+	 */
+	@GetMapping(value = "pedido/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter suscribir(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@RequestParam(value = "desde", required = false) Long desde) {
+		return sseEventoSink.suscribir(lastEventId != null ? lastEventId : desde);
+	}
+}
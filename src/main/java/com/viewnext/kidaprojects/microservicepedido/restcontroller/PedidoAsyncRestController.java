@@ -0,0 +1,80 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido;
+import com.viewnext.kidaprojects.microservicepedido.queue.ColaPedidos;
+
+/**
+ * El controlador REST del alta asíncrona de pedidos. Solo se crea si
+ * {@code pedido.async.enabled=true}.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "pedido.async.enabled", havingValue = "true")
+public class PedidoAsyncRestController {
+
+	private static final String SOLICITUD_NOT_FOUND = "Solicitud no encontrada";
+	private static final String RUTA_ESTADO = "/pedido/async/";
+
+	@Autowired
+	private ColaPedidos colaPedidos;
+
+	/**
+	 * Acepta un pedido para procesarlo en segundo plano.
+	 *
+	 * @param codigo   El código del producto para el pedido.
+	 * @param cantidad La cantidad de unidades del producto para el pedido.
+	 * @return ResponseEntity con estado 202 (Accepted), la solicitud y su URL de estado en la cabecera
+	 *         {@code Location}; 429 (Too Many Requests) si la cola está llena, o 503 (Service
+	 *         Unavailable) si no se ha podido anotar en el diario, o 400 (Bad Request) si la
+	 *         cantidad no es positiva.
+	 */
+	@PostMapping(value = "pedido/async", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> aceptarPedido(@RequestParam("codigo") int codigo, @RequestParam("cantidad") int cantidad) {
+		try {
+			SolicitudPedido solicitud = colaPedidos.aceptar(codigo, cantidad);
+			return ResponseEntity.accepted().location(URI.create(RUTA_ESTADO + solicitud.getId())).body(solicitud);
+		} catch (RejectedExecutionException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+					.body(e.getMessage());
+		} catch (UnknownErrorException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Consulta el estado de un pedido aceptado en modo asíncrono.
+	 *
+	 * @param id El identificador de la solicitud.
+	 * @return ResponseEntity con la solicitud, o 404 (Not Found) si no existe o ha caducado.
+	 */
+	@GetMapping(value = "pedido/async/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> consultarPedido(@PathVariable("id") String id) {
+		SolicitudPedido solicitud = colaPedidos.consultar(id);
+		if (solicitud == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SOLICITUD_NOT_FOUND);
+		}
+		return ResponseEntity.ok(solicitud);
+	}
+}
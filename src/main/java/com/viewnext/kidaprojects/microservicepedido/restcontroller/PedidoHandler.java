@@ -0,0 +1,91 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.viewnext.kidaprojects.microservicepedido.config.FormatosRespuestaConfig;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.metrics.PedidoMetricas;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+import com.viewnext.kidaprojects.microservicepedido.service.PedidoReactiveService;
+
+import jakarta.persistence.EntityNotFoundException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Los manejadores WebFlux de los endpoints de pedidos para el perfil {@code reactive}. Exponen
+ * las mismas rutas y códigos de estado que {@code PedidoRestController}.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@Profile("reactive")
+public class PedidoHandler {
+
+	private static final String PRODUCTO_NOT_FOUND = "Producto/s no encontrado";
+	private static final String INVALID_ARGUMENT = "Argumento inválido para la solicitud.";
+
+	private final PedidoReactiveService service;
+	private final PedidoMetricas metricas;
+
+	public PedidoHandler(PedidoReactiveService service, PedidoMetricas metricas) {
+		this.service = service;
+		this.metricas = metricas;
+	}
+
+	/**
+	 * Devuelve todos los pedidos en formato NDJSON, o como secuencia Smile si la cabecera
+	 * {@code Accept} lo pide expresamente, escribiéndolos a medida que se leen.
+	 *
+	 * @param request La solicitud recibida.
+	 * @return La respuesta con el flujo de pedidos.
+	 */
+	public Mono<ServerResponse> showAllPedidos(ServerRequest request) {
+		MediaType tipo = request.headers().accept().stream()
+				.anyMatch(FormatosRespuestaConfig.APPLICATION_STREAM_SMILE::equalsTypeAndSubtype)
+						? FormatosRespuestaConfig.APPLICATION_STREAM_SMILE
+						: MediaType.APPLICATION_NDJSON;
+		return ServerResponse.ok()
+				.contentType(tipo)
+				.body(service.showAll().map(PedidoDTO::de), PedidoDTO.class);
+	}
+
+	/**
+	 * Da de alta un nuevo pedido con los parámetros {@code codigo} y {@code cantidad}.
+	 *
+	 * @param request La solicitud recibida.
+	 * @return La respuesta con el pedido creado, o un mensaje de error si ocurre algún problema.
+	 */
+	public Mono<ServerResponse> darDeAltaPedido(ServerRequest request) {
+		int codigo;
+		int cantidad;
+		try {
+			codigo = parametroEntero(request, "codigo");
+			cantidad = parametroEntero(request, "cantidad");
+		} catch (IllegalArgumentException e) {
+			return ServerResponse.badRequest().bodyValue(INVALID_ARGUMENT);
+		}
+
+		return service.darDeAltaPedido(codigo, cantidad)
+				.flatMap(pedido -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+						.bodyValue(PedidoDTO.de(pedido)))
+				.onErrorResume(StockInsuficienteException.class,
+						e -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(e.getMessage()))
+				.onErrorResume(EntityNotFoundException.class,
+						e -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(PRODUCTO_NOT_FOUND))
+				.onErrorResume(UnknownErrorException.class,
+						e -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).bodyValue(e.getMessage()))
+				.onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()))
+				.doOnNext(respuesta -> metricas.registrarResultado(respuesta.statusCode()));
+	}
+
+	private static int parametroEntero(ServerRequest request, String nombre) {
+		return Integer.parseInt(request.queryParam(nombre)
+				.orElseThrow(() -> new IllegalArgumentException("Falta el parámetro " + nombre)));
+	}
+}
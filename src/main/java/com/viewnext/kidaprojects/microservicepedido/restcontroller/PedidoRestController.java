@@ -1,20 +1,46 @@
 package com.viewnext.kidaprojects.microservicepedido.restcontroller;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import com.viewnext.kidaprojects.microservicepedido.config.FormatosRespuestaConfig;
 import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
 import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.idempotency.IdempotenciaStore;
+import com.viewnext.kidaprojects.microservicepedido.idempotency.RespuestaAlmacenada;
+import com.viewnext.kidaprojects.microservicepedido.metrics.PedidoMetricas;
+import com.viewnext.kidaprojects.microservicepedido.model.LineaPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaBusquedaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
 import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea;
 import com.viewnext.kidaprojects.microservicepedido.service.PedidoService;
 
 
@@ -30,47 +56,211 @@ import jakarta.persistence.EntityNotFoundException;
  * @since 4 de Octubre de 2023
  */
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 public class PedidoRestController {
 
 	@Autowired
 	private PedidoService service;
 	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+	
+	@Autowired
+	private PedidoMetricas metricas;
+	
+	@Autowired
+	private IdempotenciaStore idempotenciaStore;
+	
 	 private static final String PEDIDO_NOT_FOUND = "Pedido/s no encontrado";
 	 private static final String PRODUCTO_NOT_FOUND = "Producto/s no encontrado";
+	 private static final String INVALID_ORDEN = "El orden debe ser asc o desc";
+	 private static final String INVALID_IDEMPOTENCY_KEY = "La cabecera Idempotency-Key debe tener entre 1 y 255 caracteres";
+	 private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	 private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+	 private static final int LONGITUD_MAXIMA_CLAVE = 255;
 	
 	 /**
-	     * Obtiene la lista de todos los pedidos existentes.
+	     * Obtiene una página de pedidos ordenados por identificador.
 	     *
-	     * @return ResponseEntity con la lista de pedidos si se encuentra, o un mensaje de error si no.
+	     * <p>Según la cabecera {@code Accept}, la página se devuelve en JSON, CBOR o Smile.</p>
+	     *
+	     * @param after El cursor devuelto en la página anterior, o 0 para la primera página.
+	     * @param size  El número de pedidos por página.
+	     * @return ResponseEntity con la página de pedidos si se encuentra, o un mensaje de error si no.
 	     */
-	    @GetMapping(value = "pedido", produces = MediaType.APPLICATION_JSON_VALUE)
-	    public ResponseEntity<?> showAllPedidos() {
+	    @GetMapping(value = "pedido", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+	            FormatosRespuestaConfig.APPLICATION_SMILE_VALUE })
+	    public ResponseEntity<?> showAllPedidos(@RequestParam(value = "after", defaultValue = "0") long after,
+	            @RequestParam(value = "size", defaultValue = "100") int size) {
 	        try {
-	            List<Pedido> listaPedidos = service.showAll();
-	            return ResponseEntity.ok(listaPedidos);
+	            PaginaPedidos pagina = service.showPage(after, size);
+	            return ResponseEntity.ok(pagina);
 	        } catch (EntityNotFoundException e) {
 	            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(PEDIDO_NOT_FOUND);
 	        }
 	    }
 
+	    /**
+	     * Busca pedidos por código de producto y rango de fechas, ordenados por fecha.
+	     *
+	     * @param codigo El código del producto (opcional).
+	     * @param desde  El inicio del rango de fechas en formato ISO, incluido (opcional).
+	     * @param hasta  El fin del rango de fechas en formato ISO, excluido (opcional).
+	     * @param orden  {@code asc} o {@code desc}.
+	     * @param after  El cursor devuelto en la página anterior (opcional).
+	     * @param size   El número de pedidos por página.
+	     * @return ResponseEntity con la página de pedidos, o un mensaje de error si los criterios no son válidos.
+	     */
+	    @GetMapping(value = "pedido/buscar", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+	            FormatosRespuestaConfig.APPLICATION_SMILE_VALUE })
+	    public ResponseEntity<?> buscarPedidos(@RequestParam(value = "codigo", required = false) Integer codigo,
+	            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime desde,
+	            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime hasta,
+	            @RequestParam(value = "orden", defaultValue = "asc") String orden,
+	            @RequestParam(value = "after", required = false) String after,
+	            @RequestParam(value = "size", defaultValue = "100") int size) {
+	        if (!"asc".equalsIgnoreCase(orden) && !"desc".equalsIgnoreCase(orden)) {
+	            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_ORDEN);
+	        }
+	        try {
+	            PaginaBusquedaPedidos pagina = service.buscar(codigo, desde, hasta, "desc".equalsIgnoreCase(orden), after, size);
+	            return ResponseEntity.ok(pagina);
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	        }
+	    }
+
+	    /**
+	     * Devuelve todos los pedidos en formato NDJSON (un pedido por línea), escribiéndolos a
+	     * medida que se leen de la base de datos.
+	     *
+	     * @return El cuerpo de la respuesta que se escribe de forma incremental.
+	     */
+	    @GetMapping(value = "pedido", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	    public ResponseEntity<StreamingResponseBody> streamAllPedidos() {
+	        return volcado(objectMapper.writer().withRootValueSeparator("\n"), MediaType.APPLICATION_NDJSON);
+	    }
+
+	    /**
+	     * Devuelve todos los pedidos como una secuencia de valores Smile, escribiéndolos a medida
+	     * que se leen de la base de datos. Cada valor es autodelimitado, por lo que no hay separador.
+	     *
+	     * @return El cuerpo de la respuesta que se escribe de forma incremental.
+	     */
+	    @GetMapping(value = "pedido", produces = FormatosRespuestaConfig.APPLICATION_STREAM_SMILE_VALUE)
+	    public ResponseEntity<StreamingResponseBody> streamAllPedidosSmile() {
+	        return volcado(smileConverter.getObjectMapper().writer(), FormatosRespuestaConfig.APPLICATION_STREAM_SMILE);
+	    }
+
+	    private ResponseEntity<StreamingResponseBody> volcado(ObjectWriter writer, MediaType tipo) {
+	        StreamingResponseBody cuerpo = salida -> {
+	            try (SequenceWriter escritor = writer.writeValues(salida)) {
+	                service.streamAll(pedido -> escribir(escritor, pedido));
+	            }
+	        };
+	        return ResponseEntity.ok().contentType(tipo).body(cuerpo);
+	    }
+
+	    private static void escribir(SequenceWriter escritor, Pedido pedido) {
+	        try {
+	            escritor.write(PedidoDTO.de(pedido));
+	        } catch (IOException e) {
+	            throw new UncheckedIOException(e);
+	        }
+	    }
+
 	    /**
 	     * Da de alta un nuevo pedido con el código y cantidad especificados.
 	     *
-	     * @param codigo   El código del producto para el pedido.
-	     * @param cantidad La cantidad de unidades del producto para el pedido.
+	     * <p>Si la petición incluye la cabecera {@code Idempotency-Key}, la primera respuesta
+	     * definitiva (cualquiera salvo un error 5xx) se guarda y se devuelve en las repeticiones con
+	     * la misma clave, con la cabecera {@code Idempotent-Replayed}, sin volver a reservar stock ni
+	     * a guardar el pedido. Una repetición que llega mientras la original está en curso espera a
+	     * su resultado. Reutilizar la clave con otros parámetros devuelve 422 (Unprocessable Entity)
+	     * y agotar la espera, 409 (Conflict).</p>
+	     *
+	     * @param codigo            El código del producto para el pedido.
+	     * @param cantidad          La cantidad de unidades del producto para el pedido.
+	     * @param claveIdempotencia La clave de idempotencia de la petición (opcional).
 	     * @return ResponseEntity con el pedido creado si tiene éxito, o un mensaje de error si ocurre algún problema.
 	     */
 	    @PostMapping(value = "pedido", produces = MediaType.APPLICATION_JSON_VALUE)
-	    public ResponseEntity<?> darDeAltaPedido(@RequestParam("codigo") int codigo, @RequestParam("cantidad") int cantidad) {
+	    public ResponseEntity<?> darDeAltaPedido(@RequestParam("codigo") int codigo, @RequestParam("cantidad") int cantidad,
+	            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String claveIdempotencia) {
+	        if (claveIdempotencia == null) {
+	            return altaPedido(codigo, cantidad);
+	        }
+	        if (claveIdempotencia.isBlank() || claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+	            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_IDEMPOTENCY_KEY);
+	        }
+	        
+	        AtomicBoolean ejecutada = new AtomicBoolean();
+	        RespuestaAlmacenada respuesta;
+	        try {
+	            respuesta = idempotenciaStore.ejecutar(claveIdempotencia, "codigo=" + codigo + "&cantidad=" + cantidad, () -> {
+	                ejecutada.set(true);
+	                return almacenar(altaPedido(codigo, cantidad));
+	            });
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+	        } catch (IllegalStateException e) {
+	            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+	        }
+	        
+	        ResponseEntity.BodyBuilder builder = ResponseEntity.status(respuesta.getEstado())
+	                .contentType(MediaType.APPLICATION_JSON);
+	        if (!ejecutada.get()) {
+	            metricas.registrarRepeticion();
+	            builder.header(IDEMPOTENT_REPLAYED, "true");
+	        }
+	        return builder.body(respuesta.getCuerpo());
+	    }
+	    
+	    private RespuestaAlmacenada almacenar(ResponseEntity<?> respuesta) {
+	        Object cuerpo = respuesta.getBody();
+	        try {
+	            return new RespuestaAlmacenada(respuesta.getStatusCode().value(),
+	                    cuerpo instanceof String texto ? texto : objectMapper.writeValueAsString(cuerpo));
+	        } catch (JsonProcessingException e) {
+	            throw new UncheckedIOException(e);
+	        }
+	    }
+	    
+	    private ResponseEntity<?> altaPedido(int codigo, int cantidad) {
+	        ResponseEntity<?> respuesta;
 	        try {
 	            Pedido pedido = service.darDeAltaPedido(codigo, cantidad);
-	            return ResponseEntity.ok(pedido);
+	            respuesta = ResponseEntity.ok(PedidoDTO.de(pedido));
 	        } catch (StockInsuficienteException e) {
-	            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+	            respuesta = ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 	        } catch (EntityNotFoundException e) {
-	            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(PRODUCTO_NOT_FOUND);
+	            respuesta = ResponseEntity.status(HttpStatus.NOT_FOUND).body(PRODUCTO_NOT_FOUND);
 	        } catch (UnknownErrorException e) {
-	            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+	            respuesta = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+	        } catch (IllegalArgumentException e) {
+	            respuesta = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	        }
+	        metricas.registrarResultado(respuesta.getStatusCode());
+	        return respuesta;
+	    }
+	
+	    /**
+	     * Da de alta un pedido por cada línea recibida. Cada línea se resuelve de forma
+	     * independiente y su resultado indica si se creó el pedido o por qué no se pudo crear.
+	     *
+	     * @param lineas Las líneas del pedido, cada una con su código de producto y cantidad.
+	     * @return ResponseEntity con el resultado de cada línea, o un mensaje de error si el lote no es válido.
+	     */
+	    @PostMapping(value = "pedido/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	    public ResponseEntity<?> darDeAltaPedidos(@RequestBody List<LineaPedido> lineas) {
+	        try {
+	            List<ResultadoLinea> resultados = service.darDeAltaPedidos(lineas);
+	            return ResponseEntity.ok(resultados);
+	        } catch (IllegalArgumentException e) {
+	            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 	        }
 	    }
-	}
\ No newline at end of file
+	}
@@ -0,0 +1,26 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Las rutas WebFlux de pedidos para el perfil {@code reactive}.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@Configuration
+@Profile("reactive")
+public class PedidoRouter {
+
+	@Bean
+	RouterFunction<ServerResponse> pedidoRoutes(PedidoHandler handler) {
+		return RouterFunctions.route()
+				.GET("/pedido", handler::showAllPedidos)
+				.POST("/pedido", handler::darDeAltaPedido)
+				.build();
+	}
+}
@@ -0,0 +1,45 @@
+package com.viewnext.kidaprojects.microservicepedido.restcontroller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viewnext.kidaprojects.microservicepedido.cache.PrecioCache;
+
+/**
+ * El controlador REST de administración de la caché de precios. Permite invalidar el precio de
+ * un producto, o todos, cuando cambian en el MicroservicioProducto.
+ *
+ * @since 18 de Octubre de 2026
+ */
+@RestController
+public class PrecioCacheRestController {
+
+	@Autowired
+	private PrecioCache precioCache;
+
+	/**
+	 * Invalida el precio en caché de un producto.
+	 *
+	 * @param codigo El código del producto.
+	 * @return ResponseEntity vacío con estado 204 (No Content).
+	 */
+	@DeleteMapping("admin/precios/{codigo}")
+	public ResponseEntity<Void> invalidarPrecio(@PathVariable("codigo") int codigo) {
+		precioCache.invalidar(codigo);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Invalida todos los precios en caché.
+	 *
+	 * @return ResponseEntity vacío con estado 204 (No Content).
+	 */
+	@DeleteMapping("admin/precios")
+	public ResponseEntity<Void> invalidarPrecios() {
+		precioCache.invalidarTodos();
+		return ResponseEntity.noContent().build();
+	}
+}
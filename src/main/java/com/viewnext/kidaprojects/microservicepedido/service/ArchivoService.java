@@ -0,0 +1,24 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+/**
+ * La interfaz {@code ArchivoService} define el mantenimiento del almacenamiento de pedidos: la
+ * creación anticipada de las particiones mensuales y el traslado de los pedidos antiguos a la
+ * tabla de archivo.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface ArchivoService {
+
+    /**
+     * Traslada a {@code pedidos_archivo} los pedidos anteriores al horizonte configurado.
+     *
+     * @return El número de pedidos archivados.
+     */
+    public long archivar();
+
+    /**
+     * Crea por adelantado las particiones mensuales de la tabla {@code pedidos}.
+     */
+    public void mantenerParticiones();
+}
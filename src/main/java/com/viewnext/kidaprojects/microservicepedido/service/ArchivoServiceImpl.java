@@ -0,0 +1,172 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadoArchivo;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.ArchivoPedidosRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.ParticionesRepository;
+
+/**
+ * La clase {@code ArchivoServiceImpl} implementa {@code ArchivoService}.
+ *
+ * <p>
+ * El archivado trabaja siempre hasta el primer día de un mes, de modo que con la tabla
+ * particionada los pedidos archivados ocupan particiones completas, que se eliminan sin
+ * recorrerlas en lugar de borrar los pedidos uno a uno. Sin particionado, cada bloque se copia y
+ * se borra en una misma transacción.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Service
+public class ArchivoServiceImpl implements ArchivoService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArchivoServiceImpl.class);
+
+	private final ArchivoPedidosRepository archivoPedidosRepository;
+	private final ParticionesRepository particionesRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final AtomicBoolean archivando = new AtomicBoolean();
+
+	@Value("${pedido.particionado.enabled:false}")
+	private boolean particionado;
+
+	@Value("${pedido.particionado.meses-adelantados:3}")
+	private int mesesAdelantados;
+
+	@Value("${pedido.archivado.horizonte-meses:12}")
+	private int horizonteMeses;
+
+	@Value("${pedido.archivado.tamano-bloque:5000}")
+	private int tamanoBloque;
+
+	public ArchivoServiceImpl(ArchivoPedidosRepository archivoPedidosRepository,
+			ParticionesRepository particionesRepository, TransactionTemplate transactionTemplate) {
+		this.archivoPedidosRepository = archivoPedidosRepository;
+		this.particionesRepository = particionesRepository;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	/**
+	 * Archiva los pedidos anteriores al primer día del mes situado {@code horizonte-meses} antes
+	 * del actual. La fecha objetivo se anota antes de mover ningún pedido y la de archivado
+	 * completado al terminar, de modo que las consultas saben en todo momento qué tablas leer y
+	 * un archivado interrumpido se retoma en la siguiente ejecución.
+	 *
+	 * <p>Se ejecuta también de forma programada si se configura {@code pedido.archivado.cron}.</p>
+	 *
+	 * @throws IllegalStateException Si ya hay un archivado en curso.
+	 */
+	@Override
+	@Scheduled(cron = "${pedido.archivado.cron:-}")
+	public long archivar() throws IllegalStateException {
+		if (!archivando.compareAndSet(false, true)) {
+			throw new IllegalStateException("Ya hay un archivado de pedidos en curso");
+		}
+		try {
+			LocalDateTime objetivo = YearMonth.now().minusMonths(horizonteMeses).atDay(1).atStartOfDay();
+			EstadoArchivo estado = archivoPedidosRepository.estado();
+			if (estado.getObjetivo() != null && !objetivo.isAfter(estado.getObjetivo())) {
+				objetivo = estado.getObjetivo();
+			} else {
+				archivoPedidosRepository.fijarObjetivo(objetivo);
+			}
+
+			long archivados;
+			if (particionado) {
+				archivados = trasladar(objetivo, false);
+				for (String particion : particionesRepository.particionesHasta(objetivo)) {
+					particionesRepository.eliminar(particion);
+					LOGGER.info("Eliminada la partición {} de pedidos ya archivados", particion);
+				}
+				// Pedidos anteriores al objetivo en particiones que también contienen pedidos
+				// posteriores; ya están copiados, solo queda borrarlos.
+				trasladar(objetivo, true);
+			} else {
+				archivados = trasladar(objetivo, true);
+			}
+
+			archivoPedidosRepository.fijarCompletado(objetivo);
+			LOGGER.info("Archivados {} pedidos anteriores a {}", archivados, objetivo);
+			return archivados;
+		} finally {
+			archivando.set(false);
+		}
+	}
+
+	/**
+	 * Copia a la tabla de archivo, por bloques de identificadores y con una transacción por
+	 * bloque, los pedidos anteriores a una fecha.
+	 *
+	 * @param anterior La fecha, excluida.
+	 * @param borrar   Si se borran de {@code pedidos} en la misma transacción en que se copian.
+	 * @return El número de pedidos procesados.
+	 */
+	private long trasladar(LocalDateTime anterior, boolean borrar) {
+		long procesados = 0;
+		long ultimoId = 0;
+		while (true) {
+			long despuesDe = ultimoId;
+			List<Pedido> bloque = transactionTemplate.execute(status -> {
+				List<Pedido> pedidos = archivoPedidosRepository.pendientes(anterior, despuesDe, tamanoBloque);
+				if (!pedidos.isEmpty()) {
+					archivoPedidosRepository.copiar(pedidos);
+					if (borrar) {
+						archivoPedidosRepository.borrar(pedidos);
+					}
+				}
+				return pedidos;
+			});
+			if (bloque.isEmpty()) {
+				return procesados;
+			}
+			procesados += bloque.size();
+			ultimoId = bloque.get(bloque.size() - 1).getId();
+		}
+	}
+
+	/**
+	 * Parte la partición {@code p_futuro} hasta tener particiones mensuales para los próximos
+	 * {@code meses-adelantados} meses. Se ejecuta al arrancar y a diario; no hace nada si
+	 * {@code pedido.particionado.enabled} es {@code false}.
+	 */
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${pedido.particionado.cron:0 0 2 * * *}")
+	public void mantenerParticiones() {
+		if (!particionado) {
+			return;
+		}
+		try {
+			LocalDateTime limite = particionesRepository.limiteSuperior();
+			if (limite == null) {
+				LOGGER.warn("La tabla pedidos no está particionada");
+				return;
+			}
+			LocalDateTime necesario = YearMonth.now().plusMonths(mesesAdelantados + 1L).atDay(1).atStartOfDay();
+			while (limite.isBefore(necesario)) {
+				YearMonth mes = YearMonth.from(limite);
+				particionesRepository.anadir(mes);
+				LOGGER.info("Creada la partición de pedidos de {}", mes);
+				limite = mes.plusMonths(1).atDay(1).atStartOfDay();
+			}
+		} catch (DataAccessException e) {
+			LOGGER.error("No se han podido crear las particiones de pedidos", e);
+		}
+	}
+}
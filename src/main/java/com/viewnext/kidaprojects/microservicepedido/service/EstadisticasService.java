@@ -0,0 +1,55 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadisticaVentas;
+
+/**
+ * La interfaz {@code EstadisticasService} define las consultas de estadísticas de ventas, que se
+ * responden a partir de agregados precalculados y no de la tabla de pedidos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface EstadisticasService {
+
+    /**
+     * Consulta las ventas de un producto por hora.
+     *
+     * @param codigo El código del producto.
+     * @param desde  El inicio del rango, incluido.
+     * @param hasta  El fin del rango, excluido.
+     * @return Las ventas de cada hora con algún pedido.
+     */
+    public List<EstadisticaVentas> ventasPorHora(int codigo, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Consulta las ventas de un producto por día.
+     *
+     * @param codigo El código del producto.
+     * @param desde  El primer día del rango, incluido.
+     * @param hasta  El último día del rango, excluido.
+     * @return Las ventas de cada día con algún pedido.
+     */
+    public List<EstadisticaVentas> ventasPorDia(int codigo, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Consulta los productos más vendidos en un rango de días.
+     *
+     * @param desde       El primer día del rango, incluido.
+     * @param hasta       El último día del rango, excluido.
+     * @param limite      El número de productos.
+     * @param porUnidades {@code true} para ordenar por unidades, {@code false} por importe.
+     * @return Los productos ordenados de mayor a menor.
+     */
+    public List<EstadisticaVentas> ranking(LocalDate desde, LocalDate hasta, int limite, boolean porUnidades);
+
+    /**
+     * Recalcula todos los agregados a partir de la tabla de pedidos.
+     *
+     * @return El número de pedidos procesados.
+     */
+    public long reconstruir();
+}
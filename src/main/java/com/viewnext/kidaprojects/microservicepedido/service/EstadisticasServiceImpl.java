@@ -0,0 +1,131 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadisticaVentas;
+import com.viewnext.kidaprojects.microservicepedido.repository.EstadisticasRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.EstadisticasRepository.Correccion;
+
+/**
+ * La clase {@code EstadisticasServiceImpl} implementa {@code EstadisticasService} sobre las tablas
+ * de agregados que mantiene {@code EstadisticasRepository}. Las consultas recorren como mucho una
+ * fila por producto y periodo, por lo que su coste no depende del número de pedidos.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Service
+public class EstadisticasServiceImpl implements EstadisticasService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EstadisticasServiceImpl.class);
+
+	private final EstadisticasRepository estadisticasRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final TransactionTemplate transaccionLectura;
+	private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+	@Value("${pedido.estadisticas.ranking.maximo:100}")
+	private int maximoRanking;
+
+	public EstadisticasServiceImpl(EstadisticasRepository estadisticasRepository, TransactionTemplate transactionTemplate) {
+		this.estadisticasRepository = estadisticasRepository;
+		this.transactionTemplate = transactionTemplate;
+		// Las consultas se hacen en transacciones de solo lectura, que pueden servir las réplicas.
+		this.transaccionLectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		this.transaccionLectura.setReadOnly(true);
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el rango está invertido.
+	 */
+	@Override
+	public List<EstadisticaVentas> ventasPorHora(int codigo, LocalDateTime desde, LocalDateTime hasta)
+			throws IllegalArgumentException {
+		validarRango(desde, hasta);
+		return transaccionLectura.execute(status -> estadisticasRepository.ventasPorHora(codigo, desde, hasta));
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el rango está invertido.
+	 */
+	@Override
+	public List<EstadisticaVentas> ventasPorDia(int codigo, LocalDate desde, LocalDate hasta)
+			throws IllegalArgumentException {
+		validarRango(desde, hasta);
+		return transaccionLectura.execute(status -> estadisticasRepository.ventasPorDia(codigo, desde, hasta));
+	}
+
+	/**
+	 * El número de productos se ajusta al rango [1, máximo configurado].
+	 *
+	 * @throws IllegalArgumentException Si el rango está invertido.
+	 */
+	@Override
+	public List<EstadisticaVentas> ranking(LocalDate desde, LocalDate hasta, int limite, boolean porUnidades)
+			throws IllegalArgumentException {
+		validarRango(desde, hasta);
+		int maximo = Math.max(1, Math.min(limite, maximoRanking));
+		return transaccionLectura.execute(status -> estadisticasRepository.ranking(desde, hasta, maximo, porUnidades));
+	}
+
+	/**
+	 * Corrige los agregados mes a mes sin vaciarlos: para cada mes calcula, en una transacción de
+	 * solo lectura, la diferencia entre los pedidos y los agregados guardados, leídos de la misma
+	 * instantánea, y la suma a los agregados en una transacción breve. No bloquea las altas ni
+	 * depende del orden de los identificadores: los pedidos que se confirman después de la
+	 * lectura ya sumaron su parte al darse de alta, y los anteriores están en la diferencia.
+	 * Mientras dura, las consultas devuelven los agregados existentes, corregidos hasta el último
+	 * mes procesado.
+	 *
+	 * <p>Se ejecuta también de forma programada si se configura
+	 * {@code pedido.estadisticas.reconstruccion.cron}.</p>
+	 *
+	 * @throws IllegalStateException Si ya hay una reconstrucción en curso.
+	 */
+	@Override
+	@Scheduled(cron = "${pedido.estadisticas.reconstruccion.cron:-}")
+	public long reconstruir() throws IllegalStateException {
+		if (!reconstruyendo.compareAndSet(false, true)) {
+			throw new IllegalStateException("Ya hay una reconstrucción de estadísticas en curso");
+		}
+		try {
+			LocalDate primerDia = transactionTemplate.execute(status -> estadisticasRepository.primerDia());
+			LocalDate ultimoDia = transactionTemplate.execute(status -> estadisticasRepository.ultimoDia());
+			long procesados = 0;
+			long corregidas = 0;
+			if (primerDia != null) {
+				for (LocalDate mes = primerDia.withDayOfMonth(1); !mes.isAfter(ultimoDia); mes = mes.plusMonths(1)) {
+					LocalDateTime desde = mes.atStartOfDay();
+					LocalDateTime hasta = mes.plusMonths(1).atStartOfDay();
+					Correccion correccion = transaccionLectura.execute(
+							status -> estadisticasRepository.calcularCorreccion(desde, hasta));
+					transactionTemplate.executeWithoutResult(status -> estadisticasRepository.aplicar(correccion));
+					procesados += correccion.getPedidos();
+					corregidas += correccion.getFilasCorregidas();
+				}
+			}
+			LOGGER.info("Estadísticas reconstruidas a partir de {} pedidos; {} agregados corregidos", procesados,
+					corregidas);
+			return procesados;
+		} finally {
+			reconstruyendo.set(false);
+		}
+	}
+
+	private static <T extends Temporal & Comparable<? super T>> void validarRango(T desde, T hasta) {
+		if (desde.compareTo(hasta) >= 0) {
+			throw new IllegalArgumentException("El inicio del rango debe ser anterior al fin");
+		}
+	}
+}
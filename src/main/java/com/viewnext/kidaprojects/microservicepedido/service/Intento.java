@@ -0,0 +1,28 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * El resultado de una llamada remota que puede haber fallado: contiene el valor obtenido o el
+ * error producido. Permite lanzar varias llamadas en paralelo sin que el error de una cancele
+ * las demás, y decidir después qué compensar.
+ *
+ * @param <T>   El tipo del valor obtenido.
+ * @param valor El valor obtenido, o {@code null} si la llamada falló.
+ * @param error El error producido, o {@code null} si la llamada tuvo éxito.
+ */
+record Intento<T>(T valor, Throwable error) {
+
+    /**
+     * Convierte el resultado de una operación en un {@code Intento} que nunca falla.
+     *
+     * @param <T>       El tipo del valor de la operación.
+     * @param operacion La operación a ejecutar.
+     * @return Un {@code Mono} con el intento, exitoso o fallido.
+     */
+    static <T> Mono<Intento<T>> de(Mono<T> operacion) {
+        return operacion
+                .map(valor -> new Intento<T>(valor, null))
+                .onErrorResume(error -> Mono.just(new Intento<T>(null, error)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * La interfaz {@code PedidoReactiveService} es la variante no bloqueante de {@code PedidoService}
+ * que se utiliza con el perfil {@code reactive}.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface PedidoReactiveService {
+
+    /**
+     * Crea y registra un nuevo pedido con el código y la cantidad especificados.
+     *
+     * @param codigo   El código del producto para el pedido.
+     * @param cantidad La cantidad de unidades que se desean pedir, que debe ser positiva.
+     * @return Un {@code Mono} con el pedido creado y registrado, o que termina con
+     *         {@link IllegalArgumentException} si la cantidad no es positiva.
+     */
+    public Mono<Pedido> darDeAltaPedido(int codigo, int cantidad);
+
+    /**
+     * Consulta todos los pedidos registrados.
+     *
+     * @return Un {@code Flux} con los pedidos, emitidos a medida que se leen.
+     */
+    public Flux<Pedido> showAll();
+}
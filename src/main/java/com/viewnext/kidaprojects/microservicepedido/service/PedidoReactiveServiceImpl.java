@@ -0,0 +1,87 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.viewnext.kidaprojects.microservicepedido.cache.PrecioCache;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.PedidoReactiveRepository;
+import com.viewnext.kidaprojects.microservicepedido.stock.ReservaStock;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code PedidoReactiveServiceImpl} implementa {@code PedidoReactiveService} sobre
+ * {@code ReservaStock}, {@code PrecioCache} y {@code PedidoReactiveRepository}, sin ninguna
+ * llamada bloqueante.
+ *
+ * <p>
+ * Sigue el mismo flujo que {@code PedidoServiceImpl}: la reserva de stock y la consulta del
+ * precio se lanzan en paralelo y, si la reserva se confirmó pero el precio o el guardado fallan,
+ * se devuelven las unidades al stock.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Service
+@Profile("reactive")
+public class PedidoReactiveServiceImpl implements PedidoReactiveService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PedidoReactiveServiceImpl.class);
+
+    private final PedidoReactiveRepository pedidoRepository;
+    private final ReservaStock reservaStock;
+    private final PrecioCache precioCache;
+
+    public PedidoReactiveServiceImpl(PedidoReactiveRepository pedidoRepository, ReservaStock reservaStock,
+            PrecioCache precioCache) {
+        this.pedidoRepository = pedidoRepository;
+        this.reservaStock = reservaStock;
+        this.precioCache = precioCache;
+    }
+
+    @Override
+    public Mono<Pedido> darDeAltaPedido(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return Mono.error(new IllegalArgumentException("La cantidad debe ser positiva"));
+        }
+        return Mono.zip(
+                Intento.de(reservaStock.reservar(codigo, cantidad).thenReturn(Boolean.TRUE)),
+                Intento.de(precioCache.obtener(codigo)))
+            .flatMap(resultados -> {
+                Intento<Boolean> reserva = resultados.getT1();
+                Intento<Long> precio = resultados.getT2();
+
+                if (reserva.error() != null) {
+                    return Mono.error(reserva.error());
+                }
+                if (precio.error() != null) {
+                    return compensarStock(codigo, cantidad).then(Mono.error(precio.error()));
+                }
+
+                Pedido pedido = new Pedido(codigo, cantidad, Importes.multiplicar(precio.valor(), cantidad), LocalDateTime.now());
+                return pedidoRepository.save(pedido)
+                        .onErrorResume(e -> compensarStock(codigo, cantidad).then(Mono.error(e)));
+            });
+    }
+
+    @Override
+    public Flux<Pedido> showAll() {
+        return pedidoRepository.findAll();
+    }
+
+    private Mono<Void> compensarStock(int codigo, int cantidad) {
+        return reservaStock.liberar(codigo, cantidad)
+                .onErrorResume(e -> {
+                    LOGGER.error("No se pudo devolver el stock reservado: codigo={}, cantidad={}", codigo, cantidad, e);
+                    return Mono.empty();
+                });
+    }
+}
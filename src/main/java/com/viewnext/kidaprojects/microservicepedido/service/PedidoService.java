@@ -1,8 +1,14 @@
 package com.viewnext.kidaprojects.microservicepedido.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.viewnext.kidaprojects.microservicepedido.model.LineaPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaBusquedaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
 import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea;
 
 import java.util.List;
 
@@ -28,16 +34,51 @@ public interface PedidoService {
      * Crea y registra un nuevo pedido con el código y la cantidad especificados.
      *
      * @param codigo   El código del producto para el pedido.
-     * @param cantidad La cantidad de unidades que se desean pedir.
+     * @param cantidad La cantidad de unidades que se desean pedir, que debe ser positiva.
      * @return El pedido creado y registrado.
+     * @throws IllegalArgumentException Si la cantidad no es positiva.
      */
     public Pedido darDeAltaPedido(int codigo, int cantidad);
 
     /**
-     * Consulta y devuelve una lista de todos los pedidos registrados.
+     * Crea y registra un pedido por cada línea recibida. Las líneas se resuelven de forma
+     * independiente, de modo que el fallo de una no impide registrar las demás.
      *
-     * @return Una lista de pedidos.
+     * @param lineas Las líneas del pedido en lote.
+     * @return El resultado de cada línea, en el mismo orden en que se recibieron.
+     * @throws IllegalArgumentException Si falta la lista o alguna línea no tiene código o tiene
+     *                                  una cantidad que no es positiva.
      */
-    public List<Pedido> showAll();
-}
+    public List<ResultadoLinea> darDeAltaPedidos(List<LineaPedido> lineas);
 
+    /**
+     * Consulta una página de pedidos ordenados por identificador a partir del cursor indicado.
+     *
+     * @param after El identificador del último pedido de la página anterior, o 0 para la primera.
+     * @param size  El número máximo de pedidos de la página.
+     * @return La página de pedidos junto con el cursor de la página siguiente.
+     */
+    public PaginaPedidos showPage(long after, int size);
+
+    /**
+     * Recorre todos los pedidos registrados entregándolos uno a uno al consumidor, sin cargar
+     * la lista completa en memoria.
+     *
+     * @param consumidor El consumidor que recibe cada pedido.
+     */
+    public void streamAll(Consumer<Pedido> consumidor);
+
+    /**
+     * Busca pedidos por código de producto y rango de fechas, ordenados por fecha.
+     *
+     * @param codigo      El código del producto, o {@code null} para no filtrar por producto.
+     * @param desde       El inicio del rango de fechas (incluido), o {@code null}.
+     * @param hasta       El fin del rango de fechas (excluido), o {@code null}.
+     * @param descendente {@code true} para devolver primero los pedidos más recientes.
+     * @param after       El cursor devuelto en la página anterior, o {@code null} para la primera.
+     * @param size        El número máximo de pedidos de la página.
+     * @return La página de pedidos junto con el cursor de la página siguiente.
+     */
+    public PaginaBusquedaPedidos buscar(Integer codigo, LocalDateTime desde, LocalDateTime hasta, boolean descendente,
+            String after, int size);
+}
@@ -3,20 +3,41 @@ package com.viewnext.kidaprojects.microservicepedido.service;
 
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.viewnext.kidaprojects.microservicepedido.cache.PrecioCache;
 import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
 import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.metrics.PedidoMetricas;
+import com.viewnext.kidaprojects.microservicepedido.model.FiltroPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.Importes;
+import com.viewnext.kidaprojects.microservicepedido.model.LineaPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaBusquedaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
 import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea.Estado;
+import com.viewnext.kidaprojects.microservicepedido.repository.EstadisticasRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
 import com.viewnext.kidaprojects.microservicepedido.repository.PedidoRepository;
+import com.viewnext.kidaprojects.microservicepedido.stock.ReservaStock;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 /**
  * La clase {@code PedidoServiceImpl} implementa la interfaz {@code PedidoService} y proporciona
@@ -33,122 +54,298 @@ public class PedidoServiceImpl implements PedidoService{
 	@Autowired
 	private PedidoRepository pedidoRepository;
 	
-	private WebClient pedidoWebClient;
+	private ReservaStock reservaStock;
+	
+	private PrecioCache precioCache;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private TransactionTemplate transaccionLectura;
+	
+	private PedidoMetricas metricas;
+	
+	private EstadisticasRepository estadisticasRepository;
+	
+	private OutboxRepository outboxRepository;
+	
+	@Value("${pedido.listado.tamano-maximo:1000}")
+	private int tamanoMaximoPagina;
+	
+	@Value("${pedido.lote.tamano-maximo:500}")
+	private int tamanoMaximoLote;
+	
+	@Value("${pedido.lote.concurrencia:16}")
+	private int concurrenciaLote;
+	
+	private static final String SEPARADOR_CURSOR = "_";
 	
-	public PedidoServiceImpl(WebClient pedidoWebClient) {
-		this.pedidoWebClient = pedidoWebClient;
+	private static final Logger LOGGER = LoggerFactory.getLogger(PedidoServiceImpl.class);
+	
+	public PedidoServiceImpl(ReservaStock reservaStock, PrecioCache precioCache, TransactionTemplate transactionTemplate,
+			PedidoMetricas metricas, EstadisticasRepository estadisticasRepository, OutboxRepository outboxRepository) {
+		this.reservaStock = reservaStock;
+		this.precioCache = precioCache;
+		this.transactionTemplate = transactionTemplate;
+		// Las consultas se hacen en transacciones de solo lectura, que pueden servir las réplicas.
+		this.transaccionLectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		this.transaccionLectura.setReadOnly(true);
+		this.metricas = metricas;
+		this.estadisticasRepository = estadisticasRepository;
+		this.outboxRepository = outboxRepository;
 	}
 	
 	
 
 	/**
-	 * Recupera una lista de todos los pedidos disponibles en la base de datos.
+	 * Recupera una página de pedidos cuyo identificador es mayor que {@code after}. El tamaño
+	 * solicitado se ajusta al rango [1, tamaño máximo configurado].
 	 *
-	 * @return Una lista de objetos {@code Pedido} que representan los pedidos.
-	 * @throws EntityNotFoundException Si no se encuentra ningún pedido en la base de datos.
+	 * @param after El cursor de la página anterior, o 0 para solicitar la primera página.
+	 * @param size  El número de pedidos solicitados.
+	 * @return La página de pedidos con el cursor de la siguiente, o {@code null} si es la última.
+	 * @throws EntityNotFoundException Si se solicita la primera página y no hay ningún pedido.
 	 */
 	@Override
-	public List<Pedido> showAll() throws EntityNotFoundException{
-		List<Pedido> listaPedidos = pedidoRepository.findAll();
+	public PaginaPedidos showPage(long after, int size) throws EntityNotFoundException {
+		int tamano = Math.max(1, Math.min(size, tamanoMaximoPagina));
+		List<Pedido> pedidos = transaccionLectura.execute(status -> pedidoRepository.listarDesde(after, tamano));
 		
-		if(listaPedidos.isEmpty()) {
+		if (pedidos.isEmpty() && after <= 0) {
 			throw new EntityNotFoundException();
 		}
 		
-		return listaPedidos;
+		Long siguiente = pedidos.size() < tamano ? null : pedidos.get(pedidos.size() - 1).getId();
+		return new PaginaPedidos(pedidos.stream().map(PedidoDTO::de).toList(), siguiente);
 	}
 	
 	/**
-	 * Actualiza el stock de un producto en el sistema mediante una solicitud HTTP PUT a un servicio externo.
+	 * Recorre todos los pedidos de la base de datos mediante un cursor con tamaño de lectura acotado.
 	 *
-	 * @param codigo    El código del producto que se va a actualizar.
-	 * @param cantidad  La cantidad de stock que se va a agregar o restar al producto.
-	 * @throws StockInsuficienteException Si la actualización del stock resulta en una cantidad insuficiente.
-	 * @throws EntityNotFoundException   Si no se encuentra el producto en el sistema.
-	 * @throws UnknownErrorException     Si ocurre un error desconocido durante la actualización del stock.
+	 * @param consumidor El consumidor que recibe cada pedido.
 	 */
-	private void updateStock(int codigo, int cantidad) throws StockInsuficienteException, EntityNotFoundException, UnknownErrorException {
-	    try {
-	        // Realizar la solicitud HTTP
-	        pedidoWebClient.put()
-	            .uri(uriBuilder -> uriBuilder
-	                .path("/producto")
-	                .queryParam("codigo", codigo)
-	                .queryParam("cantidad", cantidad)
-	                .build())
-	            .retrieve()
-	            .toBodilessEntity()
-	            .block();
-
-	        // No es necesario verificar el código de estado aquí
-
-	    } catch (WebClientResponseException e) {
-	        // Manejar excepciones de WebClientResponseException
-	        if (e.getStatusCode() == HttpStatus.CONFLICT) {
-	            throw new StockInsuficienteException();
-	        } else if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-	            throw new EntityNotFoundException();
-	        } else {
-	            // Manejar otros códigos de estado o excepciones si es necesario
-	            throw new UnknownErrorException();
-	        }
-	    }
+	@Override
+	public void streamAll(Consumer<Pedido> consumidor) {
+		pedidoRepository.recorrerTodos(consumidor);
 	}
-
+	
 	/**
-	 * Obtiene el precio de un producto a través de una solicitud HTTP GET a un servicio externo.
+	 * Busca pedidos por código de producto y rango de fechas mediante paginación por cursor sobre
+	 * {@code (fecha, id)}. El cursor tiene la forma {@code <fecha ISO>_<id>} y el tamaño
+	 * solicitado se ajusta al rango [1, tamaño máximo configurado].
 	 *
-	 * @param codigo El código del producto del cual se desea obtener el precio.
-	 * @return El precio del producto.
-	 * @throws EntityNotFoundException Si el producto no se encuentra en el sistema.
-	 * @throws UnknownErrorException  Si ocurre un error desconocido al obtener el precio.
+	 * @throws IllegalArgumentException Si el rango de fechas está invertido o el cursor no es válido.
 	 */
-	private double obtenerPrecio(int codigo) throws EntityNotFoundException, UnknownErrorException {
-	    try {
-	        ResponseEntity<Double> respuestaPrecio = pedidoWebClient.get()
-	                .uri("/producto/precio/{codigo}", codigo)
-	                .retrieve()
-	                .toEntity(Double.class)
-	                .block();
-
-	        return respuestaPrecio.getBody();
-
-	    } catch (WebClientResponseException e) {
-	        if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-	            throw new EntityNotFoundException();
-	        }
-	        throw new UnknownErrorException();
-	    }
+	@Override
+	public PaginaBusquedaPedidos buscar(Integer codigo, LocalDateTime desde, LocalDateTime hasta, boolean descendente,
+			String after, int size) throws IllegalArgumentException {
+		if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+			throw new IllegalArgumentException("El inicio del rango de fechas debe ser anterior al fin");
+		}
+		
+		int tamano = Math.max(1, Math.min(size, tamanoMaximoPagina));
+		FiltroPedidos filtro = new FiltroPedidos(codigo, desde, hasta, descendente, null, null, tamano);
+		if (after != null && !after.isEmpty()) {
+			int separador = after.lastIndexOf(SEPARADOR_CURSOR);
+			try {
+				filtro.setDespuesDeFecha(LocalDateTime.parse(after.substring(0, separador)));
+				filtro.setDespuesDeId(Long.valueOf(after.substring(separador + 1)));
+			} catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+				throw new IllegalArgumentException("Cursor no válido: " + after, e);
+			}
+		}
+		
+		List<Pedido> pedidos = transaccionLectura.execute(status -> pedidoRepository.buscar(filtro));
+		
+		String siguiente = null;
+		if (pedidos.size() == tamano) {
+			Pedido ultimo = pedidos.get(pedidos.size() - 1);
+			siguiente = ultimo.getFecha() + SEPARADOR_CURSOR + ultimo.getId();
+		}
+		return new PaginaBusquedaPedidos(pedidos.stream().map(PedidoDTO::de).toList(), siguiente);
 	}
-
+	
 	/**
 	 * Crea un nuevo pedido con el código y cantidad especificados, actualiza el stock del producto
 	 * y almacena el pedido en la base de datos.
 	 *
+	 * <p>La reserva de stock y la consulta del precio se lanzan en paralelo contra el servicio de
+	 * productos y solo se espera una vez a que ambas terminen. La transacción de base de datos se
+	 * abre después, únicamente para guardar el pedido, sumarlo a las estadísticas de ventas y registrar su
+	 * evento en la tabla {@code outbox}, de modo que la latencia remota no retiene
+	 * conexiones del pool. Si la reserva se confirmó pero la consulta del precio o el guardado
+	 * fallan, las unidades se devuelven al stock antes de propagar el error.</p>
+	 *
 	 * @param codigo   El código del producto para el pedido.
 	 * @param cantidad La cantidad de unidades del producto para el pedido.
 	 * @return El pedido creado y almacenado en la base de datos.
 	 * @throws StockInsuficienteException Si no hay suficiente stock para el producto.
 	 * @throws EntityNotFoundException   Si el producto o el precio no se encuentran en el sistema.
 	 * @throws UnknownErrorException     Si ocurre un error desconocido al crear el pedido.
+	 * @throws IllegalArgumentException  Si la cantidad no es positiva.
 	 */
-	@Transactional
 	@Override
-	public Pedido darDeAltaPedido(int codigo, int cantidad) throws StockInsuficienteException, EntityNotFoundException, UnknownErrorException{
-	    updateStock(codigo, cantidad);
-	    double precio = obtenerPrecio(codigo);
+	public Pedido darDeAltaPedido(int codigo, int cantidad) throws StockInsuficienteException, EntityNotFoundException, UnknownErrorException, IllegalArgumentException {
+	    validarCantidad(cantidad);
+	    return metricas.cronometrar(PedidoMetricas.ETAPA_TOTAL, () -> registrarPedido(codigo, cantidad));
+	}
+
+	private Pedido registrarPedido(int codigo, int cantidad) {
+	    Tuple2<Intento<Boolean>, Intento<Long>> resultados = Mono.zip(
+	            Intento.de(metricas.cronometrar(PedidoMetricas.ETAPA_RESERVA_STOCK,
+	                    reservaStock.reservar(codigo, cantidad).thenReturn(Boolean.TRUE))),
+	            Intento.de(metricas.cronometrar(PedidoMetricas.ETAPA_PRECIO, precioCache.obtener(codigo))))
+	        .block();
+	    
+	    Intento<Boolean> reserva = resultados.getT1();
+	    Intento<Long> precio = resultados.getT2();
+	    
+	    if (reserva.error() != null) {
+	        throw Exceptions.propagate(reserva.error());
+	    }
+	    if (precio.error() != null) {
+	        compensarStock(codigo, cantidad);
+	        throw Exceptions.propagate(precio.error());
+	    }
 	    
 	    Pedido pedido = new Pedido();
 	    pedido.setCodigo(codigo);
 	    pedido.setUnidades(cantidad);
-	    pedido.setTotal(cantidad * precio);
+	    pedido.setTotalCentimos(Importes.multiplicar(precio.valor(), cantidad));
 	    pedido.setFecha(LocalDateTime.now());
 	    
-	    return pedidoRepository.save(pedido);
+	    try {
+	        return metricas.cronometrar(PedidoMetricas.ETAPA_GUARDADO,
+	                () -> transactionTemplate.execute(status -> {
+	                    Pedido guardado = pedidoRepository.save(pedido);
+	                    estadisticasRepository.acumular(List.of(guardado));
+	                    outboxRepository.registrarCreados(List.of(guardado));
+	                    return guardado;
+	                }));
+	    } catch (RuntimeException e) {
+	        compensarStock(codigo, cantidad);
+	        throw e;
+	    }
 	}
 
-	
-	
-	
+	/**
+	 * Crea un pedido por cada línea recibida en tres fases: consulta el precio de cada código
+	 * distinto una sola vez, reserva el stock de cada línea con producto conocido y, por último,
+	 * inserta todos los pedidos reservados con una inserción JDBC por lotes en una única
+	 * transacción, en la que también se acumulan a las estadísticas de ventas y se registran sus
+	 * eventos en la tabla {@code outbox}. Las llamadas remotas de cada fase se realizan en paralelo con una concurrencia
+	 * acotada.
+	 *
+	 * <p>Si la inserción falla, se devuelve el stock de todas las líneas reservadas y se marcan
+	 * como {@code ERROR}.</p>
+	 *
+	 * @param lineas Las líneas del pedido en lote.
+	 * @return El resultado de cada línea, en el mismo orden en que se recibieron.
+	 * @throws IllegalArgumentException Si falta la lista, supera el tamaño máximo configurado o
+	 *                                  alguna línea no tiene código o tiene una cantidad que no
+	 *                                  es positiva. En ese caso no se registra ninguna.
+	 */
+	@Override
+	public List<ResultadoLinea> darDeAltaPedidos(List<LineaPedido> lineas) throws IllegalArgumentException {
+	    if (lineas == null) {
+	        throw new IllegalArgumentException("Falta la lista de líneas del pedido");
+	    }
+	    if (lineas.size() > tamanoMaximoLote) {
+	        throw new IllegalArgumentException("El lote supera el máximo de " + tamanoMaximoLote + " líneas");
+	    }
+	    for (int i = 0; i < lineas.size(); i++) {
+	        LineaPedido linea = lineas.get(i);
+	        if (linea == null || linea.getCodigo() == null) {
+	            throw new IllegalArgumentException("Falta el código de producto en la línea " + (i + 1));
+	        }
+	        if (linea.getCantidad() == null || linea.getCantidad() <= 0) {
+	            throw new IllegalArgumentException("La cantidad de la línea " + (i + 1) + " debe ser positiva");
+	        }
+	    }
+	    
+	    Map<Integer, Intento<Long>> precios = Flux.fromStream(lineas.stream().map(LineaPedido::getCodigo).distinct())
+	            .flatMap(codigo -> Intento.de(precioCache.obtener(codigo))
+	                    .map(intento -> Map.entry(codigo, intento)), concurrenciaLote)
+	            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+	            .block();
+	    
+	    List<Intento<Boolean>> reservas = Flux.fromIterable(lineas)
+	            .flatMapSequential(linea -> precios.get(linea.getCodigo()).error() != null
+	                    ? Mono.just(new Intento<Boolean>(null, precios.get(linea.getCodigo()).error()))
+	                    : Intento.de(reservaStock.reservar(linea.getCodigo(), linea.getCantidad())
+	                            .thenReturn(Boolean.TRUE)), concurrenciaLote)
+	            .collectList()
+	            .block();
+	    
+	    List<ResultadoLinea> resultados = new ArrayList<>(lineas.size());
+	    List<Pedido> pedidos = new ArrayList<>();
+	    List<ResultadoLinea> creados = new ArrayList<>();
+	    LocalDateTime fecha = LocalDateTime.now();
+	    for (int i = 0; i < lineas.size(); i++) {
+	        LineaPedido linea = lineas.get(i);
+	        Throwable error = reservas.get(i).error();
+	        if (error != null) {
+	            resultados.add(new ResultadoLinea(linea.getCodigo(), linea.getCantidad(), estadoDeError(error), null));
+	            continue;
+	        }
+	        Pedido pedido = new Pedido(linea.getCodigo(), linea.getCantidad(),
+	                Importes.multiplicar(precios.get(linea.getCodigo()).valor(), linea.getCantidad()), fecha);
+	        ResultadoLinea creado = new ResultadoLinea(linea.getCodigo(), linea.getCantidad(), Estado.CREADO, null);
+	        pedidos.add(pedido);
+	        creados.add(creado);
+	        resultados.add(creado);
+	    }
+	    
+	    try {
+	        transactionTemplate.executeWithoutResult(status -> {
+	            pedidoRepository.insertarEnLote(pedidos);
+	            estadisticasRepository.acumular(pedidos);
+	            outboxRepository.registrarCreados(pedidos);
+	        });
+	        // Los identificadores se asignan en la inserción.
+	        for (int i = 0; i < pedidos.size(); i++) {
+	            creados.get(i).setPedido(PedidoDTO.de(pedidos.get(i)));
+	        }
+	    } catch (RuntimeException e) {
+	        LOGGER.error("No se pudo guardar el lote de {} pedidos", pedidos.size(), e);
+	        for (ResultadoLinea resultado : resultados) {
+	            if (resultado.getEstado() == Estado.CREADO) {
+	                compensarStock(resultado.getCodigo(), resultado.getCantidad());
+	                resultado.setEstado(Estado.ERROR);
+	            }
+	        }
+	    }
+	    
+	    return resultados;
+	}
+
+	private static void validarCantidad(int cantidad) {
+	    if (cantidad <= 0) {
+	        throw new IllegalArgumentException("La cantidad debe ser positiva");
+	    }
+	}
+
+	private static Estado estadoDeError(Throwable error) {
+	    if (error instanceof StockInsuficienteException) {
+	        return Estado.STOCK_INSUFICIENTE;
+	    } else if (error instanceof EntityNotFoundException) {
+	        return Estado.PRODUCTO_NO_ENCONTRADO;
+	    }
+	    return Estado.ERROR;
+	}
+
+	/**
+	 * Devuelve al servicio de productos las unidades reservadas para un pedido que no ha podido
+	 * completarse. Un fallo en la compensación se registra pero no oculta el error original.
+	 *
+	 * @param codigo   El código del producto.
+	 * @param cantidad La cantidad de unidades reservadas.
+	 */
+	private void compensarStock(int codigo, int cantidad) {
+	    try {
+	        reservaStock.liberar(codigo, cantidad).block();
+	    } catch (RuntimeException e) {
+	        LOGGER.error("No se pudo devolver el stock reservado: codigo={}, cantidad={}", codigo, cantidad, e);
+	    }
+	}
 
 }
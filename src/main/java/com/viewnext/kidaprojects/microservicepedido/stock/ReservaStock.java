@@ -0,0 +1,53 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * La interfaz {@code ReservaStock} define cómo se reservan y se devuelven las unidades de stock
+ * de los pedidos.
+ *
+ * <p>
+ * La implementación se elige con {@code pedido.stock.modo}: {@code directo} (por defecto), que
+ * reserva cada pedido con una llamada al MicroservicioProducto, {@code ledger}, que reserva
+ * bloques de stock por producto y atiende los pedidos localmente, o {@code agrupado}, que junta
+ * en una sola llamada los pedidos concurrentes de un mismo producto.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+public interface ReservaStock {
+
+    /**
+     * Reserva unidades de un producto.
+     *
+     * @param codigo   El código del producto.
+     * @param cantidad La cantidad de unidades, que debe ser positiva.
+     * @return Un {@code Mono} que se completa cuando la reserva está confirmada, o falla con
+     *         {@code StockInsuficienteException}, {@code EntityNotFoundException},
+     *         {@code UnknownErrorException} o, si la cantidad no es positiva,
+     *         {@code IllegalArgumentException}.
+     */
+    Mono<Void> reservar(int codigo, int cantidad);
+
+    /**
+     * Devuelve unidades reservadas de un pedido que no se ha completado.
+     *
+     * @param codigo   El código del producto.
+     * @param cantidad La cantidad de unidades, que debe ser positiva.
+     * @return Un {@code Mono} que se completa cuando las unidades se han devuelto, o falla con
+     *         {@code IllegalArgumentException} si la cantidad no es positiva.
+     */
+    Mono<Void> liberar(int codigo, int cantidad);
+
+    /**
+     * El error de una reserva o devolución con una cantidad que no es positiva, que de otro modo
+     * haría lo contrario: una reserva negativa sumaría unidades al stock.
+     *
+     * @param cantidad La cantidad recibida.
+     * @return Un {@code Mono} que falla con {@code IllegalArgumentException}.
+     */
+    static Mono<Void> cantidadNoValida(int cantidad) {
+        return Mono.error(new IllegalArgumentException("La cantidad debe ser positiva: " + cantidad));
+    }
+}
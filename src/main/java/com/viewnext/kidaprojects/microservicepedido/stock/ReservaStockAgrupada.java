@@ -0,0 +1,276 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * La clase {@code ReservaStockAgrupada} junta las reservas concurrentes de un mismo producto y
+ * las envía al MicroservicioProducto como un único descuento, de modo que en las promociones,
+ * con miles de pedidos del mismo código, el servicio remoto recibe una llamada por lote en lugar
+ * de una por pedido.
+ *
+ * <p>
+ * La primera reserva de un producto abre un lote, que se envía al pasar
+ * {@code pedido.stock.agrupado.ventana} o al llegar a {@code pedido.stock.agrupado.tamano-maximo}
+ * pedidos, lo que ocurra antes. Cada reserva espera como máximo la ventana antes de salir hacia
+ * el servicio remoto. Si el descuento conjunto se confirma, se confirman todos los pedidos del
+ * lote; cualquier error distinto de la falta de stock se traslada a todos ellos.
+ * </p>
+ *
+ * <p>
+ * Si no hay stock para el lote completo, el servicio remoto no indica cuánto queda, así que el
+ * lote se reparte por mitades en orden de llegada: se pide la primera mitad y después la
+ * segunda, dividiendo de nuevo cada una que no quepa hasta llegar a pedidos sueltos, que fallan
+ * con {@code StockInsuficienteException} como en el modo directo. Los grupos que ya se sabe que
+ * no caben, por ser mayores que otro que acaba de fallar, se dividen sin llamar al servicio. Así
+ * los primeros pedidos tienen preferencia, un pedido grande que no cabe no impide servir a los
+ * pequeños que llegaron detrás, y nunca se reservan más unidades de las que hay.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.stock.modo", havingValue = "agrupado")
+public class ReservaStockAgrupada implements ReservaStock, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservaStockAgrupada.class);
+
+    private final ProductoClient productoClient;
+    private final Map<Integer, Lote> abiertos = new ConcurrentHashMap<>();
+    private final Duration ventana;
+    private final int tamanoMaximo;
+    private final Counter lotes;
+    private final DistributionSummary pedidosPorLote;
+
+    public ReservaStockAgrupada(ProductoClient productoClient, MeterRegistry meterRegistry,
+            @Value("${pedido.stock.agrupado.ventana:5ms}") Duration ventana,
+            @Value("${pedido.stock.agrupado.tamano-maximo:100}") int tamanoMaximo) {
+        this.productoClient = productoClient;
+        this.ventana = ventana;
+        this.tamanoMaximo = tamanoMaximo;
+        this.lotes = meterRegistry.counter("pedido.stock.agrupado.lotes");
+        this.pedidosPorLote = DistributionSummary.builder("pedido.stock.agrupado.pedidos-por-lote")
+                .description("Pedidos reservados con cada llamada al servicio de productos")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> reservar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return Mono.defer(() -> {
+            Solicitud solicitud = new Solicitud(codigo, cantidad);
+            encolar(solicitud);
+            return solicitud.resultado.asMono().doOnCancel(solicitud::cancelar);
+        });
+    }
+
+    @Override
+    public Mono<Void> liberar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return productoClient.liberarStock(codigo, cantidad);
+    }
+
+    /**
+     * Envía los lotes abiertos sin esperar a que termine su ventana.
+     */
+    @Override
+    public void destroy() {
+        abiertos.values().forEach(this::despachar);
+    }
+
+    private void encolar(Solicitud solicitud) {
+        while (true) {
+            Lote lote = abiertos.computeIfAbsent(solicitud.codigo, Lote::new);
+            int encoladas = lote.anadir(solicitud);
+            if (encoladas < 0) {
+                // El lote se acaba de cerrar; la siguiente vuelta abre uno nuevo.
+                continue;
+            }
+            if (encoladas >= tamanoMaximo || ventana.isZero()) {
+                despachar(lote);
+            } else if (encoladas == 1) {
+                Mono.delay(ventana).subscribe(tick -> despachar(lote));
+            }
+            return;
+        }
+    }
+
+    private void despachar(Lote lote) {
+        List<Solicitud> solicitudes = lote.cerrar();
+        if (solicitudes == null) {
+            return;
+        }
+        solicitudes.removeIf(Solicitud::cancelada);
+        if (solicitudes.isEmpty()) {
+            return;
+        }
+        lotes.increment();
+        pedidosPorLote.record(solicitudes.size());
+        // Ninguna llamada admite más de Integer.MAX_VALUE unidades.
+        repartir(lote.codigo, solicitudes, new AtomicLong(Integer.MAX_VALUE + 1L)).subscribe();
+    }
+
+    /**
+     * Reserva las unidades de las solicitudes con una sola llamada y, si no hay stock para
+     * todas, reparte por mitades en orden de llegada. El {@code Mono} resultante no falla: cada
+     * solicitud recibe su propio resultado.
+     *
+     * @param cota Un límite (exclusivo) de las unidades que pueden quedar, que se ajusta con cada
+     *             llamada. Evita pedir grupos que ya se sabe que no caben, de modo que un lote
+     *             sin stock cuesta unas pocas llamadas y no una por pedido.
+     */
+    private Mono<Void> repartir(int codigo, List<Solicitud> solicitudes, AtomicLong cota) {
+        return Mono.defer(() -> {
+            long total = solicitudes.stream().mapToLong(solicitud -> solicitud.cantidad).sum();
+            if (total >= cota.get()) {
+                return dividir(codigo, solicitudes, cota, new StockInsuficienteException());
+            }
+            return productoClient.actualizarStock(codigo, (int) total)
+                    .doOnSuccess(vacio -> {
+                        cota.addAndGet(-total);
+                        solicitudes.forEach(this::confirmar);
+                    })
+                    .onErrorResume(StockInsuficienteException.class, e -> {
+                        cota.set(total);
+                        return dividir(codigo, solicitudes, cota, e);
+                    })
+                    .onErrorResume(e -> {
+                        solicitudes.forEach(solicitud -> solicitud.rechazar(e));
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private Mono<Void> dividir(int codigo, List<Solicitud> solicitudes, AtomicLong cota, StockInsuficienteException e) {
+        if (solicitudes.size() == 1) {
+            solicitudes.get(0).rechazar(e);
+            return Mono.empty();
+        }
+        int mitad = solicitudes.size() / 2;
+        return repartir(codigo, solicitudes.subList(0, mitad), cota)
+                .then(repartir(codigo, solicitudes.subList(mitad, solicitudes.size()), cota));
+    }
+
+    /**
+     * Confirma la reserva de una solicitud o, si el pedido ya no la espera, devuelve sus
+     * unidades.
+     */
+    private void confirmar(Solicitud solicitud) {
+        if (solicitud.resolver()) {
+            solicitud.resultado.tryEmitEmpty();
+            return;
+        }
+        productoClient.liberarStock(solicitud.codigo, solicitud.cantidad).subscribe(null,
+                e -> LOGGER.warn("No se pudo devolver el stock de una reserva cancelada: codigo={}, cantidad={}",
+                        solicitud.codigo, solicitud.cantidad, e));
+    }
+
+    private final class Lote {
+
+        private final int codigo;
+        private final List<Solicitud> solicitudes = new ArrayList<>();
+        // Un cerrojo y no synchronized, para no fijar los hilos virtuales de las solicitudes.
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private boolean cerrado;
+
+        private Lote(int codigo) {
+            this.codigo = codigo;
+        }
+
+        /**
+         * @return El número de solicitudes del lote tras añadir esta, o {@code -1} si el lote ya
+         *         está cerrado.
+         */
+        private int anadir(Solicitud solicitud) {
+            cerrojo.lock();
+            try {
+                if (cerrado) {
+                    return -1;
+                }
+                solicitudes.add(solicitud);
+                return solicitudes.size();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        /**
+         * @return Las solicitudes del lote, o {@code null} si ya se había cerrado.
+         */
+        private List<Solicitud> cerrar() {
+            cerrojo.lock();
+            try {
+                if (cerrado) {
+                    return null;
+                }
+                cerrado = true;
+                abiertos.remove(codigo, this);
+                return solicitudes;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    private static final class Solicitud {
+
+        private static final int PENDIENTE = 0;
+        private static final int RESUELTA = 1;
+        private static final int CANCELADA = 2;
+
+        private final int codigo;
+        private final int cantidad;
+        private final Sinks.One<Void> resultado = Sinks.one();
+        private final AtomicInteger estado = new AtomicInteger(PENDIENTE);
+
+        private Solicitud(int codigo, int cantidad) {
+            this.codigo = codigo;
+            this.cantidad = cantidad;
+        }
+
+        private boolean resolver() {
+            return estado.compareAndSet(PENDIENTE, RESUELTA);
+        }
+
+        private void cancelar() {
+            estado.compareAndSet(PENDIENTE, CANCELADA);
+        }
+
+        private boolean cancelada() {
+            return estado.get() == CANCELADA;
+        }
+
+        private void rechazar(Throwable error) {
+            if (resolver()) {
+                resultado.tryEmitError(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code ReservaStockDirecta} reserva y devuelve el stock de cada pedido con una llamada
+ * al MicroservicioProducto.
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.stock.modo", havingValue = "directo", matchIfMissing = true)
+public class ReservaStockDirecta implements ReservaStock {
+
+    private final ProductoClient productoClient;
+
+    public ReservaStockDirecta(ProductoClient productoClient) {
+        this.productoClient = productoClient;
+    }
+
+    @Override
+    public Mono<Void> reservar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return productoClient.actualizarStock(codigo, cantidad);
+    }
+
+    @Override
+    public Mono<Void> liberar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return productoClient.liberarStock(codigo, cantidad);
+    }
+}
@@ -0,0 +1,197 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * La clase {@code ReservaStockLedger} reserva stock al MicroservicioProducto por bloques y
+ * atiende los pedidos descontando localmente de esos bloques, de modo que la mayoría de los
+ * pedidos no hace ninguna llamada remota.
+ *
+ * <p>
+ * Cada producto tiene un contador de unidades disponibles que se descuenta con operaciones
+ * compare-and-set, sin bloqueos. Cuando no alcanza, se arrienda un nuevo bloque de
+ * {@code pedido.stock.ledger.tamano-bloque} unidades (o de la cantidad del pedido, si es mayor);
+ * los pedidos concurrentes del mismo producto comparten una única recarga en curso. Si el
+ * servicio remoto no tiene stock para el bloque completo, se pide solo la cantidad del pedido, y
+ * si tampoco la tiene el pedido falla con {@code StockInsuficienteException}.
+ * </p>
+ *
+ * <p>
+ * Las unidades devueltas por pedidos que no se completan vuelven al contador local. Las unidades
+ * sin usar se devuelven al servicio remoto cuando pasa {@code pedido.stock.ledger.ttl} desde la
+ * última recarga del producto, y todas al detener la aplicación. Mientras tanto, el stock
+ * arrendado no está disponible para otras instancias.
+ * </p>
+ *
+ * @version 1.0
+ * @since 18 de Octubre de 2026
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.stock.modo", havingValue = "ledger")
+public class ReservaStockLedger implements ReservaStock, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservaStockLedger.class);
+
+    /** Recargas sucesivas que puede intentar un pedido antes de darse por rechazado. */
+    private static final int MAXIMO_RECARGAS = 3;
+
+    private final ProductoClient productoClient;
+    private final Map<Integer, Asignacion> asignaciones = new ConcurrentHashMap<>();
+    private final int tamanoBloque;
+    private final long ttlNanos;
+    private final Duration esperaDevolucion;
+    private final Counter recargas;
+    private final Counter devoluciones;
+
+    public ReservaStockLedger(ProductoClient productoClient, MeterRegistry meterRegistry,
+            @Value("${pedido.stock.ledger.tamano-bloque:50}") int tamanoBloque,
+            @Value("${pedido.stock.ledger.ttl:30s}") Duration ttl,
+            @Value("${pedido.stock.ledger.espera-devolucion:10s}") Duration esperaDevolucion) {
+        this.productoClient = productoClient;
+        this.tamanoBloque = tamanoBloque;
+        this.ttlNanos = ttl.toNanos();
+        this.esperaDevolucion = esperaDevolucion;
+        this.recargas = meterRegistry.counter("pedido.stock.ledger.recargas");
+        this.devoluciones = meterRegistry.counter("pedido.stock.ledger.devoluciones");
+    }
+
+    @Override
+    public Mono<Void> reservar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return reservar(asignaciones.computeIfAbsent(codigo, Asignacion::new), cantidad, 0);
+    }
+
+    @Override
+    public Mono<Void> liberar(int codigo, int cantidad) {
+        if (cantidad <= 0) {
+            return ReservaStock.cantidadNoValida(cantidad);
+        }
+        return Mono.fromRunnable(() -> asignaciones.computeIfAbsent(codigo, Asignacion::new).disponibles.addAndGet(cantidad));
+    }
+
+    /**
+     * Devuelve al servicio remoto las unidades sin usar de los productos cuya última recarga es
+     * anterior al tiempo de vida configurado.
+     */
+    @Scheduled(fixedDelayString = "${pedido.stock.ledger.revision:PT5S}")
+    public void devolverCaducadas() {
+        long ahora = System.nanoTime();
+        asignaciones.values().stream()
+                .filter(asignacion -> ahora - asignacion.ultimaRecarga > ttlNanos)
+                .forEach(this::devolver);
+    }
+
+    /**
+     * Devuelve al servicio remoto todas las unidades sin usar.
+     */
+    @Override
+    public void destroy() {
+        asignaciones.values().forEach(this::devolver);
+    }
+
+    /**
+     * Unidades arrendadas y aún sin usar de un producto.
+     *
+     * @param codigo El código del producto.
+     * @return Las unidades disponibles localmente.
+     */
+    public long disponibles(int codigo) {
+        Asignacion asignacion = asignaciones.get(codigo);
+        return asignacion != null ? asignacion.disponibles.get() : 0;
+    }
+
+    private Mono<Void> reservar(Asignacion asignacion, int cantidad, int recargasPrevias) {
+        return Mono.defer(() -> {
+            if (asignacion.tomar(cantidad)) {
+                return Mono.empty();
+            }
+            if (recargasPrevias == MAXIMO_RECARGAS) {
+                return Mono.error(new StockInsuficienteException());
+            }
+            return recargar(asignacion, cantidad).then(reservar(asignacion, cantidad, recargasPrevias + 1));
+        });
+    }
+
+    /**
+     * Arrienda un bloque para el producto. Si ya hay una recarga en curso, se espera a ella en
+     * lugar de lanzar otra.
+     */
+    private Mono<Void> recargar(Asignacion asignacion, int cantidad) {
+        Mono<Void> enCurso = asignacion.recarga.get();
+        if (enCurso != null) {
+            return enCurso;
+        }
+        int bloque = Math.max(tamanoBloque, cantidad);
+        Mono<Void> nueva = productoClient.actualizarStock(asignacion.codigo, bloque).thenReturn(bloque)
+                .onErrorResume(StockInsuficienteException.class, e -> bloque > cantidad
+                        ? productoClient.actualizarStock(asignacion.codigo, cantidad).thenReturn(cantidad)
+                        : Mono.error(e))
+                .doOnNext(arrendadas -> {
+                    asignacion.ultimaRecarga = System.nanoTime();
+                    asignacion.disponibles.addAndGet(arrendadas);
+                    recargas.increment();
+                })
+                .doFinally(senal -> asignacion.recarga.set(null))
+                .then()
+                .cache();
+        return asignacion.recarga.compareAndSet(null, nueva) ? nueva : recargar(asignacion, cantidad);
+    }
+
+    private void devolver(Asignacion asignacion) {
+        long unidades = asignacion.disponibles.getAndSet(0);
+        if (unidades == 0) {
+            return;
+        }
+        try {
+            productoClient.liberarStock(asignacion.codigo, (int) unidades).block(esperaDevolucion);
+            devoluciones.increment();
+        } catch (RuntimeException e) {
+            LOGGER.warn("No se pudo devolver el stock arrendado: codigo={}, cantidad={}", asignacion.codigo, unidades, e);
+            asignacion.disponibles.addAndGet(unidades);
+        }
+    }
+
+    private static final class Asignacion {
+
+        private final int codigo;
+        private final AtomicLong disponibles = new AtomicLong();
+        private final AtomicReference<Mono<Void>> recarga = new AtomicReference<>();
+        private volatile long ultimaRecarga = System.nanoTime();
+
+        private Asignacion(int codigo) {
+            this.codigo = codigo;
+        }
+
+        private boolean tomar(int cantidad) {
+            long actuales;
+            do {
+                actuales = disponibles.get();
+                if (actuales < cantidad) {
+                    return false;
+                }
+            } while (!disponibles.compareAndSet(actuales, actuales - cantidad));
+            return true;
+        }
+    }
+}
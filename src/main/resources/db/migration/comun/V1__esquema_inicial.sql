@@ -0,0 +1,9 @@
+-- Esquema de partida, equivalente a scriptSQL.sql. En las bases de datos existentes se marca
+-- como aplicada mediante spring.flyway.baseline-on-migrate.
+CREATE TABLE IF NOT EXISTS pedidos (
+    id INT PRIMARY KEY NOT NULL AUTO_INCREMENT,
+    codigo INT,
+    unidades INT,
+    total DOUBLE,
+    fecha TIMESTAMP
+);
@@ -0,0 +1,23 @@
+-- Agregados de ventas por producto y hora y por producto y día. Se actualizan en la misma
+-- transacción que guarda cada pedido y se pueden reconstruir desde la tabla pedidos
+-- (POST /admin/estadisticas/reconstruir).
+CREATE TABLE ventas_producto_hora (
+    codigo INT NOT NULL,
+    hora DATETIME NOT NULL,
+    pedidos BIGINT NOT NULL,
+    unidades BIGINT NOT NULL,
+    total DOUBLE NOT NULL,
+    PRIMARY KEY (codigo, hora)
+);
+
+CREATE TABLE ventas_producto_dia (
+    codigo INT NOT NULL,
+    dia DATE NOT NULL,
+    pedidos BIGINT NOT NULL,
+    unidades BIGINT NOT NULL,
+    total DOUBLE NOT NULL,
+    PRIMARY KEY (codigo, dia)
+);
+
+-- Índice de cobertura para el ranking de productos en un rango de días.
+CREATE INDEX idx_ventas_dia_dia ON ventas_producto_dia (dia, codigo, pedidos, unidades, total);
@@ -0,0 +1,11 @@
+-- Respuestas de las peticiones con cabecera Idempotency-Key cuando se usa el almacén jdbc
+-- (pedido.idempotencia.almacen=jdbc). Una fila con estado NULL es una petición en curso.
+CREATE TABLE idempotencia (
+    clave VARCHAR(255) NOT NULL PRIMARY KEY,
+    huella VARCHAR(255) NOT NULL,
+    estado INT,
+    cuerpo TEXT,
+    expira DATETIME NOT NULL
+);
+
+CREATE INDEX idx_idempotencia_expira ON idempotencia (expira);
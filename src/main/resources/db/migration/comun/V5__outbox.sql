@@ -0,0 +1,13 @@
+-- Eventos de pedidos escritos en la misma transacción que el pedido y publicados por el relay.
+CREATE TABLE outbox (
+    id BIGINT PRIMARY KEY NOT NULL AUTO_INCREMENT,
+    tipo VARCHAR(50) NOT NULL,
+    carga TEXT NOT NULL,
+    creado DATETIME NOT NULL
+);
+
+-- Último evento publicado a cada destino del relay.
+CREATE TABLE outbox_offsets (
+    consumidor VARCHAR(100) PRIMARY KEY NOT NULL,
+    ultimo_id BIGINT NOT NULL
+);
@@ -0,0 +1,10 @@
+-- Estado del archivado de pedidos. Los pedidos con fecha anterior a "completado" están solo en
+-- pedidos_archivo; los posteriores a "objetivo", solo en pedidos. Entre ambas fechas (mientras se
+-- ejecuta un archivado) un pedido puede estar en cualquiera de las dos tablas, o en ambas.
+CREATE TABLE pedidos_archivado (
+    id INT PRIMARY KEY NOT NULL,
+    completado DATETIME,
+    objetivo DATETIME
+);
+
+INSERT INTO pedidos_archivado (id, completado, objetivo) VALUES (1, NULL, NULL);
@@ -0,0 +1,7 @@
+-- Los importes pasan de DOUBLE a DECIMAL con dos decimales para que las sumas sean exactas. Los
+-- valores existentes se redondean al céntimo. Los agregados admiten más dígitos enteros porque
+-- acumulan los importes de muchos pedidos.
+ALTER TABLE pedidos MODIFY total DECIMAL(15,2);
+ALTER TABLE pedidos_archivo MODIFY total DECIMAL(15,2);
+ALTER TABLE ventas_producto_hora MODIFY total DECIMAL(19,2) NOT NULL;
+ALTER TABLE ventas_producto_dia MODIFY total DECIMAL(19,2) NOT NULL;
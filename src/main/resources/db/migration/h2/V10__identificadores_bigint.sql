@@ -0,0 +1,10 @@
+-- Equivalente para H2 de mysql/V10__identificadores_bigint.sql.
+ALTER TABLE pedidos ALTER COLUMN id SET DATA TYPE BIGINT;
+ALTER TABLE pedidos_archivo ALTER COLUMN id SET DATA TYPE BIGINT;
+
+CREATE TABLE pedidos_ids (
+    id INT PRIMARY KEY NOT NULL,
+    siguiente BIGINT NOT NULL
+);
+
+INSERT INTO pedidos_ids (id, siguiente) VALUES (1, 1);
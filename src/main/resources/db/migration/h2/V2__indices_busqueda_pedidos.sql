@@ -0,0 +1,3 @@
+-- Equivalente para H2 de mysql/V2__indices_busqueda_pedidos.sql.
+CREATE INDEX idx_pedidos_codigo_fecha ON pedidos (codigo, fecha, id, unidades, total);
+CREATE INDEX idx_pedidos_fecha ON pedidos (fecha, id, codigo, unidades, total);
@@ -0,0 +1,10 @@
+-- Equivalente para H2 de mysql/V7__tabla_archivo_pedidos.sql, sin compresión.
+CREATE TABLE pedidos_archivo (
+    id INT PRIMARY KEY NOT NULL,
+    codigo INT,
+    unidades INT,
+    total DOUBLE,
+    fecha TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_pedidos_archivo_codigo_fecha ON pedidos_archivo (codigo, fecha, id, unidades, total);
+CREATE INDEX idx_pedidos_archivo_fecha ON pedidos_archivo (fecha, id, codigo, unidades, total);
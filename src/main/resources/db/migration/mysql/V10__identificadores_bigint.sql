@@ -0,0 +1,17 @@
+-- Identificadores de pedido de 64 bits, necesarios para pedido.id.estrategia=temporal, y contador
+-- de bloques para pedido.id.estrategia=bloques. La columna conserva AUTO_INCREMENT para la
+-- estrategia identity, que sigue siendo la de partida.
+-- Cambiar de estrategia exige detener o reiniciar a la vez todas las instancias: mientras
+-- convivan dos estrategias pueden repetirse identificadores. El contador de bloques no necesita
+-- inicializarse, porque nunca reserva por debajo del mayor identificador existente.
+-- Reescribe ambas tablas completas; en tablas grandes conviene aplicarla en una ventana de
+-- mantenimiento.
+ALTER TABLE pedidos MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+ALTER TABLE pedidos_archivo MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE pedidos_ids (
+    id INT PRIMARY KEY NOT NULL,
+    siguiente BIGINT NOT NULL
+);
+
+INSERT INTO pedidos_ids (id, siguiente) VALUES (1, 1);
@@ -0,0 +1,9 @@
+-- Índices de cobertura para las búsquedas por producto y por rango de fechas. Incluyen el id de
+-- forma explícita para que el orden (fecha, id) de la paginación salga del propio índice, y las
+-- columnas restantes para que la consulta se resuelva sin acceder a la tabla.
+-- Se crean en una única sentencia en línea para recorrer la tabla una sola vez sin bloquear las
+-- escrituras.
+ALTER TABLE pedidos
+    ADD INDEX idx_pedidos_codigo_fecha (codigo, fecha, id, unidades, total),
+    ADD INDEX idx_pedidos_fecha (fecha, id, codigo, unidades, total),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,12 @@
+-- Pedidos archivados. Tiene las mismas columnas e índices de búsqueda que pedidos, sin
+-- AUTO_INCREMENT para conservar los identificadores, y se almacena comprimida: solo recibe
+-- inserciones del proceso de archivado y consultas sobre rangos antiguos.
+CREATE TABLE pedidos_archivo (
+    id INT PRIMARY KEY NOT NULL,
+    codigo INT,
+    unidades INT,
+    total DOUBLE,
+    fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_pedidos_archivo_codigo_fecha (codigo, fecha, id, unidades, total),
+    INDEX idx_pedidos_archivo_fecha (fecha, id, codigo, unidades, total)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
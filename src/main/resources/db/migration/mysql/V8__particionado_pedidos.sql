@@ -0,0 +1,26 @@
+-- Particionado mensual de pedidos por fecha. MySQL exige que la columna de particionado forme
+-- parte de todas las claves únicas, por lo que la clave primaria pasa a ser (id, fecha) y la
+-- fecha deja de admitir nulos; los pedidos sin fecha, que las búsquedas ya excluían, reciben la
+-- mínima fecha admitida. Al ser TIMESTAMP se particiona por UNIX_TIMESTAMP(fecha).
+-- Solo se crean la partición con los pedidos existentes y la de pedidos futuros: las mensuales
+-- las va creando por adelantado el mantenimiento programado (pedido.particionado.*), que parte
+-- p_futuro mientras todavía está vacía.
+-- Reescribe la tabla completa; en tablas grandes conviene aplicarla en una ventana de
+-- mantenimiento.
+UPDATE pedidos SET fecha = '1970-01-01 00:00:01' WHERE fecha IS NULL;
+
+ALTER TABLE pedidos
+    MODIFY fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, fecha);
+
+-- El límite de p_inicial es el primer día del mes siguiente al de la migración, de modo que
+-- p_inicial recoge los pedidos existentes y los del mes en curso. Los límites de una partición
+-- deben ser constantes, así que la sentencia se compone y se ejecuta como preparada.
+SET @limite_inicial = DATE_FORMAT(NOW() + INTERVAL 1 MONTH, '%Y-%m-01 00:00:00');
+SET @particionar = CONCAT('ALTER TABLE pedidos PARTITION BY RANGE (UNIX_TIMESTAMP(fecha)) (',
+    'PARTITION p_inicial VALUES LESS THAN (UNIX_TIMESTAMP(''', @limite_inicial, ''')), ',
+    'PARTITION p_futuro VALUES LESS THAN MAXVALUE)');
+PREPARE particionar FROM @particionar;
+EXECUTE particionar;
+DEALLOCATE PREPARE particionar;
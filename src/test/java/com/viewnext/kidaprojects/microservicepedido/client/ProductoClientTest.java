@@ -0,0 +1,115 @@
+package com.viewnext.kidaprojects.microservicepedido.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.viewnext.kidaprojects.microservicepedido.cache.PrecioCache;
+import com.viewnext.kidaprojects.microservicepedido.exception.LlamadaRechazadaException;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.CompositeCustomizer;
+import io.github.resilience4j.common.retry.configuration.CommonRetryConfigurationProperties;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Comprueba, con la configuración de reintentos de {@code application.properties}, que la
+ * consulta de precio reintenta los errores del servicio remoto pero no los rechazos del circuit
+ * breaker, que se resuelven de inmediato con el último precio conocido.
+ */
+class ProductoClientTest {
+
+	private final AtomicInteger llamadas = new AtomicInteger();
+	private final AtomicInteger fallosPendientes = new AtomicInteger();
+	private SimpleMeterRegistry meterRegistry;
+	private CircuitBreaker circuitBreaker;
+	private Retry retryPrecio;
+	private ProductoClient productoClient;
+
+	@BeforeEach
+	void preparar() throws IOException {
+		WebClient webClient = WebClient.builder()
+				.exchangeFunction(peticion -> {
+					llamadas.incrementAndGet();
+					if (fallosPendientes.getAndDecrement() > 0) {
+						return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+					}
+					return Mono.just(ClientResponse.create(HttpStatus.OK).body("12.50").build());
+				})
+				.build();
+		CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+		circuitBreaker = circuitBreakerRegistry.circuitBreaker("producto");
+		RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+		retryPrecio = retryRegistry.retry("precio", configuracionPrecio());
+		meterRegistry = new SimpleMeterRegistry();
+		productoClient = new ProductoClient(webClient, circuitBreakerRegistry, BulkheadRegistry.ofDefaults(),
+				retryRegistry, meterRegistry);
+	}
+
+	@Test
+	void losErroresDelServicioSeReintentan() {
+		fallosPendientes.set(2);
+
+		assertEquals(1250L, productoClient.obtenerPrecio(1001).block());
+		assertEquals(3, llamadas.get());
+	}
+
+	@Test
+	void conElCircuitoAbiertoSeSirveElUltimoPrecioSinReintentar() {
+		// Sin tiempo de vida en la caché principal, cada consulta llega al cliente.
+		PrecioCache precioCache = new PrecioCache(productoClient, meterRegistry, Duration.ZERO, 100,
+				Duration.ofHours(1));
+		assertEquals(1250L, precioCache.obtener(1001).block());
+
+		circuitBreaker.transitionToOpenState();
+		assertEquals(1250L, precioCache.obtener(1001).block());
+
+		assertEquals(1, llamadas.get());
+		assertEquals(1, retryPrecio.getMetrics().getNumberOfFailedCallsWithoutRetryAttempt());
+		assertEquals(0, retryPrecio.getMetrics().getNumberOfFailedCallsWithRetryAttempt());
+		assertEquals(1.0, meterRegistry.counter("producto.llamadas.rechazadas", "motivo", "circuitbreaker").count());
+		assertEquals(1.0, meterRegistry.counter("precios.ultimo.conocido").count());
+	}
+
+	@Test
+	void unRechazoSinPrecioConocidoFallaDeInmediato() {
+		circuitBreaker.transitionToOpenState();
+
+		assertThrows(LlamadaRechazadaException.class, () -> productoClient.obtenerPrecio(1001).block());
+		assertEquals(0, llamadas.get());
+		assertEquals(1, retryPrecio.getMetrics().getNumberOfFailedCallsWithoutRetryAttempt());
+	}
+
+	/**
+	 * La configuración de la instancia {@code precio} tal como la crea Spring Boot a partir de
+	 * {@code application.properties}.
+	 */
+	private static RetryConfig configuracionPrecio() throws IOException {
+		Properties propiedades = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+		CommonRetryConfigurationProperties retry = new Binder(new MapConfigurationPropertySource(propiedades))
+				.bind("resilience4j.retry", CommonRetryConfigurationProperties.class)
+				.get();
+		return retry.createRetryConfig("precio", new CompositeCustomizer<>(List.of()));
+	}
+}
@@ -0,0 +1,112 @@
+package com.viewnext.kidaprojects.microservicepedido.id;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Comprueba que los identificadores no se repiten con varios hilos por nodo y varios nodos
+ * simulados, cada uno con su propio generador.
+ */
+class GeneradorIdPedidosTest {
+
+	private static final int NODOS = 4;
+	private static final int HILOS_POR_NODO = 4;
+	private static final int IDS_POR_HILO = 5000;
+
+	@Test
+	void losIdentificadoresTemporalesNoSeRepitenEntreNodos() throws Exception {
+		List<GeneradorIdPedidos> nodos = new ArrayList<>();
+		for (int nodo = 0; nodo < NODOS; nodo++) {
+			nodos.add(new GeneradorIdTemporal(nodo));
+		}
+
+		Set<Long> ids = generar(nodos);
+
+		assertEquals(NODOS * HILOS_POR_NODO * IDS_POR_HILO, ids.size());
+		assertTrue(ids.stream().allMatch(id -> id > Integer.MAX_VALUE));
+	}
+
+	@Test
+	void unRelojQueRetrocedeNoRepiteIdentificadores() {
+		AtomicLong reloj = new AtomicLong(GeneradorIdTemporal.EPOCA + 1_000);
+		GeneradorIdTemporal generador = new GeneradorIdTemporal(7, reloj::get);
+
+		// Más de 4096 identificadores en el mismo milisegundo y después un salto atrás del reloj.
+		long anterior = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (i == 6_000) {
+				reloj.addAndGet(-500);
+			}
+			long id = generador.siguiente();
+			assertTrue(id > anterior);
+			assertEquals(7, (id >>> GeneradorIdTemporal.BITS_CONTADOR) & GeneradorIdTemporal.NODO_MAXIMO);
+			anterior = id;
+		}
+	}
+
+	@Test
+	void losBloquesNoSeRepitenEntreNodosYEmpiezanTrasElUltimoPedido() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:ids;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		try (Connection conexion = dataSource.getConnection(); Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("CREATE TABLE pedidos (id BIGINT PRIMARY KEY)");
+			sentencia.execute("CREATE TABLE pedidos_archivo (id BIGINT PRIMARY KEY)");
+			sentencia.execute("CREATE TABLE pedidos_ids (id INT PRIMARY KEY, siguiente BIGINT NOT NULL)");
+			sentencia.execute("INSERT INTO pedidos_ids VALUES (1, 1)");
+			// Pedidos insertados antes con AUTO_INCREMENT.
+			sentencia.execute("INSERT INTO pedidos VALUES (1), (2), (500)");
+		}
+		List<GeneradorIdPedidos> nodos = new ArrayList<>();
+		for (int nodo = 0; nodo < NODOS; nodo++) {
+			nodos.add(new GeneradorIdBloques(dataSource, 37));
+		}
+
+		Set<Long> ids = generar(nodos);
+
+		assertEquals(NODOS * HILOS_POR_NODO * IDS_POR_HILO, ids.size());
+		assertTrue(ids.stream().allMatch(id -> id > 500));
+	}
+
+	/**
+	 * Genera {@link #IDS_POR_HILO} identificadores en cada hilo de cada nodo, todos a la vez.
+	 *
+	 * @return Los identificadores distintos obtenidos.
+	 */
+	private static Set<Long> generar(List<GeneradorIdPedidos> nodos) throws Exception {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService hilos = Executors.newFixedThreadPool(nodos.size() * HILOS_POR_NODO);
+		try {
+			List<Callable<Void>> tareas = new ArrayList<>();
+			for (GeneradorIdPedidos nodo : nodos) {
+				for (int i = 0; i < HILOS_POR_NODO; i++) {
+					tareas.add(() -> {
+						for (int j = 0; j < IDS_POR_HILO; j++) {
+							ids.add(nodo.siguiente());
+						}
+						return null;
+					});
+				}
+			}
+			for (Future<Void> resultado : hilos.invokeAll(tareas)) {
+				resultado.get();
+			}
+		} finally {
+			hilos.shutdown();
+		}
+		return ids;
+	}
+}
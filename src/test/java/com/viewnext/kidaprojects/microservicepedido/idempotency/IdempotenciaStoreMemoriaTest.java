@@ -0,0 +1,82 @@
+package com.viewnext.kidaprojects.microservicepedido.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotenciaStoreMemoriaTest {
+
+	private final IdempotenciaStoreMemoria store = new IdempotenciaStoreMemoria(new SimpleMeterRegistry(),
+			Duration.ofMinutes(1), 100, Duration.ofSeconds(5));
+
+	@Test
+	void repeticionesConcurrentesEsperanALaOriginal() throws Exception {
+		AtomicInteger ejecuciones = new AtomicInteger();
+		CountDownLatch dentro = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<RespuestaAlmacenada>> respuestas = new ArrayList<>();
+			respuestas.add(hilos.submit(() -> store.ejecutar("clave", "huella", () -> {
+				ejecuciones.incrementAndGet();
+				dentro.countDown();
+				esperar(liberar);
+				return new RespuestaAlmacenada(200, "{\"id\":1}");
+			})));
+			dentro.await(5, TimeUnit.SECONDS);
+			for (int i = 0; i < 7; i++) {
+				respuestas.add(hilos.submit(() -> store.ejecutar("clave", "huella", () -> {
+					ejecuciones.incrementAndGet();
+					return new RespuestaAlmacenada(200, "{\"id\":2}");
+				})));
+			}
+			liberar.countDown();
+
+			for (Future<RespuestaAlmacenada> respuesta : respuestas) {
+				assertEquals("{\"id\":1}", respuesta.get(5, TimeUnit.SECONDS).getCuerpo());
+			}
+			assertEquals(1, ejecuciones.get());
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void lasRespuestasDeErrorDelServidorNoSeGuardan() {
+		AtomicInteger ejecuciones = new AtomicInteger();
+		store.ejecutar("clave", "huella", () -> new RespuestaAlmacenada(500 + ejecuciones.incrementAndGet(), "Error"));
+		RespuestaAlmacenada segunda = store.ejecutar("clave", "huella", () -> new RespuestaAlmacenada(200, "ok"));
+
+		assertEquals(200, segunda.getEstado());
+		assertEquals(1, ejecuciones.get());
+	}
+
+	@Test
+	void reutilizarLaClaveConOtraPeticionEsUnError() {
+		store.ejecutar("clave", "codigo=1&cantidad=1", () -> new RespuestaAlmacenada(200, "ok"));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> store.ejecutar("clave", "codigo=1&cantidad=2", () -> new RespuestaAlmacenada(200, "ok")));
+	}
+
+	private static void esperar(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.viewnext.kidaprojects.microservicepedido.limite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.viewnext.kidaprojects.microservicepedido.limite.LimiteAdaptativo.Prioridad;
+
+/**
+ * Comprueba el reparto del límite entre prioridades y su ajuste según la latencia.
+ */
+class LimiteAdaptativoTest {
+
+	private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void losListadosDejanHuecoParaLasAltas() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(10, 1, 100, 1.5, 0.5, 10, 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limite.adquirir(Prioridad.BAJA));
+		}
+		assertFalse(limite.adquirir(Prioridad.BAJA));
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limite.adquirir(Prioridad.ALTA));
+		}
+		assertFalse(limite.adquirir(Prioridad.ALTA));
+
+		limite.liberar();
+		assertEquals(9, limite.getEnCurso());
+		assertTrue(limite.adquirir(Prioridad.ALTA));
+	}
+
+	@Test
+	void elLimiteBajaCuandoSubeLaLatenciaYSeRecupera() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(20, 5, 200, 1.5, 0.5, 10, 100);
+
+		ventanas(limite, RAPIDA, 20);
+		int estable = limite.getLimite();
+		assertTrue(estable > 20);
+
+		ventanas(limite, LENTA, 20);
+		int saturado = limite.getLimite();
+		assertTrue(saturado < estable / 2);
+		assertTrue(saturado >= 5);
+
+		ventanas(limite, RAPIDA, 40);
+		assertTrue(limite.getLimite() > saturado);
+	}
+
+	@Test
+	void sinCargaElLimiteNoCambia() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(20, 5, 200, 1.5, 0.5, 10, 100);
+
+		for (int i = 0; i < 500; i++) {
+			assertTrue(limite.adquirir(Prioridad.ALTA));
+			limite.liberar(i < 250 ? RAPIDA : LENTA);
+		}
+
+		assertEquals(20, limite.getLimite());
+		assertEquals(0, limite.getEnCurso());
+	}
+
+	/**
+	 * Simula ventanas en las que todo el límite está ocupado y cada solicitud tarda lo indicado.
+	 */
+	private static void ventanas(LimiteAdaptativo limite, long nanos, int numero) {
+		for (int v = 0; v < numero; v++) {
+			int ocupados = 0;
+			while (limite.adquirir(Prioridad.ALTA)) {
+				ocupados++;
+			}
+			for (int i = 0; i < ocupados; i++) {
+				limite.liberar(nanos);
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.viewnext.kidaprojects.microservicepedido.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class ImportesTest {
+
+	@Test
+	void parseaImportesConHastaDosDecimales() {
+		assertEquals(999, Importes.parsear("9.99"));
+		assertEquals(1250, Importes.parsear("12.5"));
+		assertEquals(1200, Importes.parsear("12"));
+		assertEquals(1200, Importes.parsear("12."));
+		assertEquals(-99, Importes.parsear("-0.99"));
+		assertEquals(5, Importes.parsear("+.05"));
+	}
+
+	@Test
+	void redondeaLosDecimalesSobrantesYAceptaNotacionExponencial() {
+		assertEquals(1000, Importes.parsear("9.995"));
+		assertEquals(999, Importes.parsear("9.9949"));
+		assertEquals(1_000_000_000, Importes.parsear("1.0E7"));
+		assertEquals(123_456_789_012_345_678L, Importes.parsear("1234567890123456.78"));
+	}
+
+	@Test
+	void rechazaTextosQueNoSonNumeros() {
+		assertThrows(NumberFormatException.class, () -> Importes.parsear(""));
+		assertThrows(NumberFormatException.class, () -> Importes.parsear("-"));
+		assertThrows(NumberFormatException.class, () -> Importes.parsear("1.2.3"));
+		assertThrows(NumberFormatException.class, () -> Importes.parsear("abc"));
+	}
+
+	@Test
+	void sumaExactaEnCentimos() {
+		long total = 0;
+		double totalDoble = 0;
+		for (int i = 0; i < 1_000_000; i++) {
+			total += Importes.multiplicar(Importes.parsear("0.10"), 3);
+			totalDoble += 3 * 0.10;
+		}
+		assertEquals(new BigDecimal("300000.00"), Importes.aDecimal(total));
+		assertEquals(300_000_00, Importes.aCentimos(new BigDecimal("300000.004")));
+		// El mismo cálculo con double acumula error de redondeo.
+		assertNotEquals(300_000.0, totalDoble);
+	}
+}
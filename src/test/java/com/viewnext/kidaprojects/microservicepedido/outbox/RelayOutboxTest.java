@@ -0,0 +1,157 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba, sobre H2, que el relay no se salta los eventos cuya transacción aún no es visible y
+ * que un destino con posición guardada continúa tras un reinicio sin perder ni repetir eventos.
+ */
+class RelayOutboxTest {
+
+	private static final Duration ESPERA_HUECOS = Duration.ofSeconds(10);
+
+	@TempDir
+	Path directorio;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+	private JdbcTemplate jdbcTemplate;
+	private OutboxRepository outboxRepository;
+
+	@BeforeEach
+	void crearEsquema() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:outbox" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		outboxRepository = new OutboxRepository(dataSource, objectMapper);
+	}
+
+	@Test
+	void unHuecoRecienteDetieneElLoteHastaQueSeRellena() throws Exception {
+		DestinoEnMemoria destino = new DestinoEnMemoria();
+		RelayOutbox relay = relay(destino, 100);
+		LocalDateTime ahora = LocalDateTime.now();
+		insertar(1, ahora);
+		insertar(2, ahora);
+		// El 3 pertenece a una transacción que todavía no se ha confirmado.
+		insertar(4, ahora);
+
+		relay.publicar();
+		assertEquals(List.of(1L, 2L), destino.recibidos);
+
+		insertar(3, ahora);
+		relay.publicar();
+		assertEquals(List.of(1L, 2L, 3L, 4L), destino.recibidos);
+
+		// El 5 no llega nunca: tras la espera se considera deshecho y se continúa.
+		insertar(6, ahora.minus(ESPERA_HUECOS).minusSeconds(1));
+		relay.publicar();
+		assertEquals(List.of(1L, 2L, 3L, 4L, 6L), destino.recibidos);
+	}
+
+	@Test
+	void conPosicionInicialCeroSeEmpiezaPorElPrimerEventoNoPurgado() throws Exception {
+		DestinoEnMemoria destino = new DestinoEnMemoria();
+		LocalDateTime ahora = LocalDateTime.now();
+		insertar(41, ahora);
+		insertar(42, ahora);
+
+		relay(destino, 100).publicar();
+
+		assertEquals(List.of(41L, 42L), destino.recibidos);
+	}
+
+	@Test
+	void elDestinoArchivoContinuaDesdeSuPosicionTrasReiniciar() throws Exception {
+		Path ruta = directorio.resolve("eventos.ndjson");
+		for (int i = 0; i < 5; i++) {
+			alta();
+		}
+		ArchivoEventoSink archivo = new ArchivoEventoSink(outboxRepository, objectMapper, ruta);
+		relay(archivo, 2).publicar();
+		archivo.destroy();
+		assertEquals(5, outboxRepository.offset("archivo"));
+
+		for (int i = 0; i < 3; i++) {
+			alta();
+		}
+		archivo = new ArchivoEventoSink(outboxRepository, objectMapper, ruta);
+		relay(archivo, 2).publicar();
+		archivo.destroy();
+
+		List<Long> ids = new ArrayList<>();
+		for (String linea : Files.readAllLines(ruta, StandardCharsets.UTF_8)) {
+			ids.add(objectMapper.readValue(linea, EventoPedido.class).getId());
+		}
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), ids);
+		assertEquals(8, outboxRepository.offset("archivo"));
+	}
+
+	private RelayOutbox relay(EventoSink destino, int tamanoLote) {
+		return new RelayOutbox(outboxRepository, List.of(destino), new SimpleMeterRegistry(), tamanoLote, ESPERA_HUECOS);
+	}
+
+	private void alta() {
+		outboxRepository.registrarCreados(List.of(new Pedido(1001, 1, 500, LocalDateTime.now())));
+	}
+
+	/**
+	 * Inserta un evento con un identificador concreto, como si lo hubiera asignado otra transacción.
+	 */
+	private void insertar(long id, LocalDateTime creado) throws Exception {
+		Pedido pedido = new Pedido(1001, 1, 500, creado);
+		pedido.setId(id);
+		jdbcTemplate.update("INSERT INTO outbox (id, tipo, carga, creado) VALUES (?, ?, ?, ?)", id,
+				EventoPedido.PEDIDO_CREADO, objectMapper.writeValueAsString(PedidoDTO.de(pedido)),
+				Timestamp.valueOf(creado));
+	}
+
+	private static final class DestinoEnMemoria implements EventoSink {
+
+		private final List<Long> recibidos = new ArrayList<>();
+
+		@Override
+		public String nombre() {
+			return "memoria";
+		}
+
+		@Override
+		public long posicion() {
+			return recibidos.isEmpty() ? 0 : recibidos.get(recibidos.size() - 1);
+		}
+
+		@Override
+		public void publicar(List<EventoPedido> eventos) {
+			eventos.forEach(evento -> recibidos.add(evento.getId()));
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.viewnext.kidaprojects.microservicepedido.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EventoPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+import com.viewnext.kidaprojects.microservicepedido.restcontroller.EventoRestController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba, sobre H2, que un cliente SSE que se reconecta con {@code Last-Event-ID} recibe una
+ * sola vez y en orden los eventos posteriores, tanto los que ya salieron del búfer y se leen de la
+ * tabla como los del búfer y los nuevos, y que la lectura de la tabla no retrasa la respuesta.
+ */
+class SseEventoSinkTest {
+
+	private DriverManagerDataSource dataSource;
+	private OutboxRepository outboxRepository;
+	private SseEventoSink sseEventoSink;
+	private RelayOutbox relay;
+	private EventoRestController controller;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void preparar() {
+		dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:sse" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		outboxRepository = new OutboxRepository(dataSource, Jackson2ObjectMapperBuilder.json().build());
+		// Un búfer de dos eventos obliga a leer de la tabla parte de lo pendiente.
+		sseEventoSink = new SseEventoSink(outboxRepository, 2, Duration.ofMinutes(1));
+		relay = new RelayOutbox(outboxRepository, List.of(sseEventoSink), new SimpleMeterRegistry(), 100,
+				Duration.ofSeconds(10));
+		controller = new EventoRestController();
+		ReflectionTestUtils.setField(controller, "sseEventoSink", sseEventoSink);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@AfterEach
+	void parar() {
+		sseEventoSink.destroy();
+	}
+
+	@Test
+	void alReconectarConLastEventIdSeContinuaDondeSeDejo() throws Exception {
+		altas(3);
+		// Al arrancar, el destino SSE empieza por el último evento existente (el 3).
+		relay.publicar();
+		altas(3);
+		// Del 4 al 6: el 4 sale del búfer y quedan el 5 y el 6.
+		relay.publicar();
+
+		MockHttpServletResponse respuesta = mockMvc.perform(get("/pedido/eventos").header("Last-Event-ID", "2"))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+		esperar(() -> ids(respuesta).size() == 4);
+		assertEquals(List.of(3L, 4L, 5L, 6L), ids(respuesta));
+
+		altas(1);
+		relay.publicar();
+		esperar(() -> ids(respuesta).size() == 5);
+		assertEquals(List.of(3L, 4L, 5L, 6L, 7L), ids(respuesta));
+	}
+
+	@Test
+	void sinPosicionSoloSeRecibenLosEventosNuevos() throws Exception {
+		altas(2);
+		relay.publicar();
+
+		MockHttpServletResponse respuesta = mockMvc.perform(get("/pedido/eventos"))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+		altas(1);
+		relay.publicar();
+
+		esperar(() -> !ids(respuesta).isEmpty());
+		assertEquals(List.of(3L), ids(respuesta));
+	}
+
+	@Test
+	void laRepeticionDesdeLaTablaSeHaceDespuesDeDevolverElEmisor() throws Exception {
+		outboxRepository.registrarCreados(LongStream.range(0, 1200)
+				.mapToObj(i -> new Pedido(1001, 1, 500, LocalDateTime.now()))
+				.toList());
+		// Las lecturas de la tabla esperan hasta que el cliente ya tiene la respuesta.
+		CountDownLatch liberar = new CountDownLatch(1);
+		AtomicInteger paginas = new AtomicInteger();
+		OutboxRepository lento = new OutboxRepository(dataSource, Jackson2ObjectMapperBuilder.json().build()) {
+
+			@Override
+			public List<EventoPedido> leerDesde(long despuesDe, int limite) {
+				paginas.incrementAndGet();
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.leerDesde(despuesDe, limite);
+			}
+		};
+		sseEventoSink.destroy();
+		sseEventoSink = new SseEventoSink(lento, 2, Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(controller, "sseEventoSink", sseEventoSink);
+
+		MockHttpServletResponse respuesta = assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> mockMvc.perform(get("/pedido/eventos").header("Last-Event-ID", "0"))
+						.andExpect(request().asyncStarted())
+						.andReturn()
+						.getResponse());
+		assertTrue(ids(respuesta).isEmpty());
+
+		liberar.countDown();
+		esperar(() -> ids(respuesta).size() == 1200);
+		assertEquals(LongStream.rangeClosed(1, 1200).boxed().toList(), ids(respuesta));
+		// 1200 eventos en páginas de 500.
+		assertEquals(3, paginas.get());
+	}
+
+	private void altas(int numero) {
+		for (int i = 0; i < numero; i++) {
+			outboxRepository.registrarCreados(List.of(new Pedido(1001, 1, 500, LocalDateTime.now())));
+		}
+	}
+
+	private static List<Long> ids(MockHttpServletResponse respuesta) throws Exception {
+		return respuesta.getContentAsString().lines()
+				.filter(linea -> linea.startsWith("id:"))
+				.map(linea -> Long.valueOf(linea.substring(3).trim()))
+				.toList();
+	}
+
+	private static void esperar(Condicion condicion) throws Exception {
+		long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condicion.cumplida()) {
+			assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+			Thread.sleep(10);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Condicion {
+		boolean cumplida() throws Exception;
+	}
+}
@@ -0,0 +1,104 @@
+package com.viewnext.kidaprojects.microservicepedido.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.viewnext.kidaprojects.microservicepedido.exception.UnknownErrorException;
+import com.viewnext.kidaprojects.microservicepedido.model.LineaPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.ResultadoLinea;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido.Estado;
+import com.viewnext.kidaprojects.microservicepedido.service.PedidoService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba que los errores transitorios no completan las solicitudes: se reintentan y, si la
+ * cola se detiene antes, se recuperan del diario al arrancar.
+ */
+class ColaPedidosTest {
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void unLoteQueFallaSeReintentaHastaTenerResultado() throws Exception {
+		PedidoService pedidoService = mock(PedidoService.class);
+		when(pedidoService.darDeAltaPedidos(anyList()))
+				.thenThrow(new UnknownErrorException())
+				.thenAnswer(invocacion -> resultados(invocacion.getArgument(0), ResultadoLinea.Estado.CREADO));
+		Path ruta = directorio.resolve("pedidos.journal");
+		ColaPedidos cola = cola(pedidoService, ruta);
+		SolicitudPedido solicitud = cola.aceptar(1, 2);
+		cola.arrancar();
+
+		esperar(() -> cola.consultar(solicitud.getId()).getEstado() == Estado.CREADO);
+		cola.destroy();
+
+		verify(pedidoService, atLeast(2)).darDeAltaPedidos(anyList());
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, Long.MAX_VALUE)) {
+			assertTrue(diario.recuperadas().isEmpty());
+		}
+	}
+
+	@Test
+	void soloSeCompletanLosResultadosDefinitivos() throws Exception {
+		PedidoService pedidoService = mock(PedidoService.class);
+		when(pedidoService.darDeAltaPedidos(anyList())).thenAnswer(invocacion -> {
+			List<LineaPedido> lineas = invocacion.getArgument(0);
+			return lineas.stream()
+					.map(linea -> new ResultadoLinea(linea.getCodigo(), linea.getCantidad(),
+							linea.getCodigo() == 1 ? ResultadoLinea.Estado.ERROR : ResultadoLinea.Estado.STOCK_INSUFICIENTE,
+							null))
+					.toList();
+		});
+		Path ruta = directorio.resolve("pedidos.journal");
+		ColaPedidos cola = cola(pedidoService, ruta);
+		SolicitudPedido fallida = cola.aceptar(1, 2);
+		SolicitudPedido sinStock = cola.aceptar(2, 2);
+		cola.arrancar();
+
+		esperar(() -> cola.consultar(sinStock.getId()).getEstado() == Estado.STOCK_INSUFICIENTE);
+		verify(pedidoService, timeout(5_000).atLeast(3)).darDeAltaPedidos(anyList());
+		assertEquals(Estado.PENDIENTE, cola.consultar(fallida.getId()).getEstado());
+		cola.destroy();
+
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, Long.MAX_VALUE)) {
+			assertEquals(List.of(fallida.getId()),
+					diario.recuperadas().stream().map(SolicitudPedido::getId).toList());
+		}
+	}
+
+	private static ColaPedidos cola(PedidoService pedidoService, Path ruta) throws Exception {
+		return new ColaPedidos(pedidoService, new SimpleMeterRegistry(), ruta, 1 << 20, 100, 1, 10,
+				Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ofMillis(10), Duration.ofMillis(50));
+	}
+
+	private static List<ResultadoLinea> resultados(List<LineaPedido> lineas, ResultadoLinea.Estado estado) {
+		return lineas.stream()
+				.map(linea -> new ResultadoLinea(linea.getCodigo(), linea.getCantidad(), estado, null))
+				.toList();
+	}
+
+	private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+		long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!condicion.getAsBoolean()) {
+			assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+			Thread.sleep(10);
+		}
+	}
+}
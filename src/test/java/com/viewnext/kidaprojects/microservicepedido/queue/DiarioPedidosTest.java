@@ -0,0 +1,87 @@
+package com.viewnext.kidaprojects.microservicepedido.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido;
+import com.viewnext.kidaprojects.microservicepedido.model.SolicitudPedido.Estado;
+
+/**
+ * Comprueba que el diario recupera tras una caída las solicitudes aceptadas y no completadas, y
+ * que la compactación no pierde ninguna.
+ */
+class DiarioPedidosTest {
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void trasUnaCaidaSeRecuperanLasPendientesEnOrden() throws Exception {
+		Path ruta = directorio.resolve("pedidos.journal");
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, Long.MAX_VALUE)) {
+			CompletableFuture.allOf(
+					diario.registrarAceptada(solicitud("a", 1, 2)),
+					diario.registrarAceptada(solicitud("b", 3, 4)),
+					diario.registrarAceptada(solicitud("c", 5, 6))).join();
+			diario.registrarCompletadas(List.of("b")).join();
+		}
+		// La caída llega a mitad de escribir la siguiente aceptación.
+		Files.writeString(ruta, "A;d;7;8x", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, Long.MAX_VALUE)) {
+			List<SolicitudPedido> recuperadas = diario.recuperadas();
+
+			assertEquals(List.of("a", "c"), recuperadas.stream().map(SolicitudPedido::getId).toList());
+			assertEquals(5, recuperadas.get(1).getCodigo());
+			assertEquals(6, recuperadas.get(1).getCantidad());
+			assertTrue(recuperadas.stream().allMatch(solicitud -> solicitud.getEstado() == Estado.PENDIENTE));
+			// Al abrir se compacta: la línea incompleta desaparece y lo nuevo se anota en una línea propia.
+			diario.registrarAceptada(solicitud("e", 9, 1)).join();
+		}
+
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, Long.MAX_VALUE)) {
+			assertEquals(List.of("a", "c", "e"), diario.recuperadas().stream().map(SolicitudPedido::getId).toList());
+		}
+	}
+
+	@Test
+	void laCompactacionConservaSoloLasSinCompletarEnOrden() throws Exception {
+		Path ruta = directorio.resolve("pedidos.journal");
+		List<String> pendientes = new ArrayList<>();
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, 256)) {
+			for (int i = 0; i < 500; i++) {
+				String id = "s" + i;
+				diario.registrarAceptada(solicitud(id, i, 1)).join();
+				if (i % 50 == 0) {
+					pendientes.add(id);
+				} else {
+					diario.registrarCompletadas(List.of(id)).join();
+				}
+			}
+
+			// Sin compactar ocuparía unos 10 KB.
+			assertTrue(Files.size(ruta) < 1024, () -> "El diario no se ha compactado: " + ruta);
+		}
+		assertFalse(Files.exists(ruta.resolveSibling(ruta.getFileName() + ".tmp")));
+
+		try (DiarioPedidos diario = new DiarioPedidos(ruta, 256)) {
+			assertEquals(pendientes, diario.recuperadas().stream().map(SolicitudPedido::getId).toList());
+		}
+	}
+
+	private static SolicitudPedido solicitud(String id, int codigo, int cantidad) {
+		return new SolicitudPedido(id, codigo, cantidad, Estado.PENDIENTE, null);
+	}
+}
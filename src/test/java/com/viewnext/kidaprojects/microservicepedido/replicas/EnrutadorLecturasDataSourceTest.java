@@ -0,0 +1,99 @@
+package com.viewnext.kidaprojects.microservicepedido.replicas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Comprueba el reparto de conexiones con tres bases de datos H2 en memoria independientes que
+ * hacen de primaria y réplicas.
+ */
+class EnrutadorLecturasDataSourceTest {
+
+	private static final String PRIMARIA = "jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1";
+	private static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+	private static final String REPLICA_2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+	/** Una réplica que todavía no existe y rechaza las conexiones hasta que se crea. */
+	private static final String REPLICA_TARDIA = "jdbc:h2:mem:tardia;DB_CLOSE_DELAY=-1;IFEXISTS=TRUE";
+
+	@AfterEach
+	void limpiar() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		ConsistenciaLecturas.limpiar();
+	}
+
+	@Test
+	void lasEscriturasVanALaPrimaria() throws SQLException {
+		EnrutadorLecturasDataSource enrutador = enrutador(REPLICA_1, REPLICA_2);
+
+		assertEquals(List.of("PRIMARIA", "PRIMARIA"), bases(enrutador, 2));
+	}
+
+	@Test
+	void lasLecturasSeRepartenPorTurnosEntreLasReplicas() throws SQLException {
+		EnrutadorLecturasDataSource enrutador = enrutador(REPLICA_1, REPLICA_2);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals(List.of("REPLICA1", "REPLICA2", "REPLICA1", "REPLICA2"), bases(enrutador, 4));
+	}
+
+	@Test
+	void laLecturaPropiaSeHaceEnLaPrimaria() throws SQLException {
+		EnrutadorLecturasDataSource enrutador = enrutador(REPLICA_1, REPLICA_2);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		ConsistenciaLecturas.requerirPrimaria();
+
+		assertEquals(List.of("PRIMARIA", "PRIMARIA"), bases(enrutador, 2));
+	}
+
+	@Test
+	void unaReplicaCaidaPasaSusLecturasALaPrimariaHastaQueVuelve() throws SQLException {
+		EnrutadorLecturasDataSource enrutador = enrutador(REPLICA_1, REPLICA_TARDIA);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		// La réplica tardía falla en su turno: esa lectura se hace en la primaria y la réplica
+		// deja de recibir conexiones.
+		assertEquals(List.of("REPLICA1", "PRIMARIA", "REPLICA1", "REPLICA1"), bases(enrutador, 4));
+		assertEquals(1, enrutador.replicasDisponibles());
+
+		try (Connection creacion = new DriverManagerDataSource("jdbc:h2:mem:tardia;DB_CLOSE_DELAY=-1").getConnection()) {
+			enrutador.comprobarReplicas();
+		}
+
+		assertEquals(2, enrutador.replicasDisponibles());
+		assertEquals(List.of("TARDIA", "REPLICA1"), bases(enrutador, 2));
+	}
+
+	private static EnrutadorLecturasDataSource enrutador(String... replicas) {
+		Map<String, DataSource> pools = new LinkedHashMap<>();
+		for (String url : replicas) {
+			pools.put(url, new DriverManagerDataSource(url));
+		}
+		return new EnrutadorLecturasDataSource(new DriverManagerDataSource(PRIMARIA), pools);
+	}
+
+	/**
+	 * @return El nombre de la base de datos que entrega cada una de las siguientes conexiones.
+	 */
+	private static List<String> bases(DataSource dataSource, int conexiones) throws SQLException {
+		List<String> bases = new ArrayList<>();
+		for (int i = 0; i < conexiones; i++) {
+			try (Connection conexion = dataSource.getConnection()) {
+				bases.add(conexion.getCatalog());
+			}
+		}
+		return bases;
+	}
+}
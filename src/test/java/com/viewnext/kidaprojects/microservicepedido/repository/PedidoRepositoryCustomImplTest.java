@@ -0,0 +1,105 @@
+package com.viewnext.kidaprojects.microservicepedido.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.viewnext.kidaprojects.microservicepedido.id.GeneradorIdPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.FiltroPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+
+/**
+ * Comprueba, sobre H2, que las lecturas combinan {@code pedidos} y {@code pedidos_archivo} según
+ * el estado del archivado y que un pedido presente en ambas tablas se devuelve una sola vez.
+ */
+class PedidoRepositoryCustomImplTest {
+
+	private static final LocalDateTime OBJETIVO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+	private JdbcTemplate jdbcTemplate;
+	private ArchivoPedidosRepository archivoPedidosRepository;
+	private PedidoRepositoryCustomImpl repository;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void crearEsquema() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:lecturas" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		archivoPedidosRepository = new ArchivoPedidosRepository(dataSource);
+		repository = new PedidoRepositoryCustomImpl(dataSource, archivoPedidosRepository,
+				new DataSourceTransactionManager(dataSource), mock(ObjectProvider.class), 100);
+		for (long id = 1; id <= 4; id++) {
+			insertar("pedidos", id, OBJETIVO.minusDays(10 - id));
+		}
+		for (long id = 5; id <= 8; id++) {
+			insertar("pedidos", id, OBJETIVO.plusDays(id));
+		}
+	}
+
+	@Test
+	void duranteUnArchivadoCadaPedidoSeLeeUnaVez() {
+		archivoPedidosRepository.fijarObjetivo(OBJETIVO);
+		// Los pedidos 1 y 2 ya están solo en el archivo; el 3 está copiado pero aún no borrado.
+		List<Pedido> copiados = archivoPedidosRepository.pendientes(OBJETIVO, 0, 3);
+		archivoPedidosRepository.copiar(copiados);
+		archivoPedidosRepository.borrar(copiados.subList(0, 2));
+
+		List<Long> todos = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+		assertEquals(todos, ids(repository.listarDesde(0, 100)));
+		assertEquals(List.of(3L, 4L, 5L), ids(repository.listarDesde(2, 3)));
+		assertEquals(todos, ids(repository.buscar(filtro(null, null, false, 100))));
+		assertEquals(List.of(8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L), ids(repository.buscar(filtro(null, null, true, 100))));
+		List<Long> recorridos = new ArrayList<>();
+		repository.recorrerTodos(pedido -> recorridos.add(pedido.getId()));
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), recorridos.stream().sorted().toList());
+	}
+
+	@Test
+	void lasBusquedasPorFechaSoloLeenLasTablasQuePuedenContenerElRango() {
+		List<Pedido> antiguos = archivoPedidosRepository.pendientes(OBJETIVO, 0, 100);
+		archivoPedidosRepository.fijarObjetivo(OBJETIVO);
+		archivoPedidosRepository.copiar(antiguos);
+		archivoPedidosRepository.borrar(antiguos);
+		archivoPedidosRepository.fijarCompletado(OBJETIVO);
+		// Filas que contradicen el estado del archivado: solo aparecen si se lee la tabla que no
+		// corresponde al rango.
+		insertar("pedidos", 100, OBJETIVO.minusDays(1));
+		insertar("pedidos_archivo", 200, OBJETIVO.plusDays(1));
+
+		assertEquals(List.of(1L, 2L, 3L, 4L), ids(repository.buscar(filtro(null, OBJETIVO, false, 100))));
+		assertEquals(List.of(5L, 6L, 7L, 8L), ids(repository.buscar(filtro(OBJETIVO, null, false, 100))));
+		// Sin rango se leen ambas tablas.
+		assertEquals(10, repository.buscar(filtro(null, null, false, 100)).size());
+	}
+
+	private static FiltroPedidos filtro(LocalDateTime desde, LocalDateTime hasta, boolean descendente, int limite) {
+		return new FiltroPedidos(null, desde, hasta, descendente, null, null, limite);
+	}
+
+	private void insertar(String tabla, long id, LocalDateTime fecha) {
+		jdbcTemplate.update("INSERT INTO " + tabla + " (id, codigo, unidades, total, fecha) VALUES (?, 1001, 1, 5.00, ?)",
+				id, Timestamp.valueOf(fecha));
+	}
+
+	private static List<Long> ids(List<Pedido> pedidos) {
+		return pedidos.stream().map(Pedido::getId).toList();
+	}
+}
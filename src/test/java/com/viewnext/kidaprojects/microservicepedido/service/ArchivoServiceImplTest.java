@@ -0,0 +1,122 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.model.EstadoArchivo;
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.ArchivoPedidosRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.ParticionesRepository;
+
+/**
+ * Comprueba, sobre H2, que un archivado interrumpido se retoma en la siguiente ejecución sin
+ * perder ni duplicar pedidos.
+ */
+class ArchivoServiceImplTest {
+
+	private static final LocalDateTime OBJETIVO = YearMonth.now().minusMonths(12).atDay(1).atStartOfDay();
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void crearEsquema() {
+		dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:archivo" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		// Seis pedidos anteriores al objetivo y dos posteriores.
+		for (long id = 1; id <= 6; id++) {
+			insertar(id, OBJETIVO.minusDays(40 - id));
+		}
+		insertar(7, OBJETIVO);
+		insertar(8, LocalDateTime.now());
+	}
+
+	@Test
+	void unArchivadoInterrumpidoSeRetomaSinPerderNiDuplicarPedidos() {
+		AtomicInteger bloques = new AtomicInteger();
+		ArchivoPedidosRepository conFallo = new ArchivoPedidosRepository(dataSource) {
+
+			@Override
+			public void borrar(List<Pedido> pedidos) {
+				super.borrar(pedidos);
+				if (bloques.incrementAndGet() == 2) {
+					throw new DataAccessResourceFailureException("Conexión perdida");
+				}
+			}
+		};
+
+		assertThrows(DataAccessResourceFailureException.class, () -> servicio(conFallo).archivar());
+
+		// El primer bloque se ha confirmado y el segundo se ha deshecho por completo.
+		EstadoArchivo estado = conFallo.estado();
+		assertEquals(OBJETIVO, estado.getObjetivo());
+		assertNull(estado.getCompletado());
+		assertEquals(List.of(1L, 2L), ids("pedidos_archivo"));
+		assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L), ids("pedidos"));
+
+		ArchivoPedidosRepository repository = new ArchivoPedidosRepository(dataSource);
+		assertEquals(4, servicio(repository).archivar());
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), ids("pedidos_archivo"));
+		assertEquals(List.of(7L, 8L), ids("pedidos"));
+		assertEquals(OBJETIVO, repository.estado().getCompletado());
+		assertEquals(OBJETIVO, repository.estado().getObjetivo());
+	}
+
+	@Test
+	void unPedidoCopiadoSinBorrarSeTrasladaAlRetomar() {
+		ArchivoPedidosRepository repository = new ArchivoPedidosRepository(dataSource);
+		// Estado de un archivado anterior a la transacción por bloque: copiado pero no borrado.
+		repository.fijarObjetivo(OBJETIVO);
+		repository.copiar(repository.pendientes(OBJETIVO, 0, 3));
+
+		assertEquals(6, servicio(repository).archivar());
+
+		assertEquals(LongStream.rangeClosed(1, 6).boxed().toList(), ids("pedidos_archivo"));
+		assertEquals(List.of(7L, 8L), ids("pedidos"));
+	}
+
+	private ArchivoServiceImpl servicio(ArchivoPedidosRepository repository) {
+		ArchivoServiceImpl servicio = new ArchivoServiceImpl(repository, mock(ParticionesRepository.class),
+				transactionTemplate);
+		ReflectionTestUtils.setField(servicio, "horizonteMeses", 12);
+		ReflectionTestUtils.setField(servicio, "tamanoBloque", 2);
+		return servicio;
+	}
+
+	private void insertar(long id, LocalDateTime fecha) {
+		jdbcTemplate.update("INSERT INTO pedidos (id, codigo, unidades, total, fecha) VALUES (?, 1001, 1, 5.00, ?)",
+				id, Timestamp.valueOf(fecha));
+	}
+
+	private List<Long> ids(String tabla) {
+		return jdbcTemplate.queryForList("SELECT id FROM " + tabla + " ORDER BY id", Long.class);
+	}
+}
@@ -0,0 +1,170 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.model.Pedido;
+import com.viewnext.kidaprojects.microservicepedido.repository.EstadisticasRepository;
+
+/**
+ * Comprueba, sobre H2, que la reconstrucción de estadísticas cuenta una sola vez los pedidos que
+ * se dan de alta mientras se ejecuta, aunque su identificador sea menor que el de pedidos ya
+ * guardados, como ocurre con las estrategias {@code bloques} y {@code temporal}.
+ */
+class EstadisticasReconstruccionTest {
+
+	private static final LocalDateTime ENERO = LocalDateTime.of(2026, 1, 10, 9, 30);
+	private static final LocalDateTime FEBRERO = LocalDateTime.of(2026, 2, 3, 18, 5);
+	private static final LocalDateTime MARZO = LocalDateTime.of(2026, 3, 31, 23, 59);
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void crearEsquema() {
+		dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:estadisticas" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void unAltaConfirmadaDuranteLaReconstruccionSeCuentaUnaVez() {
+		AtomicBoolean intercalada = new AtomicBoolean();
+		EstadisticasRepository repository = new EstadisticasRepository(dataSource, 100) {
+
+			@Override
+			public Correccion calcularCorreccion(LocalDateTime desde, LocalDateTime hasta) {
+				Correccion correccion = super.calcularCorreccion(desde, hasta);
+				if (!desde.isAfter(FEBRERO) && hasta.isAfter(FEBRERO) && intercalada.compareAndSet(false, true)) {
+					// Otro nodo confirma un pedido con un identificador de un bloque antiguo entre la
+					// lectura y la escritura de la corrección del mes.
+					CompletableFuture.runAsync(() -> alta(this, 5, 7, 3, 1250, FEBRERO.plusMinutes(10))).join();
+				}
+				return correccion;
+			}
+		};
+		alta(repository, 1, 7, 2, 1000, ENERO);
+		alta(repository, 2, 7, 1, 500, FEBRERO);
+		alta(repository, 10, 8, 4, 2000, FEBRERO);
+		alta(repository, 11, 7, 1, 500, MARZO);
+		// Agregados desajustados: una hora que falta y un día con pedidos de más.
+		jdbcTemplate.update("DELETE FROM ventas_producto_hora WHERE codigo = 7 AND hora = ?",
+				Timestamp.valueOf(ENERO.withMinute(0)));
+		jdbcTemplate.update("UPDATE ventas_producto_dia SET pedidos = pedidos + 5 WHERE codigo = 8");
+		jdbcTemplate.update("INSERT INTO ventas_producto_dia VALUES (9, '2026-02-20', 3, 3, 30.00)");
+
+		long procesados = servicio(repository).reconstruir();
+
+		assertEquals(4, procesados);
+		assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos", Long.class));
+		assertEquals(calculadasPorHora(), guardadasPorHora());
+		assertEquals(calculadasPorDia(), guardadasPorDia());
+		assertEquals(2, jdbcTemplate.queryForObject(
+				"SELECT pedidos FROM ventas_producto_hora WHERE codigo = 7 AND hora = '2026-02-03 18:00:00'", Long.class));
+	}
+
+	@Test
+	void lasAltasConcurrentesNoSeCuentanDosVeces() throws Exception {
+		EstadisticasRepository repository = new EstadisticasRepository(dataSource, 100);
+		EstadisticasServiceImpl servicio = servicio(repository);
+		AtomicLong ids = new AtomicLong(1_000_000);
+		for (int i = 0; i < 200; i++) {
+			alta(repository, ids.getAndIncrement(), 1 + i % 5, 1, 100, fechaAleatoria());
+		}
+
+		AtomicBoolean parar = new AtomicBoolean();
+		List<CompletableFuture<Void>> nodos = new ArrayList<>();
+		for (int nodo = 0; nodo < 3; nodo++) {
+			// Cada nodo toma identificadores de su propio bloque, menores que los ya guardados.
+			long inicioBloque = nodo * 100_000L;
+			nodos.add(CompletableFuture.runAsync(() -> {
+				ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+				for (long id = inicioBloque; !parar.get(); id++) {
+					alta(repository, id, 1 + aleatorio.nextInt(5), 1 + aleatorio.nextInt(3), 100 + aleatorio.nextInt(900),
+							fechaAleatoria());
+				}
+			}));
+		}
+		for (int i = 0; i < 20; i++) {
+			servicio.reconstruir();
+		}
+		parar.set(true);
+		CompletableFuture.allOf(nodos.toArray(CompletableFuture[]::new)).join();
+
+		assertFalse(calculadasPorHora().isEmpty());
+		assertEquals(calculadasPorHora(), guardadasPorHora());
+		assertEquals(calculadasPorDia(), guardadasPorDia());
+	}
+
+	private EstadisticasServiceImpl servicio(EstadisticasRepository repository) {
+		return new EstadisticasServiceImpl(repository, transactionTemplate);
+	}
+
+	/**
+	 * Da de alta un pedido como {@code PedidoServiceImpl}: el pedido y sus agregados en la misma
+	 * transacción.
+	 */
+	private void alta(EstadisticasRepository repository, long id, int codigo, int unidades, long totalCentimos,
+			LocalDateTime fecha) {
+		Pedido pedido = new Pedido(codigo, unidades, totalCentimos, fecha);
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO pedidos (id, codigo, unidades, total, fecha) VALUES (?, ?, ?, ?, ?)", id,
+					codigo, unidades, totalCentimos / 100.0, Timestamp.valueOf(fecha));
+			repository.acumular(List.of(pedido));
+		});
+	}
+
+	private static LocalDateTime fechaAleatoria() {
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		return LocalDateTime.of(2026, 1 + aleatorio.nextInt(3), 1 + aleatorio.nextInt(28), aleatorio.nextInt(24), 0);
+	}
+
+	private List<String> calculadasPorHora() {
+		return filas("SELECT codigo, DATE_TRUNC('HOUR', fecha) AS periodo, COUNT(*) AS pedidos, SUM(unidades) AS unidades, "
+				+ "SUM(total) AS total FROM pedidos GROUP BY codigo, periodo ORDER BY codigo, periodo");
+	}
+
+	private List<String> guardadasPorHora() {
+		return filas("SELECT codigo, hora AS periodo, pedidos, unidades, total FROM ventas_producto_hora "
+				+ "ORDER BY codigo, periodo");
+	}
+
+	private List<String> calculadasPorDia() {
+		return filas("SELECT codigo, CAST(fecha AS DATE) AS periodo, COUNT(*) AS pedidos, SUM(unidades) AS unidades, "
+				+ "SUM(total) AS total FROM pedidos GROUP BY codigo, periodo ORDER BY codigo, periodo");
+	}
+
+	private List<String> guardadasPorDia() {
+		return filas("SELECT codigo, dia AS periodo, pedidos, unidades, total FROM ventas_producto_dia "
+				+ "ORDER BY codigo, periodo");
+	}
+
+	private List<String> filas(String sql) {
+		return jdbcTemplate.query(sql, (rs, fila) -> rs.getInt("codigo") + " " + rs.getTimestamp("periodo") + " "
+				+ rs.getLong("pedidos") + " " + rs.getLong("unidades") + " " + rs.getBigDecimal("total").setScale(2));
+	}
+}
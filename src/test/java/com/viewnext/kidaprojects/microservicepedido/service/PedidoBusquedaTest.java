@@ -0,0 +1,150 @@
+package com.viewnext.kidaprojects.microservicepedido.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viewnext.kidaprojects.microservicepedido.cache.PrecioCache;
+import com.viewnext.kidaprojects.microservicepedido.metrics.PedidoMetricas;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaBusquedaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PaginaPedidos;
+import com.viewnext.kidaprojects.microservicepedido.model.PedidoDTO;
+import com.viewnext.kidaprojects.microservicepedido.repository.ArchivoPedidosRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.EstadisticasRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.OutboxRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.PedidoRepository;
+import com.viewnext.kidaprojects.microservicepedido.repository.PedidoRepositoryCustomImpl;
+import com.viewnext.kidaprojects.microservicepedido.stock.ReservaStock;
+
+/**
+ * Comprueba, sobre H2, que recorrer las páginas de la búsqueda y del listado con el cursor
+ * devuelve cada pedido una sola vez y en orden, también con muchos pedidos de la misma fecha
+ * y aunque se den de alta pedidos durante el recorrido.
+ */
+class PedidoBusquedaTest {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2026, 3, 1, 0, 0);
+	private static final int TAMANO_MAXIMO = 50;
+
+	private JdbcTemplate jdbcTemplate;
+	private PedidoServiceImpl service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void preparar() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:busqueda" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		Flyway.configure()
+				.dataSource(dataSource)
+				.locations("classpath:db/migration/comun", "classpath:db/migration/h2")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		PedidoRepositoryCustomImpl consultas = new PedidoRepositoryCustomImpl(dataSource,
+				new ArchivoPedidosRepository(dataSource), transactionManager, mock(ObjectProvider.class), 100);
+
+		service = new PedidoServiceImpl(mock(ReservaStock.class), mock(PrecioCache.class),
+				new TransactionTemplate(transactionManager), mock(PedidoMetricas.class),
+				mock(EstadisticasRepository.class), mock(OutboxRepository.class));
+		ReflectionTestUtils.setField(service, "pedidoRepository", mock(PedidoRepository.class, delegatesTo(consultas)));
+		ReflectionTestUtils.setField(service, "tamanoMaximoPagina", TAMANO_MAXIMO);
+
+		// 300 pedidos de tres productos repartidos en 12 instantes: muchos comparten fecha, y los
+		// identificadores no siguen el orden de las fechas.
+		for (long id = 1; id <= 300; id++) {
+			insertar(id, (int) (1 + id % 3), INICIO.plusHours((id * 7) % 12));
+		}
+	}
+
+	@Test
+	void lasPaginasDeLaBusquedaCubrenElRangoUnaVezYEnOrden() {
+		LocalDateTime desde = INICIO.plusHours(2);
+		LocalDateTime hasta = INICIO.plusHours(9);
+		for (boolean descendente : new boolean[] { false, true }) {
+			for (Integer codigo : new Integer[] { null, 2 }) {
+				String sentido = descendente ? " DESC" : "";
+				List<Long> esperados = jdbcTemplate.queryForList("SELECT id FROM pedidos WHERE fecha >= ? AND fecha < ?"
+						+ (codigo != null ? " AND codigo = " + codigo : "") + " ORDER BY fecha" + sentido + ", id" + sentido,
+						Long.class, Timestamp.valueOf(desde), Timestamp.valueOf(hasta));
+
+				assertEquals(esperados, recorrerBusqueda(codigo, desde, hasta, descendente, 7));
+			}
+		}
+	}
+
+	@Test
+	void lasAltasDuranteElRecorridoNoDuplicanNiDesplazanPedidos() {
+		List<Long> esperados = jdbcTemplate.queryForList("SELECT id FROM pedidos ORDER BY fecha, id", Long.class);
+		List<Long> recorridos = new ArrayList<>();
+		long siguienteId = 1000;
+		String cursor = null;
+		do {
+			PaginaBusquedaPedidos pagina = service.buscar(null, null, null, false, cursor, 20);
+			pagina.getPedidos().forEach(pedido -> recorridos.add(pedido.getId()));
+			cursor = pagina.getSiguiente();
+			// Un alta que queda antes del cursor no se ve y no desplaza las páginas siguientes.
+			insertar(siguienteId++, 1, INICIO.minusMinutes(1));
+		} while (cursor != null);
+
+		assertEquals(esperados, recorridos);
+	}
+
+	@Test
+	void lasPaginasDelListadoCubrenTodosLosPedidos() throws Exception {
+		List<Long> recorridos = new ArrayList<>();
+		Long after = 0L;
+		do {
+			// El tamaño solicitado se ajusta al máximo configurado.
+			PaginaPedidos pagina = service.showPage(after, 1_000);
+			assertTrue(pagina.getPedidos().size() <= TAMANO_MAXIMO);
+			pagina.getPedidos().forEach(pedido -> recorridos.add(pedido.getId()));
+			after = pagina.getSiguiente();
+		} while (after != null);
+
+		assertEquals(jdbcTemplate.queryForList("SELECT id FROM pedidos ORDER BY id", Long.class), recorridos);
+	}
+
+	@Test
+	void unRangoInvertidoOUnCursorNoValidoSeRechazan() {
+		assertThrows(IllegalArgumentException.class, () -> service.buscar(null, INICIO, INICIO, false, null, 10));
+		assertThrows(IllegalArgumentException.class, () -> service.buscar(null, null, null, false, "no-es-un-cursor", 10));
+		assertThrows(IllegalArgumentException.class, () -> service.buscar(null, null, null, false, "2026-03-01T00:00_x", 10));
+		assertNull(service.buscar(3, INICIO.plusDays(1), null, false, null, 10).getSiguiente());
+	}
+
+	private List<Long> recorrerBusqueda(Integer codigo, LocalDateTime desde, LocalDateTime hasta, boolean descendente,
+			int tamano) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaBusquedaPedidos pagina = service.buscar(codigo, desde, hasta, descendente, cursor, tamano);
+			pagina.getPedidos().stream().map(PedidoDTO::getId).forEach(ids::add);
+			cursor = pagina.getSiguiente();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private void insertar(long id, int codigo, LocalDateTime fecha) {
+		jdbcTemplate.update("INSERT INTO pedidos (id, codigo, unidades, total, fecha) VALUES (?, ?, 1, 5.00, ?)", id,
+				codigo, Timestamp.valueOf(fecha));
+	}
+}
@@ -0,0 +1,124 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class ReservaStockAgrupadaTest {
+
+	private static final int CODIGO = 1001;
+	private static final int STOCK_INICIAL = 1000;
+
+	/** Stock del servicio de productos simulado. */
+	private final AtomicInteger stockRemoto = new AtomicInteger(STOCK_INICIAL);
+	private final AtomicInteger llamadasRemotas = new AtomicInteger();
+	private ProductoClient productoClient;
+
+	@BeforeEach
+	void preparar() {
+		productoClient = mock(ProductoClient.class);
+		when(productoClient.actualizarStock(eq(CODIGO), anyInt())).thenAnswer(invocacion -> {
+			int cantidad = invocacion.getArgument(1);
+			return Mono.delay(Duration.ofMillis(2), Schedulers.parallel()).then(Mono.fromRunnable(() -> {
+				llamadasRemotas.incrementAndGet();
+				int actual;
+				do {
+					actual = stockRemoto.get();
+					if (actual < cantidad) {
+						throw new StockInsuficienteException();
+					}
+				} while (!stockRemoto.compareAndSet(actual, actual - cantidad));
+			}));
+		});
+		when(productoClient.liberarStock(eq(CODIGO), anyInt())).thenAnswer(invocacion -> Mono.fromRunnable(
+				() -> stockRemoto.addAndGet(invocacion.<Integer>getArgument(1))));
+	}
+
+	@Test
+	void lasReservasConcurrentesSeAgrupanSinVenderMasDelStockDisponible() throws Exception {
+		ReservaStockAgrupada reservaStock = reservaStock(Duration.ofMillis(5), 50);
+		AtomicInteger reservadas = new AtomicInteger();
+		AtomicInteger rechazadas = new AtomicInteger();
+		ExecutorService hilos = Executors.newFixedThreadPool(16);
+		try {
+			List<Callable<Void>> tareas = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				tareas.add(() -> {
+					int cantidad = ThreadLocalRandom.current().nextInt(1, 4);
+					try {
+						reservaStock.reservar(CODIGO, cantidad).block();
+						reservadas.addAndGet(cantidad);
+					} catch (StockInsuficienteException e) {
+						rechazadas.incrementAndGet();
+					}
+					return null;
+				});
+			}
+			for (Future<Void> resultado : hilos.invokeAll(tareas)) {
+				resultado.get();
+			}
+		} finally {
+			hilos.shutdown();
+		}
+
+		assertTrue(rechazadas.get() > 0);
+		assertEquals(STOCK_INICIAL, reservadas.get() + stockRemoto.get());
+		assertTrue(llamadasRemotas.get() < 2000, "llamadas remotas: " + llamadasRemotas.get());
+	}
+
+	@Test
+	void unLoteSinStockSuficienteSirveLosPedidosQueCabenEnOrdenDeLlegada() {
+		ReservaStockAgrupada reservaStock = reservaStock(Duration.ofSeconds(5), 3);
+		stockRemoto.set(10);
+
+		// El lote se envía al llegar al tamaño máximo: 4 + 8 + 2 no cabe en 10.
+		List<String> resultados = Flux.just(4, 8, 2)
+				.flatMapSequential(cantidad -> reservaStock.reservar(CODIGO, cantidad)
+						.thenReturn("ok")
+						.onErrorResume(StockInsuficienteException.class, e -> Mono.just("sin stock")))
+				.collectList()
+				.block();
+
+		// El pedido de 8 no cabe tras el de 4, pero no impide servir el de 2 que llegó detrás.
+		assertEquals(List.of("ok", "sin stock", "ok"), resultados);
+		assertEquals(4, stockRemoto.get());
+	}
+
+	@Test
+	void unPedidoSueltoSeEnviaAlTerminarLaVentana() {
+		ReservaStockAgrupada reservaStock = reservaStock(Duration.ofMillis(20), 50);
+
+		reservaStock.reservar(CODIGO, 3).block(Duration.ofSeconds(5));
+
+		assertEquals(1, llamadasRemotas.get());
+		assertEquals(STOCK_INICIAL - 3, stockRemoto.get());
+	}
+
+	private ReservaStockAgrupada reservaStock(Duration ventana, int tamanoMaximo) {
+		return new ReservaStockAgrupada(productoClient, new SimpleMeterRegistry(), ventana, tamanoMaximo);
+	}
+}
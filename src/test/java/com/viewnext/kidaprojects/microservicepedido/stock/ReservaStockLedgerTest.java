@@ -0,0 +1,140 @@
+package com.viewnext.kidaprojects.microservicepedido.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.viewnext.kidaprojects.microservicepedido.client.ProductoClient;
+import com.viewnext.kidaprojects.microservicepedido.exception.StockInsuficienteException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class ReservaStockLedgerTest {
+
+	private static final int CODIGO = 1001;
+	private static final int STOCK_INICIAL = 1000;
+
+	/** Stock del servicio de productos simulado. */
+	private final AtomicInteger stockRemoto = new AtomicInteger(STOCK_INICIAL);
+	private final AtomicInteger llamadasRemotas = new AtomicInteger();
+	private ProductoClient productoClient;
+	private ReservaStockLedger reservaStock;
+
+	@BeforeEach
+	void preparar() {
+		productoClient = mock(ProductoClient.class);
+		when(productoClient.actualizarStock(eq(CODIGO), anyInt())).thenAnswer(invocacion -> {
+			int cantidad = invocacion.getArgument(1);
+			// Asíncrono y con algo de latencia, como la llamada real.
+			return Mono.delay(Duration.ofMillis(2), Schedulers.parallel()).then(Mono.fromRunnable(() -> {
+				llamadasRemotas.incrementAndGet();
+				int actual;
+				do {
+					actual = stockRemoto.get();
+					if (actual < cantidad) {
+						throw new StockInsuficienteException();
+					}
+				} while (!stockRemoto.compareAndSet(actual, actual - cantidad));
+			}));
+		});
+		when(productoClient.liberarStock(eq(CODIGO), anyInt())).thenAnswer(invocacion -> Mono.fromRunnable(
+				() -> stockRemoto.addAndGet(invocacion.<Integer>getArgument(1))));
+		reservaStock = new ReservaStockLedger(productoClient, new SimpleMeterRegistry(), 50, Duration.ofMinutes(1),
+				Duration.ofSeconds(5));
+	}
+
+	@Test
+	void lasReservasConcurrentesNoVendenMasDelStockDisponible() throws Exception {
+		AtomicInteger reservadas = new AtomicInteger();
+		AtomicInteger rechazadas = new AtomicInteger();
+		ExecutorService hilos = Executors.newFixedThreadPool(16);
+		try {
+			List<Callable<Void>> tareas = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				tareas.add(() -> {
+					int cantidad = ThreadLocalRandom.current().nextInt(1, 4);
+					try {
+						reservaStock.reservar(CODIGO, cantidad).block();
+						reservadas.addAndGet(cantidad);
+						// Algunos pedidos fallan después y devuelven lo reservado.
+						if (ThreadLocalRandom.current().nextInt(10) == 0) {
+							reservaStock.liberar(CODIGO, cantidad).block();
+							reservadas.addAndGet(-cantidad);
+						}
+					} catch (StockInsuficienteException e) {
+						rechazadas.incrementAndGet();
+					}
+					return null;
+				});
+			}
+			for (Future<Void> resultado : hilos.invokeAll(tareas)) {
+				resultado.get();
+			}
+		} finally {
+			hilos.shutdown();
+		}
+
+		assertTrue(reservadas.get() <= STOCK_INICIAL);
+		assertTrue(rechazadas.get() > 0);
+		assertEquals(STOCK_INICIAL, reservadas.get() + stockRemoto.get() + reservaStock.disponibles(CODIGO));
+
+		reservaStock.destroy();
+		assertEquals(STOCK_INICIAL - reservadas.get(), stockRemoto.get());
+		assertEquals(0, reservaStock.disponibles(CODIGO));
+	}
+
+	@Test
+	void laMayoriaDeLasReservasNoLlamaAlServicioRemoto() {
+		for (int i = 0; i < 100; i++) {
+			reservaStock.reservar(CODIGO, 1).block();
+		}
+
+		verify(productoClient, atMost(2)).actualizarStock(eq(CODIGO), anyInt());
+		assertEquals(2, llamadasRemotas.get());
+		assertEquals(0, reservaStock.disponibles(CODIGO));
+	}
+
+	@Test
+	void siNoHayStockParaElBloqueSeReservaSoloLaCantidadDelPedido() {
+		stockRemoto.set(10);
+
+		reservaStock.reservar(CODIGO, 4).block();
+
+		assertEquals(6, stockRemoto.get());
+		assertEquals(0, reservaStock.disponibles(CODIGO));
+		assertThrows(StockInsuficienteException.class, () -> reservaStock.reservar(CODIGO, 7).block());
+	}
+
+	@Test
+	void unaCantidadNoPositivaSeRechazaSinTocarElStock() {
+		reservaStock.reservar(CODIGO, 1).block();
+		long disponibles = reservaStock.disponibles(CODIGO);
+
+		assertThrows(IllegalArgumentException.class, () -> reservaStock.reservar(CODIGO, -5).block());
+		assertThrows(IllegalArgumentException.class, () -> reservaStock.liberar(CODIGO, 0).block());
+
+		assertEquals(disponibles, reservaStock.disponibles(CODIGO));
+		assertEquals(STOCK_INICIAL - 50, stockRemoto.get());
+	}
+}
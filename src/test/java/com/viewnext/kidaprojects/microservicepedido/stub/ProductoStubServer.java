@@ -0,0 +1,146 @@
+package com.viewnext.kidaprojects.microservicepedido.stub;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Servidor HTTP en proceso que imita los endpoints del MicroservicioProducto que consume esta
+ * aplicación: {@code PUT /producto?codigo=&cantidad=} y {@code GET /producto/precio/{codigo}}.
+ *
+ * <p>
+ * Todos los productos tienen stock ilimitado y el mismo precio, salvo los códigos marcados como
+ * inexistentes, que responden 404. Se puede configurar una latencia fija por respuesta (que no
+ * ocupa ningún hilo mientras transcurre), una tasa de errores 500 y una tasa de conflictos 409
+ * en las actualizaciones de stock.
+ * </p>
+ *
+ * <p>
+ * Usa Reactor Netty con sus propios hilos de E/S, separados de los del cliente de la aplicación,
+ * para que el servidor simulado no sea el cuello de botella en las pruebas de carga.
+ * </p>
+ */
+public class ProductoStubServer implements AutoCloseable {
+
+    private final LoopResources hilos = LoopResources.create("producto-stub", 2, true);
+    private final DisposableServer servidor;
+    private final Set<Integer> codigosInexistentes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong actualizacionesStock = new AtomicLong();
+    private final AtomicLong consultasPrecio = new AtomicLong();
+
+    private volatile String precio = "9.99";
+    private volatile Duration latencia = Duration.ZERO;
+    private volatile double tasaErrores;
+    private volatile double tasaConflictos;
+
+    private ProductoStubServer() {
+        this.servidor = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(hilos)
+                .route(rutas -> rutas
+                        .put("/producto", this::actualizarStock)
+                        .get("/producto/precio/{codigo}", this::consultarPrecio))
+                .bindNow();
+    }
+
+    /**
+     * Arranca el servidor en un puerto libre de {@code localhost}.
+     *
+     * @return El servidor arrancado.
+     */
+    public static ProductoStubServer arrancar() {
+        return new ProductoStubServer();
+    }
+
+    public String getUrl() {
+        return "http://" + servidor.host() + ":" + servidor.port();
+    }
+
+    public ProductoStubServer conPrecio(String precio) {
+        this.precio = precio;
+        return this;
+    }
+
+    public ProductoStubServer conLatencia(Duration latencia) {
+        this.latencia = latencia;
+        return this;
+    }
+
+    public ProductoStubServer conTasaErrores(double tasaErrores) {
+        this.tasaErrores = tasaErrores;
+        return this;
+    }
+
+    public ProductoStubServer conTasaConflictos(double tasaConflictos) {
+        this.tasaConflictos = tasaConflictos;
+        return this;
+    }
+
+    public ProductoStubServer conProductoInexistente(int codigo) {
+        codigosInexistentes.add(codigo);
+        return this;
+    }
+
+    public long getActualizacionesStock() {
+        return actualizacionesStock.get();
+    }
+
+    public long getConsultasPrecio() {
+        return consultasPrecio.get();
+    }
+
+    @Override
+    public void close() {
+        servidor.disposeNow();
+        hilos.disposeLater().block();
+    }
+
+    private Publisher<Void> actualizarStock(HttpServerRequest solicitud, HttpServerResponse respuesta) {
+        actualizacionesStock.incrementAndGet();
+        List<String> codigo = new QueryStringDecoder(solicitud.uri()).parameters().get("codigo");
+        if (codigo == null) {
+            return responder(respuesta, 400, "");
+        }
+        int estado = codigosInexistentes.contains(Integer.parseInt(codigo.get(0))) ? 404
+                : aleatorio() < tasaErrores ? 500
+                : aleatorio() < tasaConflictos ? 409 : 200;
+        return responder(respuesta, estado, "");
+    }
+
+    private Publisher<Void> consultarPrecio(HttpServerRequest solicitud, HttpServerResponse respuesta) {
+        consultasPrecio.incrementAndGet();
+        int codigo = Integer.parseInt(solicitud.param("codigo"));
+        int estado = codigosInexistentes.contains(codigo) ? 404 : aleatorio() < tasaErrores ? 500 : 200;
+        return responder(respuesta, estado, estado == 200 ? precio : "");
+    }
+
+    private Mono<Void> responder(HttpServerResponse respuesta, int estado, String cuerpo) {
+        Mono<Void> envio = Mono.defer(() -> {
+            respuesta.status(HttpResponseStatus.valueOf(estado))
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+            return cuerpo.isEmpty() ? respuesta.send().then() : respuesta.sendString(Mono.just(cuerpo)).then();
+        });
+        Duration espera = latencia;
+        return espera.isZero() ? envio : Mono.delay(espera).then(envio);
+    }
+
+    private static double aleatorio() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+}